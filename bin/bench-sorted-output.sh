@@ -0,0 +1,23 @@
+#!/bin/sh
+# Measures writing a SortedOutputModel as Turtle, with the harness in src/test/java. Run it on the
+# jars of two versions to compare them.
+#
+# Usage: bench-sorted-output.sh <jar> <eap> <config> <diagram> [runs]
+#        bench-sorted-output.sh <jar> --synthetic <subjects> [runs]
+# The jar is the shaded jar made by mvn package. For a vocabulary, pass the largest published EAP
+# with its mapping configuration; without arguments after the jar, the largest bundled EAP is used.
+set -e
+
+jar=$(cd "$(dirname "$1")" && pwd)/$(basename "$1")
+shift
+project=$(cd "$(dirname "$0")/.." && pwd)
+work=$(mktemp -d)
+trap 'rm -rf "$work"' EXIT
+
+if [ $# -eq 0 ]; then
+  set -- "$project/situations/roles/UitbreidingToolchain.EAP" "$project/config/config.json" rollen
+fi
+
+javac -nowarn -d "$work" -cp "$jar" \
+  "$project/src/test/java/com/github/informatievlaanderen/oslo_ea_to_rdf/SortedOutputModelBenchmark.java"
+java -cp "$work:$jar" com.github.informatievlaanderen.oslo_ea_to_rdf.SortedOutputModelBenchmark "$@"
@@ -0,0 +1,44 @@
+#!/bin/sh
+# Creates a class data sharing archive for the converter, from a training run of the commands on
+# the sample EAP files. Used by the cds profile: mvn package -Pcds
+#
+# Usage: train-cds.sh <jar> <archive>
+# Requires Java 10 or later. The archive only works for the same jar and Java version.
+set -e
+
+jar=$(cd "$(dirname "$1")" && pwd)/$(basename "$1")
+archive=$2
+project=$(cd "$(dirname "$0")/.." && pwd)
+work=$(mktemp -d)
+trap 'rm -rf "$work"' EXIT
+
+example=$project/examples/example.EAP
+roles=$project/situations/roles/UitbreidingToolchain.EAP
+config=$project/config/config.json
+
+# A thema with a local contributors file, so that the training does not download it.
+printf 'Voornaam;Naam;E-mail;Affiliatie;Website;roles\nJan;Janssens;;;;A\n' > "$work/contributors.csv"
+cat > "$work/themas.json" <<EOF
+[{"name": "roles", "eap": "$roles", "diagram": "rollen", "config": "$config",
+  "contributors-file": "$work/contributors.csv", "contributors-column": "roles"}]
+EOF
+
+run() {
+  name=$1
+  shift
+  (cd "$work" && java -XX:DumpLoadedClassList="$work/$name.classlist" -cp "$jar" \
+    com.github.informatievlaanderen.oslo_ea_to_rdf.Main "$@" > "$work/$name.log" 2>&1) \
+    || { cat "$work/$name.log"; exit 1; }
+}
+
+run list list -i "$example" --full
+run list-json list -i "$roles" --full --format json
+run convert convert -i "$example" -c "$config" -d diagram -o "$work/example.ttl"
+run convert-nt convert -i "$roles" -c "$config" -d rollen --format nt -o "$work/roles.nt"
+run tsv tsv -i "$roles" -c "$config" -d rollen -o "$work/roles.tsv"
+run jsonld jsonld -c "$work/themas.json" -n roles
+
+cat "$work"/*.classlist | sort -u > "$work/all.classlist"
+java -Xshare:dump -XX:SharedClassListFile="$work/all.classlist" -XX:SharedArchiveFile="$archive" \
+  -cp "$jar" > "$work/dump.log" 2>&1 || { cat "$work/dump.log"; exit 1; }
+echo "Created $archive."
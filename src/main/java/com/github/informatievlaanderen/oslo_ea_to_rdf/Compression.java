@@ -0,0 +1,62 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf;
+
+import com.google.common.base.Charsets;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The compression applied to an output file.
+ */
+public enum Compression {
+  NONE,
+  /** A regular gzip stream, compressed on the writing thread. */
+  GZIP,
+  /** A gzip stream of which the blocks are compressed on all available cores. */
+  PGZIP;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /** {@link #GZIP} for files ending in {@code .gz}, {@link #NONE} otherwise. */
+  public static Compression forFile(Path file) {
+    return file.getFileName().toString().endsWith(".gz") ? GZIP : NONE;
+  }
+
+  /** The extension to add to a file name, including the dot, or an empty string. */
+  public String getExtension() {
+    return this == NONE ? "" : ".gz";
+  }
+
+  /**
+   * Wraps the stream so that the data written to it is compressed.
+   *
+   * @param out the stream to write the compressed data to, it is closed when the returned stream
+   *     is closed
+   */
+  public OutputStream wrap(OutputStream out) throws IOException {
+    switch (this) {
+      case GZIP:
+        return new GZIPOutputStream(out, BUFFER_SIZE);
+      case PGZIP:
+        return new ParallelGzipOutputStream(out);
+      default:
+        return out;
+    }
+  }
+
+  /** Opens the file for writing, replacing it if it exists, compressing what is written. */
+  public OutputStream newOutputStream(Path file) throws IOException {
+    return wrap(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+  }
+
+  /** Opens the file for writing UTF-8 text, replacing it if it exists, compressing the text. */
+  public BufferedWriter newBufferedWriter(Path file) throws IOException {
+    if (this == NONE) return Files.newBufferedWriter(file, Charsets.UTF_8);
+    return new BufferedWriter(new OutputStreamWriter(newOutputStream(file), Charsets.UTF_8));
+  }
+}
@@ -0,0 +1,87 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits for files to be modified. Their directories are watched, so that a file that is replaced,
+ * as some editors do on saving, is still noticed.
+ *
+ * <p>Changes are debounced: a burst of writes, such as Enterprise Architect saving a model in
+ * several steps, is reported once, after the files have been quiet for a while.
+ */
+public class FileWatcher implements Closeable {
+  private final WatchService watchService;
+  private final long debounceMillis;
+  /** The watched files, by the key of their directory. */
+  private final Map<WatchKey, Set<Path>> files = new HashMap<>();
+
+  /** @param debounceMillis the time without changes after which a change is reported */
+  public FileWatcher(long debounceMillis) throws IOException {
+    this.watchService = FileSystems.getDefault().newWatchService();
+    this.debounceMillis = debounceMillis;
+  }
+
+  /** Adds files to watch. The files do not need to exist, but their directories do. */
+  public void watch(Collection<File> toWatch) throws IOException {
+    for (File file : toWatch) {
+      Path path = file.toPath().toAbsolutePath().normalize();
+      WatchKey key =
+          path.getParent()
+              .register(
+                  watchService,
+                  StandardWatchEventKinds.ENTRY_CREATE,
+                  StandardWatchEventKinds.ENTRY_MODIFY);
+      files.computeIfAbsent(key, k -> new HashSet<>()).add(path);
+    }
+  }
+
+  /**
+   * Waits until watched files are modified, and then until no more changes follow within the
+   * debounce time.
+   *
+   * @return the modified files, as absolute paths
+   */
+  public Set<File> awaitChanges() throws InterruptedException {
+    Set<File> changed = new LinkedHashSet<>();
+    while (true) {
+      WatchKey key =
+          changed.isEmpty()
+              ? watchService.take()
+              : watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+      if (key == null) return changed;
+
+      Set<Path> watched = files.getOrDefault(key, new HashSet<>());
+      Path directory = (Path) key.watchable();
+      for (WatchEvent<?> event : key.pollEvents()) {
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+          // Events were lost, so any file in the directory may have changed.
+          for (Path path : watched) changed.add(path.toFile());
+        } else {
+          Path path = directory.resolve((Path) event.context());
+          if (watched.contains(path)) changed.add(path.toFile());
+        }
+      }
+      key.reset();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+}
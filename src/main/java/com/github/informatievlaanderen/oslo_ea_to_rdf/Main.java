@@ -1,26 +1,53 @@
 package com.github.informatievlaanderen.oslo_ea_to_rdf;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.ConsoleAppender;
 import com.beust.jcommander.*;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.*;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.JSONLDOntology.ContributorsRegistry;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.JSONLDOntology.ThemaConfiguration;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.config.Configuration;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.config.InvalidConfigurationException;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.config.PropertyTypeAdapter;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.config.ResourceTypeAdapter;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EADiagram;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAElement;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAPackage;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EARepository;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.impl.MemoryRepositoryBuilder;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.profile.Profiler;
 import com.google.common.base.Charsets;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.Collections2;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.gson.*;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.Writer;
 import java.net.URL;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
 import org.slf4j.Logger;
@@ -33,8 +60,12 @@ import org.slf4j.LoggerFactory;
  */
 public class Main {
   private static final Logger LOGGER = LoggerFactory.getLogger(Main.class);
+  private static final String DEFAULT_MAPPING_CONFIG = "/app/config/config.json";
+  private static final String CONTRIBUTORS_URL =
+      "https://raw.githubusercontent.com/Informatievlaanderen/Data.Vlaanderen.be/test/src/stakeholders.csv";
 
   public static void main(String[] rawArgs) {
+    configureLogging();
     Args args = new Args();
     JCommander jCommander = new JCommander(args);
     jCommander.setProgramName("java -jar <jarfile>");
@@ -46,8 +77,8 @@ public class Main {
     jCommander.addCommand("tsv", convertTSVArgs);
     ConvertDiagramToJSONLDArgs convertJSONLDArgs = new ConvertDiagramToJSONLDArgs();
     jCommander.addCommand("jsonld", convertJSONLDArgs);
-    DefaultProvider defaultProvider = new DefaultProvider();
-    jCommander.setDefaultProvider(defaultProvider);
+    ServerArgs serverArgs = new ServerArgs();
+    jCommander.addCommand("server", serverArgs);
 
     try {
       jCommander.parse(rawArgs);
@@ -61,47 +92,131 @@ public class Main {
       jCommander.usage();
       return;
     }
+    if ((convertRDFArgs.watch && convertRDFArgs.profile != null)
+        || (convertTSVArgs.watch && convertTSVArgs.profile != null)
+        || (convertJSONLDArgs.watch && convertJSONLDArgs.profile != null)) {
+      System.out.println("A profile covers a single run, it cannot be made with --watch.");
+      jCommander.usage();
+      System.exit(1);
+    }
 
     try {
       if ("list".equals(jCommander.getParsedCommand())) {
-        EARepository repo = new MemoryRepositoryBuilder().build(listArgs.eaFile);
+        Profiler profiler = profilerFor(listArgs.profile);
+        EARepository repo = new MemoryRepositoryBuilder(profiler).build(listArgs.eaFile);
+        StructurePrinter.Filter filter =
+            new StructurePrinter.Filter()
+                .diagramsOnly(listArgs.diagramsOnly)
+                .window(listArgs.offset, listArgs.limit);
+        if (listArgs.packageName != null)
+          filter.subtree(findPackage(repo, listArgs.packageName));
+        if (listArgs.types != null) {
+          try {
+            filter.types(parseTypes(listArgs.types));
+          } catch (IllegalArgumentException e) {
+            LOGGER.error(e.getMessage());
+            System.exit(1);
+          }
+        }
+        // Same encoding as System.out, but buffered instead of flushed on every line.
+        Writer out =
+            new BufferedWriter(new OutputStreamWriter(System.out, Charset.defaultCharset()));
+        StructurePrinter printer = new StructurePrinter(out, filter);
         if (listArgs.ouputFormat == OutputFormat.txt) {
-          new StructurePrinter().execute(repo, listArgs.printElements);
+          profiler.time("serialize", () -> printer.execute(repo, listArgs.printElements));
         } else {
-          // Gson annotations have been set so that no nested structures are printed
-          // Since the EARepository contains a list of all elements at the top, we still get all
-          // necessary
-          // information for the GUI application, even if we can't reconstruct the tree from the
-          // actual json
-          // When we start using this json output for different purposes, we might consider changing
-          // this (or
-          // provide commandline flags to modify the behaviour)
-          Gson gson = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().create();
-          System.out.print(gson.toJson(repo));
+          // Only the fields exposed to Gson are printed, so that no nested structures are
+          // printed. Since the EARepository contains a list of all elements at the top, we still
+          // get all necessary information for the GUI application, even if we can't reconstruct
+          // the tree from the actual json.
+          profiler.time("serialize", () -> printer.executeJson(repo));
         }
+        reportProfile(profiler, listArgs.profile);
       } else if ("convert".equals(jCommander.getParsedCommand())) {
-        Configuration config = loadConfig(convertRDFArgs.config);
-        EARepository repo = new MemoryRepositoryBuilder().build(convertRDFArgs.eaFile);
-        TagHelper tagHelper = new TagHelper(config);
-        RDFOutputHandler rdfOutputHandler =
-            new RDFOutputHandler(config.getPrefixes(), tagHelper, convertRDFArgs.fullOutput);
-        if (convertRDFArgs.base != null) rdfOutputHandler.addToModel(convertRDFArgs.base.toPath());
-        new Converter(repo, tagHelper, rdfOutputHandler)
-            .convertDiagram(findByName(repo, convertRDFArgs.diagramName));
-        rdfOutputHandler.writeToFile(convertRDFArgs.outputFile.toPath());
+        if (convertRDFArgs.watch) {
+          List<File> files = new ArrayList<>();
+          files.add(convertRDFArgs.eaFile);
+          files.add(convertRDFArgs.config);
+          if (convertRDFArgs.base != null) files.add(convertRDFArgs.base);
+          watch(
+              Collections.singletonList(
+                  new WatchedConversion(
+                      convertRDFArgs.outputFile.getPath(),
+                      () -> files,
+                      cache ->
+                          convertRDF(
+                              convertRDFArgs,
+                              cache.config(convertRDFArgs.config),
+                              cache.repository(convertRDFArgs.config, convertRDFArgs.eaFile),
+                              Profiler.DISABLED))),
+              convertRDFArgs.debounce);
+        } else {
+          Profiler profiler = profilerFor(convertRDFArgs.profile);
+          convertRDF(
+              convertRDFArgs,
+              loadConfig(convertRDFArgs.config, profiler),
+              new MemoryRepositoryBuilder(profiler).build(convertRDFArgs.eaFile),
+              profiler);
+          reportProfile(profiler, convertRDFArgs.profile);
+        }
       } else if ("tsv".equals(jCommander.getParsedCommand())) {
-        Configuration config = loadConfig(convertTSVArgs.config);
-        EARepository repo = new MemoryRepositoryBuilder().build(convertTSVArgs.eaFile);
-
-        Files.createDirectories(convertTSVArgs.outputFile.toPath().toAbsolutePath().getParent());
-        try (BufferedWriter writer =
-            Files.newBufferedWriter(convertTSVArgs.outputFile.toPath(), Charsets.UTF_8)) {
-          EADiagram diagram = findByName(repo, convertTSVArgs.diagramName);
-          TagHelper tagHelper = new TagHelper(config);
-          TSVOutputHandler tsvOutputHandler = new TSVOutputHandler(writer, tagHelper, diagram);
-          new Converter(repo, tagHelper, tsvOutputHandler).convertDiagram(diagram);
+        if (convertTSVArgs.watch) {
+          List<File> files = Arrays.asList(convertTSVArgs.eaFile, convertTSVArgs.config);
+          watch(
+              Collections.singletonList(
+                  new WatchedConversion(
+                      convertTSVArgs.outputFile.getPath(),
+                      () -> files,
+                      cache ->
+                          convertTSV(
+                              convertTSVArgs,
+                              cache.config(convertTSVArgs.config),
+                              cache.repository(convertTSVArgs.config, convertTSVArgs.eaFile),
+                              Profiler.DISABLED))),
+              convertTSVArgs.debounce);
+        } else {
+          Profiler profiler = profilerFor(convertTSVArgs.profile);
+          convertTSV(
+              convertTSVArgs,
+              loadConfig(convertTSVArgs.config, profiler),
+              new MemoryRepositoryBuilder(profiler).build(convertTSVArgs.eaFile),
+              profiler);
+          reportProfile(profiler, convertTSVArgs.profile);
         }
       } else if ("jsonld".equals(jCommander.getParsedCommand())) {
+        if (convertJSONLDArgs.batch) {
+          List<ThemaConfiguration> themas =
+              getThemaConfigurations(
+                  convertJSONLDArgs.config,
+                  MoreObjects.firstNonNull(convertJSONLDArgs.name, "*"));
+          if (convertJSONLDArgs.watch) {
+            List<WatchedConversion> conversions = new ArrayList<>();
+            for (ThemaConfiguration thema : themas)
+              conversions.add(watchedThema(thema.getName(), convertJSONLDArgs));
+            watch(conversions, convertJSONLDArgs.debounce);
+            return;
+          }
+          int threads =
+              convertJSONLDArgs.threads > 0
+                  ? convertJSONLDArgs.threads
+                  : Runtime.getRuntime().availableProcessors();
+          Profiler profiler = profilerFor(convertJSONLDArgs.profile);
+          boolean converted = new ThemaBatch(convertJSONLDArgs, profiler).run(themas, threads);
+          reportProfile(profiler, convertJSONLDArgs.profile);
+          if (!converted) System.exit(3);
+          return;
+        }
+        if (convertJSONLDArgs.name == null) {
+          System.out.println("The name of the ontology is required, unless --batch is used.");
+          jCommander.usage();
+          System.exit(1);
+        }
+        if (convertJSONLDArgs.watch) {
+          watch(
+              Collections.singletonList(watchedThema(convertJSONLDArgs.name, convertJSONLDArgs)),
+              convertJSONLDArgs.debounce);
+          return;
+        }
         ThemaConfiguration themaConfiguration =
             getThemaConfiguration(convertJSONLDArgs.config, convertJSONLDArgs.name);
         if (themaConfiguration == null) {
@@ -113,51 +228,35 @@ public class Main {
                   + convertJSONLDArgs.config);
         } else {
           System.out.println("Load mapping config:" + themaConfiguration.getConfig());
-          Configuration config = null;
-          if ((themaConfiguration.getConfig() == null) || (themaConfiguration.getConfig() == "")) {
+          if (isEmpty(themaConfiguration.getConfig()))
             System.out.println("no specific mapping config found: defaulting to tool's version");
-            config = loadConfig(new File("/app/config/config.json"));
-          } else {
-            config = loadConfig(new File(themaConfiguration.getConfig()));
-          }
-          ;
+          Profiler profiler = profilerFor(convertJSONLDArgs.profile);
+          Configuration config = loadConfig(mappingConfigFile(themaConfiguration), profiler);
           EARepository repo =
-              new MemoryRepositoryBuilder().build(new File(themaConfiguration.getEap()));
-          File outputFile =
-              new File(
-                  System.getProperty("user.dir") + "/" + themaConfiguration.getName() + ".jsonld");
-          File reportFile =
-              new File(
-                  System.getProperty("user.dir") + "/" + themaConfiguration.getName() + ".report");
-          Files.createDirectories(outputFile.toPath().toAbsolutePath().getParent());
-          try (BufferedWriter writer =
-              Files.newBufferedWriter(outputFile.toPath(), Charsets.UTF_8)) {
-            EADiagram diagram = findByName(repo, themaConfiguration.getDiagram());
-            TagHelper tagHelper = new TagHelper(config);
-            JSONLDOutputHandler jsonldOutputHandler =
-                new JSONLDOutputHandler(
-                    themaConfiguration.getName(),
-                    themaConfiguration.getContributorsColumn(),
-                    writer,
-                    tagHelper,
-                    diagram);
-            new Converter(repo, tagHelper, jsonldOutputHandler).convertDiagram(diagram);
-            if (themaConfiguration.getContributorsFile() == null
-                || themaConfiguration.getContributorsFile().length() == 0) {
-              jsonldOutputHandler.addToReport(
-                  "[W] Could not find contributors file configuration for "
-                      + themaConfiguration.getName());
-              jsonldOutputHandler.handleContributors(
-                  new URL(
-                      "https://raw.githubusercontent.com/Informatievlaanderen/Data.Vlaanderen.be/test/src/stakeholders.csv"));
-            } else {
-              jsonldOutputHandler.handleContributors(
-                  new File(themaConfiguration.getContributorsFile()));
-            }
-            jsonldOutputHandler.writeToFile(outputFile.toPath());
-            jsonldOutputHandler.writeReportToFile(reportFile.getAbsolutePath());
-          }
+              new MemoryRepositoryBuilder(profiler).build(new File(themaConfiguration.getEap()));
+          convertThema(
+              themaConfiguration,
+              config,
+              repo,
+              loadContributors(
+                  themaConfiguration,
+                  convertJSONLDArgs.contributorsCache,
+                  convertJSONLDArgs.contributorsMaxAge),
+              convertJSONLDArgs,
+              profiler);
+          reportProfile(profiler, convertJSONLDArgs.profile);
         }
+      } else if ("server".equals(jCommander.getParsedCommand())) {
+        // Runs until the process is stopped.
+        new Server(
+                serverArgs.port,
+                serverArgs.threads > 0
+                    ? serverArgs.threads
+                    : Runtime.getRuntime().availableProcessors(),
+                serverArgs.cacheSize,
+                serverArgs.contributorsCache,
+                serverArgs.contributorsMaxAge)
+            .start();
       } else {
         jCommander.usage();
       }
@@ -173,7 +272,455 @@ public class Main {
     }
   }
 
-  private static EADiagram findByName(EARepository repo, String name) throws ConversionException {
+  /** Converts a diagram to RDF, as specified by the arguments of the convert command. */
+  private static void convertRDF(
+      ConvertDiagramToRDFArgs convertRDFArgs,
+      Configuration config,
+      EARepository repo,
+      Profiler profiler)
+      throws IOException, ConversionException {
+    TagHelper tagHelper = new TagHelper(config, profiler);
+    try {
+      convertRDF(convertRDFArgs, config, repo, tagHelper, profiler);
+    } finally {
+      // Also after a failure, since the diagnostics may explain it.
+      tagHelper.getDiagnostics().log();
+    }
+  }
+
+  private static void convertRDF(
+      ConvertDiagramToRDFArgs convertRDFArgs,
+      Configuration config,
+      EARepository repo,
+      TagHelper tagHelper,
+      Profiler profiler)
+      throws IOException, ConversionException {
+    // The shapes are derived in the same pass as the main output.
+    ShaclOutputHandler shaclOutputHandler =
+        convertRDFArgs.shacl == null
+            ? null
+            : new ShaclOutputHandler(config.getPrefixes(), convertRDFArgs.shaclNamespace);
+    if (convertRDFArgs.shard) {
+      if (convertRDFArgs.format != RDFFormat.ttl || convertRDFArgs.base != null) {
+        LOGGER.error("Sharded output is only supported for ttl, without a base file.");
+        System.exit(1);
+      }
+      // Closing the handler removes the triples spilled in streaming mode, also on failure.
+      try (ShardedOutputHandler shardedOutputHandler =
+          new ShardedOutputHandler(
+              config.getPrefixes(),
+              tagHelper,
+              convertRDFArgs.fullOutput,
+              convertRDFArgs.streaming)) {
+        new Converter(repo, tagHelper, withShapes(shardedOutputHandler, shaclOutputHandler))
+            .convertDiagram(findByName(repo, convertRDFArgs.diagramName));
+        profiler.time(
+            "serialize",
+            () ->
+                shardedOutputHandler.writeToDirectory(
+                    convertRDFArgs.outputFile.toPath(),
+                    MoreObjects.firstNonNull(convertRDFArgs.compression, Compression.NONE)));
+      }
+    } else if (convertRDFArgs.dataset) {
+      if (convertRDFArgs.base != null || convertRDFArgs.patch != null) {
+        LOGGER.error("Dataset output is not supported with a base file or a patch.");
+        System.exit(1);
+      }
+      Compression compression =
+          MoreObjects.firstNonNull(convertRDFArgs.compression, Compression.NONE);
+      Path graphFile =
+          convertRDFArgs
+              .outputFile
+              .toPath()
+              .resolve(
+                  convertRDFArgs.diagramName.replaceAll("[^A-Za-z0-9._-]", "_")
+                      + ".nq"
+                      + compression.getExtension());
+      // Always replaced as a whole, so that a loader never sees a partially written graph.
+      try (OutputFile output = new OutputFile(graphFile, compression, true)) {
+        NamedGraphOutputHandler namedGraphOutputHandler;
+        try (BufferedWriter writer = output.newBufferedWriter();
+            NTriplesStreamGraph graph =
+                new NTriplesStreamGraph(writer, null, convertRDFArgs.canonical)) {
+          namedGraphOutputHandler =
+              new NamedGraphOutputHandler(
+                  config.getPrefixes(), tagHelper, convertRDFArgs.fullOutput, graph);
+          new Converter(repo, tagHelper, withShapes(namedGraphOutputHandler, shaclOutputHandler))
+              .convertDiagram(findByName(repo, convertRDFArgs.diagramName));
+        }
+        LOGGER.info("Converted to graph {}.", namedGraphOutputHandler.getOntology());
+        logCommit(output, graphFile.toFile());
+      }
+    } else if (convertRDFArgs.format == RDFFormat.ttl) {
+      // Closing the handler removes the triples spilled in streaming mode, also on failure.
+      try (RDFOutputHandler rdfOutputHandler =
+          new RDFOutputHandler(
+              config.getPrefixes(),
+              tagHelper,
+              convertRDFArgs.fullOutput,
+              convertRDFArgs.streaming)) {
+        if (convertRDFArgs.base != null)
+          rdfOutputHandler.addToModel(convertRDFArgs.base.toPath());
+        new Converter(repo, tagHelper, withShapes(rdfOutputHandler, shaclOutputHandler))
+            .convertDiagram(findByName(repo, convertRDFArgs.diagramName));
+        // A patch is made against the previous output, so that output is kept if unchanged.
+        try (OutputFile output =
+            new OutputFile(
+                convertRDFArgs.outputFile.toPath(),
+                compressionFor(convertRDFArgs.compression, convertRDFArgs.outputFile),
+                convertRDFArgs.skipUnchanged || convertRDFArgs.patch != null)) {
+          try (BufferedWriter writer = output.newBufferedWriter()) {
+            profiler.time("serialize", () -> rdfOutputHandler.write(writer));
+          }
+          if (convertRDFArgs.patch != null && output.isChanged())
+            writePatch(output, convertRDFArgs.outputFile, convertRDFArgs.patch);
+          logCommit(output, convertRDFArgs.outputFile);
+        }
+      }
+    } else {
+      // Line based formats are written while converting, nothing is kept in memory.
+      if (convertRDFArgs.patch != null) {
+        LOGGER.error("A patch can only be made for ttl output.");
+        System.exit(1);
+      }
+      try (OutputFile output =
+          new OutputFile(
+              convertRDFArgs.outputFile.toPath(),
+              compressionFor(convertRDFArgs.compression, convertRDFArgs.outputFile),
+              convertRDFArgs.skipUnchanged)) {
+        try (BufferedWriter writer = output.newBufferedWriter();
+            NTriplesStreamGraph graph =
+                new NTriplesStreamGraph(
+                    writer,
+                    convertRDFArgs.format == RDFFormat.nq ? convertRDFArgs.graphName : null,
+                    convertRDFArgs.canonical)) {
+          RDFOutputHandler rdfOutputHandler =
+              new RDFOutputHandler(
+                  config.getPrefixes(), tagHelper, convertRDFArgs.fullOutput, graph);
+          if (convertRDFArgs.base != null)
+            rdfOutputHandler.addToModel(convertRDFArgs.base.toPath());
+          new Converter(repo, tagHelper, withShapes(rdfOutputHandler, shaclOutputHandler))
+              .convertDiagram(findByName(repo, convertRDFArgs.diagramName));
+        }
+        logCommit(output, convertRDFArgs.outputFile);
+      }
+    }
+    if (shaclOutputHandler != null) {
+      try (OutputFile output =
+          new OutputFile(
+              convertRDFArgs.shacl.toPath(),
+              compressionFor(null, convertRDFArgs.shacl),
+              convertRDFArgs.skipUnchanged)) {
+        try (BufferedWriter writer = output.newBufferedWriter()) {
+          profiler.time("serialize", () -> shaclOutputHandler.write(writer));
+        }
+        logCommit(output, convertRDFArgs.shacl);
+      }
+    }
+  }
+
+  /** Converts a diagram to a TSV table, as specified by the arguments of the tsv command. */
+  private static void convertTSV(
+      ConvertDiagramToTSVArgs convertTSVArgs,
+      Configuration config,
+      EARepository repo,
+      Profiler profiler)
+      throws IOException, ConversionException {
+    try (OutputFile output =
+        new OutputFile(
+            convertTSVArgs.outputFile.toPath(),
+            compressionFor(convertTSVArgs.compression, convertTSVArgs.outputFile),
+            convertTSVArgs.skipUnchanged)) {
+      TagHelper tagHelper = new TagHelper(config, profiler);
+      try (BufferedWriter writer = output.newBufferedWriter()) {
+        EADiagram diagram = findByName(repo, convertTSVArgs.diagramName);
+        TSVOutputHandler tsvOutputHandler = new TSVOutputHandler(writer, tagHelper, diagram);
+        new Converter(repo, tagHelper, tsvOutputHandler).convertDiagram(diagram);
+      } finally {
+        tagHelper.getDiagnostics().log();
+      }
+      logCommit(output, convertTSVArgs.outputFile);
+    }
+  }
+
+  /**
+   * Logs to the console, from level INFO. Logback is configured here rather than in a logback.xml,
+   * because parsing XML at startup takes longer than most listings. A configuration file passed
+   * with {@code -Dlogback.configurationFile} is used instead.
+   */
+  private static void configureLogging() {
+    if (System.getProperty("logback.configurationFile") != null) return;
+    LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    context.reset();
+
+    PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+    encoder.setContext(context);
+    encoder.setPattern("%d{HH:mm:ss} %-5level %logger{10} - %msg%n");
+    encoder.start();
+    ConsoleAppender<ILoggingEvent> appender = new ConsoleAppender<>();
+    appender.setContext(context);
+    appender.setName("STDOUT");
+    appender.setEncoder(encoder);
+    appender.start();
+
+    ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+    root.setLevel(Level.INFO);
+    root.addAppender(appender);
+  }
+
+  /**
+   * Converts a thema to a JSON-LD file, with a report and diagnostics, in the working directory.
+   * The contributors are resolved by the caller, so that converting never waits for the network.
+   */
+  private static void convertThema(
+      ThemaConfiguration themaConfiguration,
+      Configuration config,
+      EARepository repo,
+      ContributorsRegistry contributors,
+      ConvertDiagramToJSONLDArgs args,
+      Profiler profiler)
+      throws IOException, ConversionException {
+    Compression compression = MoreObjects.firstNonNull(args.compression, Compression.NONE);
+    File outputFile =
+        new File(
+            System.getProperty("user.dir")
+                + "/"
+                + themaConfiguration.getName()
+                + ".jsonld"
+                + compression.getExtension());
+    File reportFile =
+        new File(System.getProperty("user.dir") + "/" + themaConfiguration.getName() + ".report");
+    File diagnosticsFile =
+        new File(
+            System.getProperty("user.dir")
+                + "/"
+                + themaConfiguration.getName()
+                + ".diagnostics.json");
+    EADiagram diagram = findByName(repo, themaConfiguration.getDiagram());
+    TagHelper tagHelper = new TagHelper(config, profiler);
+    try (OutputFile output = new OutputFile(outputFile.toPath(), compression, args.skipUnchanged)) {
+      // In incremental mode the handler writes the output file itself.
+      // Closing the handler deletes its segment files in incremental mode, also on failure.
+      try (BufferedWriter writer = args.incremental ? null : output.newBufferedWriter();
+          JSONLDOutputHandler jsonldOutputHandler =
+              args.incremental
+                  ? new JSONLDOutputHandler(
+                      themaConfiguration.getName(),
+                      themaConfiguration.getContributorsColumn(),
+                      tagHelper,
+                      diagram)
+                  : new JSONLDOutputHandler(
+                      themaConfiguration.getName(),
+                      themaConfiguration.getContributorsColumn(),
+                      writer,
+                      tagHelper,
+                      diagram)) {
+        new Converter(repo, tagHelper, jsonldOutputHandler).convertDiagram(diagram);
+        if (isEmpty(themaConfiguration.getContributorsFile())) {
+          jsonldOutputHandler.addToReport(
+              "[W] Could not find contributors file configuration for "
+                  + themaConfiguration.getName());
+        }
+        jsonldOutputHandler.handleContributors(contributors);
+        profiler.time(
+            "serialize",
+            () -> {
+              jsonldOutputHandler.writeToFile(output.getPath(), compression);
+              jsonldOutputHandler.writeReportToFile(reportFile.getAbsolutePath());
+            });
+        tagHelper.getDiagnostics().writeReport(diagnosticsFile.toPath());
+      }
+      logCommit(output, outputFile);
+    } finally {
+      // Also after a failure, since the diagnostics may explain it.
+      tagHelper.getDiagnostics().log();
+    }
+  }
+
+  /**
+   * The conversion of a thema, to be run again when the thema configuration, or its mapping
+   * configuration, EAP or contributors file, is modified.
+   */
+  private static WatchedConversion watchedThema(String name, ConvertDiagramToJSONLDArgs args) {
+    return new WatchedConversion(
+        name,
+        () -> {
+          List<File> files = new ArrayList<>();
+          files.add(args.config);
+          try {
+            ThemaConfiguration thema = getThemaConfiguration(args.config, name);
+            if (thema != null) {
+              files.add(mappingConfigFile(thema));
+              files.add(new File(thema.getEap()));
+              if (!isEmpty(thema.getContributorsFile()))
+                files.add(new File(thema.getContributorsFile()));
+            }
+          } catch (IOException | JsonParseException e) {
+            // The other files are known once the thema configuration can be read.
+          }
+          return files;
+        },
+        cache -> {
+          ThemaConfiguration thema = getThemaConfiguration(args.config, name);
+          if (thema == null) throw new ConversionException("Thema not found: " + name + ".");
+          File configFile = mappingConfigFile(thema);
+          convertThema(
+              thema,
+              cache.config(configFile),
+              cache.repository(configFile, new File(thema.getEap())),
+              loadContributors(thema, args.contributorsCache, args.contributorsMaxAge),
+              args,
+              Profiler.DISABLED);
+        });
+  }
+
+  /**
+   * Runs the conversions, and then runs a conversion again whenever one of its files is modified,
+   * until the process is stopped. Configurations and EAP files stay loaded while not modified.
+   */
+  private static void watch(List<WatchedConversion> conversions, long debounceMillis)
+      throws IOException {
+    RepositoryCache cache = new RepositoryCache(Math.max(1, conversions.size()));
+    try (FileWatcher watcher = new FileWatcher(debounceMillis)) {
+      Set<File> changed = null;
+      while (true) {
+        for (WatchedConversion conversion : conversions) {
+          if (changed == null || conversion.dependsOn(changed)) conversion.run(cache);
+          watcher.watch(conversion.files);
+        }
+        LOGGER.info("Watching for changes.");
+        changed = watcher.awaitChanges();
+        LOGGER.info("Modified: {}.", changed);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** A profiler if a report is asked for, otherwise one that records nothing. */
+  private static Profiler profilerFor(File report) {
+    return report == null ? Profiler.DISABLED : new Profiler();
+  }
+
+  /** Writes the report of the profiler, if asked for, and prints its summary. */
+  private static void reportProfile(Profiler profiler, File report) throws IOException {
+    if (report == null) return;
+    profiler.writeReport(report.toPath());
+    profiler.printSummary(System.err);
+    LOGGER.info("Written {}.", report);
+  }
+
+  /** The mapping configuration of the thema, or the one of the tool if it has none. */
+  static File mappingConfigFile(ThemaConfiguration themaConfiguration) {
+    return isEmpty(themaConfiguration.getConfig())
+        ? new File(DEFAULT_MAPPING_CONFIG)
+        : new File(themaConfiguration.getConfig());
+  }
+
+  static boolean isEmpty(String value) {
+    return value == null || value.isEmpty();
+  }
+
+  /** The contributors CSV of the thema, or the URL of the published one if the thema has none. */
+  private static String contributorsSource(ThemaConfiguration themaConfiguration) {
+    if (isEmpty(themaConfiguration.getContributorsFile())) return CONTRIBUTORS_URL;
+    return new File(themaConfiguration.getContributorsFile()).getAbsolutePath();
+  }
+
+  /**
+   * The contributors CSV of the thema, or the published one if the thema has none. Returns {@code
+   * null} if it cannot be read.
+   */
+  static ContributorsRegistry loadContributors(
+      ThemaConfiguration themaConfiguration, File cacheDirectory, long maxAgeHours) {
+    try {
+      if (isEmpty(themaConfiguration.getContributorsFile()))
+        return ContributorsRegistry.forUrl(
+            new URL(CONTRIBUTORS_URL), cacheDirectory.toPath(), maxAgeHours);
+      return ContributorsRegistry.forFile(
+          new File(themaConfiguration.getContributorsFile()).toPath());
+    } catch (IOException e) {
+      LOGGER.warn("Could not read the contributors for {}.", themaConfiguration.getName(), e);
+      return null;
+    }
+  }
+
+  /** The handler, combined with the handler for the shapes if there is one. */
+  private static OutputHandler withShapes(
+      OutputHandler handler, ShaclOutputHandler shaclOutputHandler) {
+    if (shaclOutputHandler == null) return handler;
+    return new CompositeOutputHandler(handler, shaclOutputHandler);
+  }
+
+  /** Commits the output file, and logs whether it was written or left as it was. */
+  private static void logCommit(OutputFile output, File outputFile) throws IOException {
+    if (output.commit()) LOGGER.info("Written {}.", outputFile);
+    else LOGGER.info("Output unchanged, left {} untouched.", outputFile);
+  }
+
+  /**
+   * Writes a RDF Patch from the previous Turtle output to the new one. Without previous output, the
+   * patch adds all triples.
+   *
+   * @param output the new output, written but not yet committed
+   * @param outputFile the file holding the previous output
+   * @param patchFile the file to write the patch to
+   */
+  private static void writePatch(OutputFile output, File outputFile, File patchFile)
+      throws IOException {
+    String base = outputFile.toURI().toString();
+    Model previous = ModelFactory.createDefaultModel();
+    String previousHash = output.getPreviousHash();
+    if (outputFile.exists()) {
+      try (InputStream in = OutputFile.open(outputFile.toPath())) {
+        previous.read(in, base, "TTL");
+      }
+    }
+    Model current = ModelFactory.createDefaultModel();
+    try (InputStream in = OutputFile.open(output.getPath())) {
+      current.read(in, base, "TTL");
+    }
+    Files.createDirectories(patchFile.toPath().toAbsolutePath().getParent());
+    try (Writer writer = Files.newBufferedWriter(patchFile.toPath(), Charsets.UTF_8)) {
+      RDFPatchWriter.write(previous, previousHash, current, output.getHash(), writer);
+    }
+    LOGGER.info("Written patch {}.", patchFile);
+  }
+
+  /** The compression chosen on the command line, or else the one for the file extension. */
+  private static Compression compressionFor(Compression option, File outputFile) {
+    return option != null ? option : Compression.forFile(outputFile.toPath());
+  }
+
+  /** Parses element types such as {@code class} or {@code DataType}. */
+  static Set<EAElement.Type> parseTypes(Collection<String> names) {
+    Set<EAElement.Type> types = EnumSet.noneOf(EAElement.Type.class);
+    for (String name : names) {
+      try {
+        types.add(EAElement.Type.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Unknown element type: " + name + ".", e);
+      }
+    }
+    return types;
+  }
+
+  static EAPackage findPackage(EARepository repo, String nameOrGuid)
+      throws ConversionException {
+    Collection<EAPackage> packages =
+        Collections2.filter(
+            repo.getPackages(),
+            p -> nameOrGuid.equals(p.getGuid()) || nameOrGuid.equals(p.getName()));
+    if (packages.size() > 1)
+      throw new ConversionException(
+          "Multiple packages share the name \"" + nameOrGuid + "\" - use the GUID instead.");
+    else if (packages.isEmpty())
+      throw new ConversionException("Package not found: " + nameOrGuid + ".");
+
+    return packages.iterator().next();
+  }
+
+  static EADiagram findByName(EARepository repo, String name) throws ConversionException {
     Objects.requireNonNull(name);
     Collection<EADiagram> diagrams =
         Collections2.filter(repo.getDiagrams(), diagram -> name.equals(diagram.getName()));
@@ -185,7 +732,7 @@ public class Main {
     return diagrams.iterator().next();
   }
 
-  private static ThemaConfiguration getThemaConfiguration(File themaConfigurationFile, String name)
+  static ThemaConfiguration getThemaConfiguration(File themaConfigurationFile, String name)
       throws IOException {
     String jsonString = new String(Files.readAllBytes(themaConfigurationFile.toPath()));
     Gson gson = new GsonBuilder().create();
@@ -199,7 +746,33 @@ public class Main {
     return null;
   }
 
-  private static Configuration loadConfig(File configFile) throws InvalidConfigurationException {
+  /** The themas of which the name matches the glob pattern, in order of the file. */
+  private static List<ThemaConfiguration> getThemaConfigurations(
+      File themaConfigurationFile, String glob) throws IOException {
+    StringBuilder regex = new StringBuilder();
+    for (char c : glob.toCharArray()) {
+      if (c == '*') regex.append(".*");
+      else if (c == '?') regex.append('.');
+      else regex.append(Pattern.quote(String.valueOf(c)));
+    }
+    Pattern pattern = Pattern.compile(regex.toString());
+
+    String jsonString = new String(Files.readAllBytes(themaConfigurationFile.toPath()));
+    ThemaConfiguration[] themaConfigurations =
+        new GsonBuilder().create().fromJson(jsonString, ThemaConfiguration[].class);
+    List<ThemaConfiguration> result = new ArrayList<>();
+    for (ThemaConfiguration themaConfiguration : themaConfigurations) {
+      if (pattern.matcher(themaConfiguration.getName()).matches()) result.add(themaConfiguration);
+    }
+    return result;
+  }
+
+  private static Configuration loadConfig(File configFile, Profiler profiler)
+      throws InvalidConfigurationException {
+    return profiler.time("config", () -> loadConfig(configFile));
+  }
+
+  static Configuration loadConfig(File configFile) throws InvalidConfigurationException {
     Gson gson =
         new GsonBuilder()
             .registerTypeAdapter(Resource.class, new ResourceTypeAdapter())
@@ -215,6 +788,155 @@ public class Main {
     }
   }
 
+  /**
+   * Converts themas on a bounded thread pool. Each mapping configuration is loaded once, and so is
+   * each EAP file per mapping configuration: converting assigns URIs to the elements of the EAP
+   * file, which depend on the configuration. Themas sharing an EAP file are therefore converted one
+   * at a time, holding the repository as lock like the {@link Server} does. Each contributors CSV
+   * is resolved once, before converting.
+   */
+  private static class ThemaBatch {
+    private final ConvertDiagramToJSONLDArgs args;
+    private final Profiler profiler;
+    private final Map<File, Supplier<Configuration>> configs = new ConcurrentHashMap<>();
+    private final Map<List<File>, Supplier<EARepository>> repositories =
+        new ConcurrentHashMap<>();
+    /** By {@link #contributorsSource}, {@code null} if it could not be read. */
+    private final Map<String, ContributorsRegistry> contributors = new HashMap<>();
+
+    private ThemaBatch(ConvertDiagramToJSONLDArgs args, Profiler profiler) {
+      this.args = args;
+      this.profiler = profiler;
+    }
+
+    /**
+     * Converts the themas, and prints a summary with the time each took.
+     *
+     * @return whether all themas were converted
+     */
+    private boolean run(List<ThemaConfiguration> themas, int threads) {
+      long start = System.nanoTime();
+      int poolSize = Math.max(1, Math.min(threads, themas.size()));
+      ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+      List<Future<Long>> results = new ArrayList<>();
+      try {
+        for (ThemaConfiguration thema : themas) {
+          String source = contributorsSource(thema);
+          if (!contributors.containsKey(source))
+            contributors.put(
+                source, loadContributors(thema, args.contributorsCache, args.contributorsMaxAge));
+        }
+        for (ThemaConfiguration thema : themas) results.add(executor.submit(() -> convert(thema)));
+
+        boolean success = true;
+        System.out.println(String.format("%-30s %10s  %s", "Thema", "Time (s)", "Result"));
+        for (int i = 0; i < themas.size(); i++) {
+          String name = themas.get(i).getName();
+          try {
+            long nanos = results.get(i).get();
+            System.out.println(String.format("%-30s %10.2f  %s", name, nanos / 1e9, "ok"));
+          } catch (ExecutionException e) {
+            success = false;
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedExecutionException) cause = cause.getCause();
+            LOGGER.error("An error occurred while converting {}.", name, cause);
+            System.out.println(String.format("%-30s %10s  failed: %s", name, "", cause));
+          }
+        }
+        System.out.println(
+            String.format(
+                "Converted %d themas on %d threads in %.2f s, loading %d mapping configurations and %d EAP files.",
+                themas.size(),
+                poolSize,
+                (System.nanoTime() - start) / 1e9,
+                configs.size(),
+                repositories.size()));
+        return success;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+
+    /** Converts a thema, returning the time it took in nanoseconds. */
+    private long convert(ThemaConfiguration thema) throws Exception {
+      long start = System.nanoTime();
+      File configFile = mappingConfigFile(thema).getAbsoluteFile();
+      File eapFile = new File(thema.getEap()).getAbsoluteFile();
+      Configuration config =
+          configs.computeIfAbsent(configFile, f -> memoize(() -> loadConfig(f, profiler))).get();
+      EARepository repo =
+          repositories
+              .computeIfAbsent(
+                  Arrays.asList(configFile, eapFile),
+                  k -> memoize(() -> new MemoryRepositoryBuilder(profiler).build(eapFile)))
+              .get();
+      synchronized (repo) {
+        convertThema(
+            thema, config, repo, contributors.get(contributorsSource(thema)), args, profiler);
+      }
+      return System.nanoTime() - start;
+    }
+
+    /**
+     * Loads a value once, on the first thread that asks for it. Other threads wait for it. A
+     * failure is not remembered.
+     */
+    private static <T> Supplier<T> memoize(Callable<T> loader) {
+      return Suppliers.memoize(
+          () -> {
+            try {
+              return loader.call();
+            } catch (RuntimeException e) {
+              throw e;
+            } catch (Exception e) {
+              throw new UncheckedExecutionException(e);
+            }
+          });
+    }
+  }
+
+  /** A conversion in watch mode, with the files it depends on. */
+  private static class WatchedConversion {
+    private final String name;
+    private final Callable<List<File>> fileLister;
+    private final Conversion conversion;
+    /** The absolute files the conversion read when it was last run. */
+    private Set<File> files = Collections.emptySet();
+
+    private WatchedConversion(
+        String name, Callable<List<File>> fileLister, Conversion conversion) {
+      this.name = name;
+      this.fileLister = fileLister;
+      this.conversion = conversion;
+    }
+
+    private boolean dependsOn(Set<File> changed) {
+      return !Collections.disjoint(files, changed);
+    }
+
+    /** Runs the conversion and reports how long it took. A failure is only reported. */
+    private void run(RepositoryCache cache) {
+      long start = System.nanoTime();
+      try {
+        Set<File> read = new HashSet<>();
+        for (File file : fileLister.call())
+          read.add(file.toPath().toAbsolutePath().normalize().toFile());
+        files = read;
+        conversion.run(cache);
+        LOGGER.info("Updated {} in {} ms.", name, (System.nanoTime() - start) / 1000000);
+      } catch (Exception e) {
+        LOGGER.error("Could not update {}, waiting for the next change.", name, e);
+      }
+    }
+  }
+
+  private interface Conversion {
+    void run(RepositoryCache cache) throws Exception;
+  }
+
   private static class Args {
     @Parameter(
         names = {"-h", "--help"},
@@ -239,7 +961,41 @@ public class Main {
     @Parameter(
         names = {"--format"},
         description = "The output format. Default: txt.")
-    OutputFormat ouputFormat;
+    OutputFormat ouputFormat = OutputFormat.txt;
+
+    @Parameter(
+        names = {"--package"},
+        description = "Only list this package, by name or GUID, and the packages it contains.")
+    String packageName;
+
+    @Parameter(
+        names = {"--types"},
+        description =
+            "Only list elements of these types, comma separated: class, datatype, enumeration. Default: all.")
+    List<String> types;
+
+    @Parameter(
+        names = {"--diagrams-only"},
+        description = "Only list packages and diagrams. Default: false.")
+    boolean diagramsOnly = false;
+
+    @Parameter(
+        names = {"--offset"},
+        description =
+            "Skip this number of entries: lines for txt, elements (or diagrams with --diagrams-only) for json. Default: 0.")
+    int offset = 0;
+
+    @Parameter(
+        names = {"--limit"},
+        description =
+            "List at most this number of entries, counted as for --offset. The json output then includes the total number of entries. Default: no limit.")
+    int limit = -1;
+
+    @Parameter(
+        names = {"--profile"},
+        description =
+            "Write the wall time, CPU time and allocated bytes of each phase to this JSON file. A summary is printed to standard error.")
+    File profile;
   }
 
   @Parameters(commandDescription = "Convert a diagram from an EA file to a RDF turtle file.")
@@ -275,6 +1031,94 @@ public class Main {
             "Provide full output for each term, regardless whether they are internal or external. Default: false.")
     boolean fullOutput = false;
 
+    @Parameter(
+        names = {"--streaming"},
+        required = false,
+        description =
+            "Spill the triples to temporary files instead of keeping them in memory. Default: false.")
+    boolean streaming = false;
+
+    @Parameter(
+        names = {"--format"},
+        description =
+            "The output format: ttl (Turtle), nt (N-Triples) or nq (N-Quads). N-Triples and N-Quads are written while converting. Default: ttl.")
+    RDFFormat format = RDFFormat.ttl;
+
+    @Parameter(
+        names = {"--canonical"},
+        description =
+            "For nt and nq: sort the lines and remove duplicates, for stable diffs. Default: false.")
+    boolean canonical = false;
+
+    @Parameter(
+        names = {"--graph"},
+        description = "For nq: the graph to write the triples to. Default: the default graph.")
+    String graphName;
+
+    @Parameter(
+        names = {"--shard"},
+        description =
+            "Write a Turtle file per defining package, and a manifest "
+                + ShardedOutputHandler.MANIFEST
+                + " listing them, to the output directory. Default: false.")
+    boolean shard = false;
+
+    @Parameter(
+        names = {"--shacl"},
+        description =
+            "Also write SHACL shapes, derived from the cardinalities and ranges, to this Turtle file. Gzipped if the name ends in .gz.")
+    File shacl;
+
+    @Parameter(
+        names = {"--shacl-namespace"},
+        description =
+            "With --shacl: the namespace to name the shapes in. Default: shapes# below the ontology URI.")
+    String shaclNamespace;
+
+    @Parameter(
+        names = {"--dataset"},
+        description =
+            "Write the triples as N-Quads, in a named graph that is the ontology URI, to a file named after the diagram in the output directory. The file is replaced as a whole, and left untouched if unchanged. Default: false.")
+    boolean dataset = false;
+
+    @Parameter(
+        names = {"--skip-unchanged"},
+        description =
+            "Leave the output file untouched if its content did not change since the previous run, as recorded in a file with the extension "
+                + OutputFile.HASH_EXTENSION
+                + ". Default: false.")
+    boolean skipUnchanged = false;
+
+    @Parameter(
+        names = {"--patch"},
+        description =
+            "For ttl: if the output changed, write a RDF Patch from the previous output to the new one to this file. Implies --skip-unchanged.")
+    File patch;
+
+    @Parameter(
+        names = {"--watch"},
+        description =
+            "Keep running, and convert again whenever one of the input files is modified. Default: false.")
+    boolean watch = false;
+
+    @Parameter(
+        names = {"--debounce"},
+        description =
+            "With --watch: the time in milliseconds to wait for more modifications before converting again. Default: 500.")
+    long debounce = 500;
+
+    @Parameter(
+        names = {"--profile"},
+        description =
+            "Write the wall time, CPU time and allocated bytes of each phase, and the number of tag lookups and output handler calls, to this JSON file. A summary is printed to standard error. Not supported with --watch.")
+    File profile;
+
+    @Parameter(
+        names = {"--compression"},
+        description =
+            "Compress the output: NONE, GZIP or PGZIP (gzip compressed on all cores). Default: GZIP if the output file name ends in .gz, NONE otherwise.")
+    Compression compression;
+
     @Parameter(
         names = {"-o", "--output"},
         required = true,
@@ -307,6 +1151,38 @@ public class Main {
         required = true,
         description = "JSON configuration file for mappings.")
     File config;
+
+    @Parameter(
+        names = {"--skip-unchanged"},
+        description =
+            "Leave the output file untouched if its content did not change since the previous run, as recorded in a file with the extension "
+                + OutputFile.HASH_EXTENSION
+                + ". Default: false.")
+    boolean skipUnchanged = false;
+
+    @Parameter(
+        names = {"--watch"},
+        description =
+            "Keep running, and convert again whenever one of the input files is modified. Default: false.")
+    boolean watch = false;
+
+    @Parameter(
+        names = {"--debounce"},
+        description =
+            "With --watch: the time in milliseconds to wait for more modifications before converting again. Default: 500.")
+    long debounce = 500;
+
+    @Parameter(
+        names = {"--profile"},
+        description =
+            "Write the wall time, CPU time and allocated bytes of each phase, and the number of tag lookups and output handler calls, to this JSON file. A summary is printed to standard error. Not supported with --watch.")
+    File profile;
+
+    @Parameter(
+        names = {"--compression"},
+        description =
+            "Compress the output: NONE, GZIP or PGZIP (gzip compressed on all cores). Default: GZIP if the output file name ends in .gz, NONE otherwise.")
+    Compression compression;
   }
 
   @Parameters(commandDescription = "Create a JSONLD table of all term information.")
@@ -319,22 +1195,113 @@ public class Main {
 
     @Parameter(
         names = {"-n", "--name"},
-        required = true,
         description =
-            "The name of the ontology to be published. This name is expected to be found in the configuration file passed and expeceted to be unique therein.")
+            "The name of the ontology to be published. This name is expected to be found in the configuration file passed and expeceted to be unique therein. With --batch: a pattern for the names, in which * and ? are wildcards.")
     String name;
-  }
 
-  private static class DefaultProvider implements IDefaultProvider {
-    private final List<String> format = Collections.singletonList("--format");
+    @Parameter(
+        names = {"--batch"},
+        description =
+            "Convert all ontologies in the configuration file (or those matching --name) in parallel, and print how long each took. Default: false.")
+    boolean batch = false;
 
-    public String getDefaultValueFor(String optionName) {
-      return format.contains(optionName) ? "txt" : null;
-    }
+    @Parameter(
+        names = {"--threads"},
+        description = "With --batch: the number of ontologies converted at once. Default: the number of cores.")
+    int threads = 0;
+
+    @Parameter(
+        names = {"--contributors-cache"},
+        description =
+            "The directory to keep the published contributors file in, for themas without contributors file. Default: .cache/oslo-ea-to-rdf in the home directory.")
+    File contributorsCache = new File(System.getProperty("user.home"), ".cache/oslo-ea-to-rdf");
+
+    @Parameter(
+        names = {"--contributors-max-age"},
+        description =
+            "The age in hours after which the published contributors file is downloaded again. If it cannot be downloaded, the older copy is used. If negative, the file is only downloaded if there is no copy yet. Default: 24.")
+    long contributorsMaxAge = 24;
+
+    @Parameter(
+        names = {"--incremental"},
+        description =
+            "Write every class and property to a temporary file as soon as it is converted, instead of keeping them in memory. The terms are not sorted. Default: false.")
+    boolean incremental = false;
+
+    @Parameter(
+        names = {"--skip-unchanged"},
+        description =
+            "Leave the output file untouched if its content did not change since the previous run, as recorded in a file with the extension "
+                + OutputFile.HASH_EXTENSION
+                + ". Default: false.")
+    boolean skipUnchanged = false;
+
+    @Parameter(
+        names = {"--watch"},
+        description =
+            "Keep running, and convert again whenever one of the input files is modified. Default: false.")
+    boolean watch = false;
+
+    @Parameter(
+        names = {"--debounce"},
+        description =
+            "With --watch: the time in milliseconds to wait for more modifications before converting again. Default: 500.")
+    long debounce = 500;
+
+    @Parameter(
+        names = {"--profile"},
+        description =
+            "Write the wall time, CPU time and allocated bytes of each phase, and the number of tag lookups and output handler calls, to this JSON file. A summary is printed to standard error. Not supported with --watch.")
+    File profile;
+
+    @Parameter(
+        names = {"--compression"},
+        description =
+            "Compress the output: NONE, GZIP or PGZIP (gzip compressed on all cores). The extension .gz is added to the output file name. Default: NONE.")
+    Compression compression;
   }
 
   private enum OutputFormat {
     txt,
     json
   }
+
+  private enum RDFFormat {
+    ttl,
+    nt,
+    nq
+  }
+
+  @Parameters(
+      commandDescription =
+          "Serve the commands over HTTP on localhost, keeping configurations and EA files loaded between requests.")
+  private static class ServerArgs {
+    @Parameter(
+        names = {"-p", "--port"},
+        description = "The port to listen on. Default: 8080.")
+    int port = 8080;
+
+    @Parameter(
+        names = {"--threads"},
+        description = "The number of requests handled at the same time. Default: one per processor.")
+    int threads = 0;
+
+    @Parameter(
+        names = {"--cache-size"},
+        description =
+            "The maximum number of mapping configurations, and of loaded EA files, kept in memory. Default: 8.")
+    int cacheSize = 8;
+
+    @Parameter(
+        names = {"--contributors-cache"},
+        description =
+            "The directory to keep the downloaded contributors CSV in. Default: ~/.cache/oslo-ea-to-rdf.")
+    File contributorsCache = new File(System.getProperty("user.home"), ".cache/oslo-ea-to-rdf");
+
+    @Parameter(
+        names = {"--contributors-max-age"},
+        description =
+            "The age in hours after which the contributors CSV is downloaded again. If negative, it is only downloaded if there is no copy yet. Default: 24.")
+    long contributorsMaxAge = 24;
+  }
 }
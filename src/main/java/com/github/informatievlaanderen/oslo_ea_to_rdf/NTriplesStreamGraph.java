@@ -0,0 +1,173 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NullIterator;
+
+/**
+ * A write-only graph that writes every added triple as a line of N-Triples, or N-Quads if a graph
+ * name is given, directly to a writer. Nothing is kept in memory, so duplicate triples are written
+ * more than once.
+ *
+ * <p>In canonical mode the lines are collected, and written sorted and without duplicates when the
+ * graph is closed. This gives stable output for diffs, as long as the graph contains no blank nodes
+ * (their labels differ between runs).
+ */
+public class NTriplesStreamGraph extends GraphBase implements Closeable {
+  private static final String XSD_STRING = XSDDatatype.XSDstring.getURI();
+
+  private final Writer out;
+  private String graphName;
+  private final Set<String> canonicalLines;
+
+  /**
+   * @param out the writer to write to, it is not closed by this graph
+   * @param graphName the graph to write the triples to as N-Quads, if {@code null} N-Triples are
+   *     written
+   * @param canonical if true, the lines are written in sorted order when the graph is closed
+   */
+  public NTriplesStreamGraph(Writer out, String graphName, boolean canonical) {
+    this.out = out;
+    this.graphName = graphName;
+    this.canonicalLines = canonical ? new TreeSet<>() : null;
+  }
+
+  /**
+   * Sets the graph of the triples that are added from now on.
+   *
+   * @param graphName the graph, if {@code null} the triples are written as N-Triples
+   */
+  public void setGraphName(String graphName) {
+    this.graphName = graphName;
+  }
+
+  @Override
+  public void performAdd(Triple t) {
+    StringBuilder line = new StringBuilder();
+    appendNode(line, t.getSubject());
+    line.append(' ');
+    appendNode(line, t.getPredicate());
+    line.append(' ');
+    appendNode(line, t.getObject());
+    if (graphName != null) {
+      line.append(' ');
+      appendURI(line, graphName);
+    }
+    line.append(" .\n");
+
+    if (canonicalLines != null) {
+      canonicalLines.add(line.toString());
+    } else {
+      try {
+        out.append(line);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  @Override
+  protected ExtendedIterator<Triple> graphBaseFind(Triple triplePattern) {
+    // Added triples are not kept, so they cannot be queried.
+    return NullIterator.instance();
+  }
+
+  /** Writes the collected lines in canonical mode and flushes the writer. */
+  @Override
+  public void close() {
+    try {
+      if (canonicalLines != null) {
+        for (String line : canonicalLines) out.write(line);
+        canonicalLines.clear();
+      }
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    super.close();
+  }
+
+  /** The node as written in N-Triples, also used for other line based formats. */
+  public static String format(Node node) {
+    StringBuilder sb = new StringBuilder();
+    appendNode(sb, node);
+    return sb.toString();
+  }
+
+  private static void appendNode(StringBuilder sb, Node node) {
+    if (node.isURI()) {
+      appendURI(sb, node.getURI());
+    } else if (node.isBlank()) {
+      // Only letters and digits are kept from the label, so that it is a valid N-Triples label.
+      sb.append("_:b");
+      for (char c : node.getBlankNodeLabel().toCharArray()) {
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))
+          sb.append(c);
+        else sb.append('_').append(String.format("%04x", (int) c));
+      }
+    } else if (node.isLiteral()) {
+      sb.append('"');
+      appendEscaped(sb, node.getLiteralLexicalForm());
+      sb.append('"');
+      String language = node.getLiteralLanguage();
+      String datatype = node.getLiteralDatatypeURI();
+      if (language != null && !language.isEmpty()) {
+        sb.append('@').append(language);
+      } else if (datatype != null && !XSD_STRING.equals(datatype)) {
+        // As in RDF 1.1, simple literals are written without the xsd:string datatype.
+        sb.append("^^");
+        appendURI(sb, datatype);
+      }
+    } else {
+      throw new IllegalArgumentException("Cannot write node: " + node);
+    }
+  }
+
+  /**
+   * Writes the URI as is, as the Turtle writer does. URIs with characters that are not allowed in
+   * an IRI are reported when they are assigned.
+   */
+  private static void appendURI(StringBuilder sb, String uri) {
+    sb.append('<').append(uri).append('>');
+  }
+
+  private static void appendEscaped(StringBuilder sb, String s) {
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '"':
+          sb.append("\\\"");
+          break;
+        case '\\':
+          sb.append("\\\\");
+          break;
+        case '\n':
+          sb.append("\\n");
+          break;
+        case '\r':
+          sb.append("\\r");
+          break;
+        case '\t':
+          sb.append("\\t");
+          break;
+        case '\b':
+          sb.append("\\b");
+          break;
+        case '\f':
+          sb.append("\\f");
+          break;
+        default:
+          sb.append(c);
+      }
+    }
+  }
+}
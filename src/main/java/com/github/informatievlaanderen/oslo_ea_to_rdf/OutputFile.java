@@ -0,0 +1,152 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.BaseEncoding;
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * An output file of a command, that can be made change aware: it is then only replaced if its
+ * content changed since the previous run. A change aware file is written to a temporary file next
+ * to it, while the SHA-256 hash of the uncompressed content is computed. The hash of the previous
+ * run is kept in a file with the extension {@value #HASH_EXTENSION}.
+ */
+public class OutputFile implements Closeable {
+  public static final String HASH_EXTENSION = ".sha256";
+
+  private final Path target;
+  private final Compression compression;
+  private final boolean skipUnchanged;
+  private final Path hashFile;
+  /** The file that is written, the target itself unless the file is change aware. */
+  private final Path written;
+  /** Set if the content is written through {@link #newBufferedWriter()}. */
+  private MessageDigest digest;
+  private String hash;
+
+  /**
+   * @param target the file to write, its directory is created if needed
+   * @param compression the compression of the file, the hash is computed before compression
+   * @param skipUnchanged whether the file is change aware
+   */
+  public OutputFile(Path target, Compression compression, boolean skipUnchanged)
+      throws IOException {
+    this.target = target;
+    this.compression = compression;
+    this.skipUnchanged = skipUnchanged;
+    this.hashFile = target.resolveSibling(target.getFileName() + HASH_EXTENSION);
+    Path directory = target.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    // Not Files.createTempFile, as the file would keep its owner-only permissions when moved.
+    this.written =
+        skipUnchanged ? directory.resolve("." + target.getFileName() + ".tmp") : target;
+  }
+
+  /**
+   * The file to write the content to, for writers that cannot use {@link #newBufferedWriter()}. The
+   * content must be compressed with the compression given to the constructor.
+   */
+  public Path getPath() {
+    return written;
+  }
+
+  public Compression getCompression() {
+    return compression;
+  }
+
+  /** Opens the file for writing UTF-8 text, hashing the text as it is written. */
+  public BufferedWriter newBufferedWriter() throws IOException {
+    if (!skipUnchanged) return compression.newBufferedWriter(written);
+    digest = newDigest();
+    return new BufferedWriter(
+        new OutputStreamWriter(
+            new DigestOutputStream(compression.newOutputStream(written), digest),
+            Charsets.UTF_8));
+  }
+
+  /** The hash of the new content, as lower case hexadecimal. The file must be closed. */
+  public String getHash() throws IOException {
+    if (hash == null) {
+      if (digest == null) {
+        // Written directly to the file, so read it back.
+        digest = newDigest();
+        try (InputStream in = new DigestInputStream(open(written), digest)) {
+          byte[] buffer = new byte[64 * 1024];
+          while (in.read(buffer) >= 0) {}
+        }
+      }
+      hash = BaseEncoding.base16().lowerCase().encode(digest.digest());
+    }
+    return hash;
+  }
+
+  /** The hash recorded by the previous run, or {@code null} if there is none. */
+  public String getPreviousHash() throws IOException {
+    if (!Files.exists(hashFile) || !Files.exists(target)) return null;
+    return new String(Files.readAllBytes(hashFile), Charsets.UTF_8).trim();
+  }
+
+  /** Whether the new content differs from the content of the previous run. */
+  public boolean isChanged() throws IOException {
+    return !skipUnchanged || !getHash().equals(getPreviousHash());
+  }
+
+  /**
+   * Completes the file, once it is written and closed. A change aware file replaces the target
+   * file if the content changed, and records its hash. The target is left untouched otherwise.
+   *
+   * @return whether the target file was written
+   */
+  public boolean commit() throws IOException {
+    if (!skipUnchanged) return true;
+    if (!isChanged()) {
+      Files.deleteIfExists(written);
+      return false;
+    }
+
+    try {
+      Files.move(
+          written, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(written, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+    Files.write(hashFile, (getHash() + "\n").getBytes(Charsets.UTF_8));
+    return true;
+  }
+
+  /** Removes the temporary file of a change aware file, if it was not committed. */
+  @Override
+  public void close() throws IOException {
+    if (skipUnchanged) Files.deleteIfExists(written);
+  }
+
+  /** Opens a file for reading, decompressing it if it is gzipped. */
+  public static InputStream open(Path file) throws IOException {
+    InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024);
+    in.mark(2);
+    int magic = in.read() | (in.read() << 8);
+    in.reset();
+    return magic == GZIPInputStream.GZIP_MAGIC ? new GZIPInputStream(in, 64 * 1024) : in;
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is required to be supported.", e);
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * An output stream that writes a single gzip member, of which the blocks are compressed in
+ * parallel. The data is cut in blocks of fixed size, each block is deflated on its own (using the
+ * end of the previous block as dictionary) and ends on a byte boundary, so that the compressed
+ * blocks can simply be concatenated. The result can be read by any gzip implementation.
+ */
+public class ParallelGzipOutputStream extends FilterOutputStream {
+  private static final int BLOCK_SIZE = 128 * 1024;
+  private static final int DICTIONARY_SIZE = 32 * 1024;
+  private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+  private final ExecutorService executor;
+  private final int maxPending;
+  private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+  private final CRC32 crc = new CRC32();
+  private long size;
+
+  private byte[] block = new byte[BLOCK_SIZE];
+  private int blockLength;
+  /** The end of the last submitted block. */
+  private byte[] dictionary;
+  private boolean closed;
+
+  public ParallelGzipOutputStream(OutputStream out) throws IOException {
+    this(out, Runtime.getRuntime().availableProcessors());
+  }
+
+  /** @param threads the number of blocks that are compressed at the same time */
+  public ParallelGzipOutputStream(OutputStream out, int threads) throws IOException {
+    super(out);
+    this.executor =
+        Executors.newFixedThreadPool(
+            threads,
+            r -> {
+              Thread thread = new Thread(r, "gzip");
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.maxPending = 2 * threads;
+    out.write(HEADER);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    write(new byte[] {(byte) b}, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    if (closed) throw new IOException("Stream closed.");
+    crc.update(b, off, len);
+    size += len;
+    while (len > 0) {
+      int n = Math.min(len, BLOCK_SIZE - blockLength);
+      System.arraycopy(b, off, block, blockLength, n);
+      blockLength += n;
+      off += n;
+      len -= n;
+      if (blockLength == BLOCK_SIZE) submit(false);
+    }
+  }
+
+  /**
+   * Compresses the data written so far and writes it. This does not end the gzip stream, but
+   * makes blocks smaller than usual.
+   */
+  @Override
+  public void flush() throws IOException {
+    if (blockLength > 0) submit(false);
+    while (!pending.isEmpty()) writeCompleted();
+    out.flush();
+  }
+
+  /** Writes the last block and the gzip trailer, and closes the underlying stream. */
+  @Override
+  public void close() throws IOException {
+    if (closed) return;
+    try {
+      submit(true);
+      while (!pending.isEmpty()) writeCompleted();
+      writeInt((int) crc.getValue());
+      writeInt((int) size);
+      out.flush();
+    } finally {
+      closed = true;
+      executor.shutdownNow();
+      out.close();
+    }
+  }
+
+  private void submit(boolean last) throws IOException {
+    byte[] data = block;
+    int length = blockLength;
+    byte[] dict = dictionary;
+    if (length > 0) {
+      int dictionaryLength = Math.min(length, DICTIONARY_SIZE);
+      dictionary = Arrays.copyOfRange(data, length - dictionaryLength, length);
+    }
+    pending.add(executor.submit(() -> deflate(data, length, dict, last)));
+    block = new byte[BLOCK_SIZE];
+    blockLength = 0;
+
+    while (pending.size() >= maxPending) writeCompleted();
+  }
+
+  private void writeCompleted() throws IOException {
+    try {
+      out.write(pending.poll().get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    } catch (ExecutionException e) {
+      throw new IOException("Compressing a block failed.", e.getCause());
+    }
+  }
+
+  /**
+   * Deflates a block without zlib wrapper. All but the last block end with a sync flush, which
+   * aligns them to a byte boundary without marking the end of the stream.
+   */
+  private static byte[] deflate(byte[] data, int length, byte[] dictionary, boolean last) {
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    try {
+      if (dictionary != null) deflater.setDictionary(dictionary);
+      deflater.setInput(data, 0, length);
+      ByteArrayOutputStream result = new ByteArrayOutputStream(length / 2 + 64);
+      byte[] buffer = new byte[16 * 1024];
+      if (last) {
+        deflater.finish();
+        while (!deflater.finished()) result.write(buffer, 0, deflater.deflate(buffer));
+      } else {
+        int n;
+        do {
+          n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+          result.write(buffer, 0, n);
+        } while (n == buffer.length);
+      }
+      return result.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /** Writes a 32-bit integer in little-endian order, as used by the gzip trailer. */
+  private void writeInt(int i) throws IOException {
+    out.write(i & 0xff);
+    out.write((i >> 8) & 0xff);
+    out.write((i >> 16) & 0xff);
+    out.write((i >> 24) & 0xff);
+  }
+}
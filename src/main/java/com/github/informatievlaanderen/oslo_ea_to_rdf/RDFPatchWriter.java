@@ -0,0 +1,112 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf;
+
+import com.google.common.base.Charsets;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.UUID;
+import org.apache.jena.graph.Factory;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the difference between two versions of a model as a single RDF Patch transaction, so
+ * that a store holding the previous version can be updated without reloading it. The lines are
+ * sorted to keep the patch stable.
+ *
+ * <p>Blank nodes cannot be matched between two versions. If the triples involving blank nodes are
+ * not isomorphic, all of them are deleted and added again, using the labels of the parsed files.
+ */
+public class RDFPatchWriter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RDFPatchWriter.class);
+
+  private RDFPatchWriter() {}
+
+  /**
+   * @param previous the previous version of the model
+   * @param previousHash the content hash of the previous version, used as its patch id
+   * @param current the new version of the model
+   * @param currentHash the content hash of the new version, used as the id of the patch
+   * @param out the writer to write to, it is not closed
+   */
+  public static void write(
+      Model previous, String previousHash, Model current, String currentHash, Writer out)
+      throws IOException {
+    out.write("H id " + id(currentHash) + " .\n");
+    if (previousHash != null) out.write("H prev " + id(previousHash) + " .\n");
+    out.write("TX .\n");
+
+    TreeSet<String> lines = new TreeSet<>();
+    for (Map.Entry<String, String> entry : previous.getNsPrefixMap().entrySet()) {
+      String uri = current.getNsPrefixURI(entry.getKey());
+      if (!entry.getValue().equals(uri)) lines.add("PD " + quote(entry.getKey()) + " .\n");
+    }
+    for (Map.Entry<String, String> entry : current.getNsPrefixMap().entrySet()) {
+      String uri = previous.getNsPrefixURI(entry.getKey());
+      if (!entry.getValue().equals(uri))
+        lines.add("PA " + quote(entry.getKey()) + " <" + entry.getValue() + "> .\n");
+    }
+    // Prefix deletions first, so that a changed prefix is deleted before it is added again.
+    for (String line : lines) if (line.startsWith("PD")) out.write(line);
+    for (String line : lines) if (line.startsWith("PA")) out.write(line);
+
+    Graph previousBlank = Factory.createGraphMem();
+    Graph currentBlank = Factory.createGraphMem();
+    TreeSet<String> deletions = new TreeSet<>();
+    TreeSet<String> additions = new TreeSet<>();
+    diff(previous.getGraph(), current.getGraph(), previousBlank, deletions);
+    diff(current.getGraph(), previous.getGraph(), currentBlank, additions);
+    if (!previousBlank.isIsomorphicWith(currentBlank)) {
+      LOGGER.warn("Blank nodes changed, the patch replaces all triples involving blank nodes.");
+      addAll(previousBlank, deletions);
+      addAll(currentBlank, additions);
+    }
+
+    for (String triple : deletions) out.write("D " + triple + " .\n");
+    for (String triple : additions) out.write("A " + triple + " .\n");
+    out.write("TC .\n");
+  }
+
+  /**
+   * Collects the triples of the graph that are not in the other graph. Triples involving blank
+   * nodes are collected separately.
+   */
+  private static void diff(Graph graph, Graph other, Graph blank, TreeSet<String> missing) {
+    ExtendedIterator<Triple> it = graph.find(Node.ANY, Node.ANY, Node.ANY);
+    while (it.hasNext()) {
+      Triple t = it.next();
+      if (t.getSubject().isBlank() || t.getObject().isBlank()) blank.add(t);
+      else if (!other.contains(t)) missing.add(format(t));
+    }
+  }
+
+  private static void addAll(Graph graph, TreeSet<String> lines) {
+    ExtendedIterator<Triple> it = graph.find(Node.ANY, Node.ANY, Node.ANY);
+    while (it.hasNext()) lines.add(format(it.next()));
+  }
+
+  private static String format(Triple t) {
+    return NTriplesStreamGraph.format(t.getSubject())
+        + " "
+        + NTriplesStreamGraph.format(t.getPredicate())
+        + " "
+        + NTriplesStreamGraph.format(t.getObject());
+  }
+
+  private static String quote(String prefix) {
+    return "\"" + prefix.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+
+  /** A stable patch id for a content hash. */
+  private static String id(String hash) {
+    Objects.requireNonNull(hash);
+    return "<uuid:" + UUID.nameUUIDFromBytes(hash.getBytes(Charsets.UTF_8)) + ">";
+  }
+}
@@ -0,0 +1,67 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf;
+
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.config.Configuration;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EARepository;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.impl.MemoryRepositoryBuilder;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Mapping configurations and EA repositories that stay loaded for as long as their files are not
+ * modified. Files are identified by their path, modification time and size.
+ *
+ * <p>A repository is cached per mapping configuration, since converting assigns URIs to its
+ * elements. Conversions on the same repository should not run at the same time.
+ */
+class RepositoryCache {
+  private final Cache<List<Object>, Configuration> configs;
+  private final Cache<List<Object>, EARepository> repositories;
+
+  /** @param maximumSize the maximum number of configurations, and of repositories, kept loaded */
+  RepositoryCache(int maximumSize) {
+    this.configs = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    this.repositories = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+  }
+
+  Configuration config(File configFile) throws Exception {
+    return load(configs, stamp(configFile), () -> Main.loadConfig(configFile));
+  }
+
+  /**
+   * The repository of the EAP file, loaded for conversions with the mapping configuration, or
+   * only for reading if the configuration is {@code null}.
+   */
+  EARepository repository(File configFile, File eapFile) throws Exception {
+    List<Object> key =
+        Arrays.asList(configFile == null ? null : stamp(configFile), stamp(eapFile));
+    return load(repositories, key, () -> new MemoryRepositoryBuilder().build(eapFile));
+  }
+
+  /** Loads a value once, concurrent requests for the same key wait for it. */
+  private static <T> T load(Cache<List<Object>, T> cache, List<Object> key, Callable<T> loader)
+      throws Exception {
+    try {
+      return cache.get(key, loader);
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof Exception) throw (Exception) e.getCause();
+      throw e;
+    }
+  }
+
+  /** Identifies a version of a file: its path, modification time and size. */
+  private static List<Object> stamp(File file) throws IOException {
+    File absolute = file.getAbsoluteFile();
+    BasicFileAttributes attributes =
+        Files.readAttributes(absolute.toPath(), BasicFileAttributes.class);
+    return Arrays.asList(absolute.getPath(), attributes.lastModifiedTime(), attributes.size());
+  }
+}
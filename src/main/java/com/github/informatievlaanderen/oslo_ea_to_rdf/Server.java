@@ -0,0 +1,332 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf;
+
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.ConversionException;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.Converter;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.JSONLDOntology.ContributorsRegistry;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.JSONLDOntology.ThemaConfiguration;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.JSONLDOutputHandler;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.RDFOutputHandler;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.TSVOutputHandler;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.TagHelper;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.config.Configuration;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.config.InvalidConfigurationException;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics.DiagnosticCode;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics.Diagnostics;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EADiagram;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EARepository;
+import com.google.common.base.Charsets;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.file.NoSuchFileException;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local HTTP server that keeps mapping configurations and EA repositories loaded between requests,
+ * so that repeated conversions do not pay for starting the JVM and reading the EAP file again.
+ *
+ * <p>The endpoints mirror the commands, with the options as query parameters: {@code /list},
+ * {@code /convert}, {@code /tsv} and {@code /jsonld}. The output is returned as the response body,
+ * and the number of diagnostics per severity in the {@code X-Diagnostics} header.
+ *
+ * <p>Loaded files are kept in a {@link RepositoryCache}, so a modified file is loaded again.
+ * Conversions on the same repository run one at a time. Identical requests that arrive while one
+ * is being handled share its response.
+ */
+public class Server {
+  private static final Logger LOGGER = LoggerFactory.getLogger(Server.class);
+
+  private final HttpServer http;
+  private final ExecutorService executor;
+  private final File contributorsCache;
+  private final long contributorsMaxAge;
+  private final RepositoryCache cache;
+  /** The responses being computed, by request path and sorted parameters. */
+  private final Map<String, CompletableFuture<Response>> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * @param port the port to listen on, on the loopback interface only
+   * @param threads the number of requests handled at the same time
+   * @param cacheSize the maximum number of configurations, and of repositories, kept loaded
+   * @param contributorsCache the directory to keep a downloaded contributors CSV in
+   * @param contributorsMaxAge the age in hours after which the contributors CSV is downloaded again,
+   *     or a negative number to download it only if it is not cached
+   */
+  public Server(
+      int port, int threads, int cacheSize, File contributorsCache, long contributorsMaxAge)
+      throws IOException {
+    this.contributorsCache = contributorsCache;
+    this.contributorsMaxAge = contributorsMaxAge;
+    this.cache = new RepositoryCache(cacheSize);
+    this.executor = Executors.newFixedThreadPool(threads);
+    this.http =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    http.setExecutor(executor);
+    http.createContext("/list", exchange -> handle(exchange, this::list));
+    http.createContext("/convert", exchange -> handle(exchange, this::convert));
+    http.createContext("/tsv", exchange -> handle(exchange, this::tsv));
+    http.createContext("/jsonld", exchange -> handle(exchange, this::jsonld));
+  }
+
+  public void start() {
+    http.start();
+    LOGGER.info("Listening on http://localhost:{}/.", http.getAddress().getPort());
+  }
+
+  public void stop() {
+    http.stop(0);
+    executor.shutdownNow();
+  }
+
+  private Response list(Map<String, String> params) throws Exception {
+    EARepository repo = cache.repository(null, file(params, "input"));
+    StructurePrinter.Filter filter =
+        new StructurePrinter.Filter()
+            .diagramsOnly(flag(params, "diagrams-only"))
+            .window(number(params, "offset", 0), number(params, "limit", -1));
+    if (params.containsKey("package"))
+      filter.subtree(Main.findPackage(repo, params.get("package")));
+    if (params.containsKey("types"))
+      filter.types(Main.parseTypes(Arrays.asList(params.get("types").split(","))));
+
+    StringWriter out = new StringWriter();
+    StructurePrinter printer = new StructurePrinter(out, filter);
+    String format = params.getOrDefault("format", "txt");
+    if (format.equals("txt")) {
+      printer.execute(repo, flag(params, "full"));
+      return Response.ok("text/plain", out, null);
+    } else if (format.equals("json")) {
+      printer.executeJson(repo);
+      return Response.ok("application/json", out, null);
+    }
+    throw new IllegalArgumentException("Unknown format: " + format + ".");
+  }
+
+  private Response convert(Map<String, String> params) throws Exception {
+    File configFile = file(params, "config");
+    Configuration config = cache.config(configFile);
+    EARepository repo = cache.repository(configFile, file(params, "input"));
+    EADiagram diagram = Main.findByName(repo, required(params, "diagram"));
+    String format = params.getOrDefault("format", "ttl");
+    boolean full = flag(params, "full");
+
+    StringWriter out = new StringWriter();
+    synchronized (repo) {
+      TagHelper tagHelper = new TagHelper(config);
+      if (format.equals("ttl")) {
+        RDFOutputHandler rdfOutputHandler =
+            new RDFOutputHandler(config.getPrefixes(), tagHelper, full);
+        new Converter(repo, tagHelper, rdfOutputHandler).convertDiagram(diagram);
+        rdfOutputHandler.write(out);
+        return Response.ok("text/turtle", out, tagHelper.getDiagnostics());
+      } else if (format.equals("nt") || format.equals("nq")) {
+        try (NTriplesStreamGraph graph =
+            new NTriplesStreamGraph(
+                out, format.equals("nq") ? params.get("graph") : null, flag(params, "canonical"))) {
+          RDFOutputHandler rdfOutputHandler =
+              new RDFOutputHandler(config.getPrefixes(), tagHelper, full, graph);
+          new Converter(repo, tagHelper, rdfOutputHandler).convertDiagram(diagram);
+        }
+        return Response.ok(
+            format.equals("nq") ? "application/n-quads" : "application/n-triples",
+            out,
+            tagHelper.getDiagnostics());
+      }
+    }
+    throw new IllegalArgumentException("Unknown format: " + format + ".");
+  }
+
+  private Response tsv(Map<String, String> params) throws Exception {
+    File configFile = file(params, "config");
+    Configuration config = cache.config(configFile);
+    EARepository repo = cache.repository(configFile, file(params, "input"));
+    EADiagram diagram = Main.findByName(repo, required(params, "diagram"));
+
+    StringWriter out = new StringWriter();
+    synchronized (repo) {
+      TagHelper tagHelper = new TagHelper(config);
+      try (BufferedWriter writer = new BufferedWriter(out)) {
+        TSVOutputHandler tsvOutputHandler = new TSVOutputHandler(writer, tagHelper, diagram);
+        new Converter(repo, tagHelper, tsvOutputHandler).convertDiagram(diagram);
+      }
+      return Response.ok("text/tab-separated-values", out, tagHelper.getDiagnostics());
+    }
+  }
+
+  private Response jsonld(Map<String, String> params) throws Exception {
+    String name = required(params, "name");
+    ThemaConfiguration thema = Main.getThemaConfiguration(file(params, "config"), name);
+    if (thema == null) throw new IllegalArgumentException("Thema not found: " + name + ".");
+    File configFile = Main.mappingConfigFile(thema);
+    Configuration config = cache.config(configFile);
+    EARepository repo = cache.repository(configFile, new File(thema.getEap()));
+    EADiagram diagram = Main.findByName(repo, thema.getDiagram());
+    ContributorsRegistry contributors =
+        Main.loadContributors(thema, contributorsCache, contributorsMaxAge);
+
+    StringWriter out = new StringWriter();
+    synchronized (repo) {
+      TagHelper tagHelper = new TagHelper(config);
+      try (BufferedWriter writer = new BufferedWriter(out)) {
+        JSONLDOutputHandler jsonldOutputHandler =
+            new JSONLDOutputHandler(
+                thema.getName(), thema.getContributorsColumn(), writer, tagHelper, diagram);
+        new Converter(repo, tagHelper, jsonldOutputHandler).convertDiagram(diagram);
+        jsonldOutputHandler.handleContributors(contributors);
+        jsonldOutputHandler.write();
+      }
+      return Response.ok("application/ld+json", out, tagHelper.getDiagnostics());
+    }
+  }
+
+  private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+    try {
+      Response response;
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        response = Response.error(405, "Only GET is supported.");
+      } else {
+        Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+        String key = exchange.getRequestURI().getPath() + params;
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        CompletableFuture<Response> running = inFlight.putIfAbsent(key, future);
+        if (running == null) {
+          try {
+            future.complete(compute(endpoint, key, params));
+          } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+          } finally {
+            inFlight.remove(key, future);
+          }
+          response = future.join();
+        } else {
+          response = running.join();
+        }
+      }
+
+      exchange.getResponseHeaders().set("Content-Type", response.contentType + "; charset=utf-8");
+      if (response.diagnostics != null)
+        exchange.getResponseHeaders().set("X-Diagnostics", response.diagnostics);
+      exchange.sendResponseHeaders(response.status, response.body.length);
+      try (OutputStream body = exchange.getResponseBody()) {
+        body.write(response.body);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private static Response compute(Endpoint endpoint, String key, Map<String, String> params) {
+    long start = System.nanoTime();
+    try {
+      Response response = endpoint.handle(params);
+      LOGGER.info("Handled {} in {} ms.", key, (System.nanoTime() - start) / 1000000);
+      return response;
+    } catch (IllegalArgumentException | ConversionException e) {
+      return Response.error(400, e.getMessage());
+    } catch (NoSuchFileException e) {
+      return Response.error(400, "File not found: " + e.getMessage() + ".");
+    } catch (InvalidConfigurationException e) {
+      return Response.error(400, "Invalid configuration specified: " + e.getMessage());
+    } catch (SQLException e) {
+      LOGGER.error("An error occurred while reading the EA model.", e);
+      return Response.error(500, "An error occurred while reading the EA model: " + e);
+    } catch (Exception e) {
+      LOGGER.error("An error occurred during conversion.", e);
+      return Response.error(500, "An error occurred during conversion: " + e);
+    }
+  }
+
+  private static Map<String, String> parseQuery(String query)
+      throws UnsupportedEncodingException {
+    // Sorted, so that identical requests have the same key.
+    Map<String, String> params = new TreeMap<>();
+    if (query == null) return params;
+    for (String pair : query.split("&")) {
+      if (pair.isEmpty()) continue;
+      int equals = pair.indexOf('=');
+      String name = equals < 0 ? pair : pair.substring(0, equals);
+      String value = equals < 0 ? "" : pair.substring(equals + 1);
+      params.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+    }
+    return params;
+  }
+
+  private static String required(Map<String, String> params, String name) {
+    String value = params.get(name);
+    if (value == null || value.isEmpty())
+      throw new IllegalArgumentException("Missing parameter: " + name + ".");
+    return value;
+  }
+
+  private static File file(Map<String, String> params, String name) {
+    return new File(required(params, name));
+  }
+
+  /** Whether a flag is given, either without value or with a value other than false. */
+  private static boolean flag(Map<String, String> params, String name) {
+    return params.containsKey(name) && !"false".equals(params.get(name));
+  }
+
+  private static int number(Map<String, String> params, String name, int defaultValue) {
+    if (!params.containsKey(name)) return defaultValue;
+    try {
+      return Integer.parseInt(params.get(name));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Not a number: " + name + "=" + params.get(name) + ".");
+    }
+  }
+
+  private interface Endpoint {
+    Response handle(Map<String, String> params) throws Exception;
+  }
+
+  private static class Response {
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+    /** The number of diagnostics per severity, or {@code null} if nothing was converted. */
+    private final String diagnostics;
+
+    private Response(int status, String contentType, byte[] body, String diagnostics) {
+      this.status = status;
+      this.contentType = contentType;
+      this.body = body;
+      this.diagnostics = diagnostics;
+    }
+
+    private static Response ok(String contentType, StringWriter out, Diagnostics diagnostics) {
+      String counts = null;
+      if (diagnostics != null) {
+        StringBuilder builder = new StringBuilder();
+        for (DiagnosticCode.Severity severity : DiagnosticCode.Severity.values()) {
+          if (builder.length() > 0) builder.append(", ");
+          builder.append(severity).append('=').append(diagnostics.getCount(severity));
+        }
+        counts = builder.toString();
+      }
+      return new Response(200, contentType, out.toString().getBytes(Charsets.UTF_8), counts);
+    }
+
+    private static Response error(int status, String message) {
+      return new Response(status, "text/plain", (message + "\n").getBytes(Charsets.UTF_8), null);
+    }
+  }
+}
@@ -1,32 +1,104 @@
 package com.github.informatievlaanderen.oslo_ea_to_rdf;
 
 import com.google.common.collect.ComparisonChain;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Ordering;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.mem.GraphMem;
 import org.apache.jena.rdf.model.ResIterator;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.impl.ModelCom;
 import org.apache.jena.rdf.model.impl.ResIteratorImpl;
 
-/** A Jena-compatible model that outputs its elements in alphabetical order. */
+/**
+ * A Jena-compatible model that outputs its elements in alphabetical order.
+ *
+ * <p>The subjects are kept in an index sorted on (namespace, local name), which is updated as
+ * triples are added or removed. Listing the subjects therefore does not need to sort them, and
+ * every URI is only split once.
+ */
 public class SortedOutputModel extends ModelCom {
   public SortedOutputModel() {
-    super(org.apache.jena.graph.Factory.createGraphMem());
+    super(new IndexedGraph());
   }
 
   @Override
   public ResIterator listSubjects() {
-    ResIterator resIterator = super.listSubjects();
+    IndexedGraph graph = (IndexedGraph) getGraph();
+    if (graph.sortedSubjects == null) {
+      List<Resource> subjects = new ArrayList<>(graph.subjects.size());
+      for (Node node : graph.subjects.values()) subjects.add(wrapAsResource(node));
+      graph.sortedSubjects = Collections.unmodifiableList(subjects);
+    }
+    return new ResIteratorImpl(graph.sortedSubjects.iterator());
+  }
+
+  /** The in-memory graph, which additionally tracks its subjects in sorted order. */
+  private static class IndexedGraph extends GraphMem {
+    private final Map<SubjectKey, Node> subjects = new TreeMap<>();
+    private final Map<Node, SubjectKey> keys = new HashMap<>();
+    /** Cached result for {@link SortedOutputModel#listSubjects()}, cleared on changes. */
+    private List<Resource> sortedSubjects;
+
+    @Override
+    public void performAdd(Triple t) {
+      super.performAdd(t);
+      Node subject = t.getSubject();
+      if (!keys.containsKey(subject)) {
+        SubjectKey key = new SubjectKey(subject);
+        keys.put(subject, key);
+        subjects.put(key, subject);
+        sortedSubjects = null;
+      }
+    }
+
+    @Override
+    public void performDelete(Triple t) {
+      super.performDelete(t);
+      if (!graphBaseContains(Triple.create(t.getSubject(), Node.ANY, Node.ANY))) {
+        SubjectKey key = keys.remove(t.getSubject());
+        if (key != null) subjects.remove(key);
+        sortedSubjects = null;
+      }
+    }
+
+    @Override
+    public void clear() {
+      super.clear();
+      subjects.clear();
+      keys.clear();
+      sortedSubjects = null;
+    }
+  }
+
+  /**
+   * Sort key of a subject, computed once. Blank nodes have neither namespace nor local name and
+   * are sorted last, on their label.
+   */
+  private static class SubjectKey implements Comparable<SubjectKey> {
+    private final String namespace;
+    private final String localName;
+    private final String label;
 
-    ArrayList<Resource> subjects = Lists.newArrayList(resIterator);
-    subjects.sort(
-        (o1, o2) ->
-            ComparisonChain.start()
-                .compare(o1.getNameSpace(), o2.getNameSpace(), Ordering.natural().nullsLast())
-                .compare(o1.getLocalName(), o2.getLocalName(), Ordering.natural().nullsLast())
-                .result());
+    private SubjectKey(Node node) {
+      this.namespace = node.isURI() ? node.getNameSpace() : null;
+      this.localName = node.isURI() ? node.getLocalName() : null;
+      this.label = node.isBlank() ? node.getBlankNodeLabel() : "";
+    }
 
-    return new ResIteratorImpl(subjects.iterator());
+    @Override
+    public int compareTo(SubjectKey o) {
+      return ComparisonChain.start()
+          .compare(namespace, o.namespace, Ordering.natural().nullsLast())
+          .compare(localName, o.localName, Ordering.natural().nullsLast())
+          .compare(label, o.label)
+          .result();
+    }
   }
 }
@@ -0,0 +1,364 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf;
+
+import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.Ordering;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Factory;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.n3.N3JenaWriterPP;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NullIterator;
+
+/**
+ * A write-only graph that writes its triples as Turtle, in the same subject order as {@link
+ * SortedOutputModel}, without keeping the graph in memory. Added triples are buffered, sorted on
+ * (namespace, local name) of their subject and spilled to a temporary file once the buffer is full.
+ * When writing, these sorted runs are merged and the triples are written one subject at a time.
+ *
+ * <p>Triples involving blank nodes (such as the lists used by {@code owl:oneOf}) are kept in memory,
+ * so that they can be nested below the subject referring to them.
+ */
+public class SpillingTurtleGraph extends GraphBase implements Closeable {
+  private static final int DEFAULT_RUN_SIZE = 100_000;
+  private static final Comparator<Record> ORDER =
+      (r1, r2) ->
+          ComparisonChain.start()
+              .compare(r1.namespace, r2.namespace, Ordering.natural().nullsLast())
+              .compare(r1.localName, r2.localName, Ordering.natural().nullsLast())
+              .result();
+
+  private final int runSize;
+  private final List<Record> buffer = new ArrayList<>();
+  private final List<Path> runs = new ArrayList<>();
+  private final Graph blankNodeTriples = Factory.createGraphMem();
+  private Path directory;
+  private boolean subjectWritten;
+
+  public SpillingTurtleGraph() {
+    this(DEFAULT_RUN_SIZE);
+  }
+
+  /** @param runSize the number of triples kept in memory before they are spilled to disk */
+  public SpillingTurtleGraph(int runSize) {
+    this.runSize = runSize;
+  }
+
+  @Override
+  public void performAdd(Triple t) {
+    Node subject = t.getSubject();
+    if (subject.isBlank()) {
+      blankNodeTriples.add(t);
+      return;
+    }
+
+    if (t.getObject().isBlank()) {
+      // Only marks the subject, the triple itself is written together with its blank node.
+      blankNodeTriples.add(t);
+      buffer.add(new Record(subject.getNameSpace(), subject.getLocalName(), null));
+    } else {
+      buffer.add(new Record(subject.getNameSpace(), subject.getLocalName(), t));
+    }
+    if (buffer.size() >= runSize) spill();
+  }
+
+  @Override
+  protected ExtendedIterator<Triple> graphBaseFind(Triple triplePattern) {
+    // Added triples are not kept, so they cannot be queried.
+    return NullIterator.instance();
+  }
+
+  /**
+   * Writes all triples added so far as Turtle, using the prefixes of this graph.
+   *
+   * @param writer the writer to write to, it is not closed
+   * @throws IOException if reading the spilled triples or writing the output failed
+   */
+  public void writeTurtle(Writer writer) throws IOException {
+    // Jena writes through a BufferedWriter, shared with the writes here so that they stay in order.
+    BufferedWriter out =
+        writer instanceof BufferedWriter ? (BufferedWriter) writer : new BufferedWriter(writer);
+    // The prefixes, as Jena writes them before the subjects.
+    newModel().write(out, "TTL");
+    subjectWritten = false;
+
+    Set<Node> written = new HashSet<>();
+    List<RunReader> readers = new ArrayList<>();
+    try {
+      Iterator<Record> records;
+      if (runs.isEmpty()) {
+        buffer.sort(ORDER);
+        records = buffer.iterator();
+      } else {
+        spill();
+        for (Path run : runs) readers.add(new RunReader(run));
+        records = merge(readers);
+      }
+
+      Record current = null;
+      List<Triple> triples = new ArrayList<>();
+      while (records.hasNext()) {
+        Record record = records.next();
+        if (current != null && ORDER.compare(current, record) != 0) {
+          writeSubject(out, current, triples, written);
+          triples.clear();
+        }
+        current = record;
+        if (record.triple != null) triples.add(record.triple);
+      }
+      if (current != null) writeSubject(out, current, triples, written);
+    } finally {
+      for (RunReader reader : readers) reader.close();
+    }
+
+    // Blank nodes that are not referenced from any named subject.
+    Model rest = newModel();
+    ExtendedIterator<Triple> it = blankNodeTriples.find(Node.ANY, Node.ANY, Node.ANY);
+    while (it.hasNext()) {
+      Triple t = it.next();
+      if (!written.contains(t.getSubject())) rest.getGraph().add(t);
+    }
+    if (!rest.isEmpty()) writeBody(out, rest);
+    out.flush();
+  }
+
+  private void writeSubject(
+      BufferedWriter out, Record subject, List<Triple> triples, Set<Node> written)
+      throws IOException {
+    Model model = newModel();
+    for (Triple t : triples) model.getGraph().add(t);
+
+    Deque<Node> pending = new ArrayDeque<>();
+    pending.add(NodeFactory.createURI(subject.namespace + subject.localName));
+    while (!pending.isEmpty()) {
+      ExtendedIterator<Triple> it = blankNodeTriples.find(pending.poll(), Node.ANY, Node.ANY);
+      while (it.hasNext()) {
+        Triple t = it.next();
+        model.getGraph().add(t);
+        if (t.getObject().isBlank() && written.add(t.getObject())) pending.add(t.getObject());
+      }
+    }
+
+    writeBody(out, model);
+  }
+
+  /** Writes the model without the prefixes, separated from the previous subject by a blank line. */
+  private void writeBody(BufferedWriter out, Model model) throws IOException {
+    if (subjectWritten) out.write('\n');
+    new BodyWriter().write(model, out, null);
+    subjectWritten = true;
+  }
+
+  private Model newModel() {
+    Model model = ModelFactory.createDefaultModel();
+    model.setNsPrefixes(getPrefixMapping());
+    return model;
+  }
+
+  private void spill() {
+    if (buffer.isEmpty()) return;
+    buffer.sort(ORDER);
+    try {
+      if (directory == null) directory = Files.createTempDirectory("ea-to-rdf");
+      Path run = directory.resolve("run-" + runs.size());
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run)))) {
+        for (Record record : buffer) record.writeTo(out);
+      }
+      runs.add(run);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    buffer.clear();
+  }
+
+  private static Iterator<Record> merge(List<RunReader> readers) throws IOException {
+    PriorityQueue<RunReader> queue =
+        new PriorityQueue<>(Math.max(1, readers.size()), (a, b) -> ORDER.compare(a.head, b.head));
+    for (RunReader reader : readers) if (reader.advance()) queue.add(reader);
+
+    return new Iterator<Record>() {
+      @Override
+      public boolean hasNext() {
+        return !queue.isEmpty();
+      }
+
+      @Override
+      public Record next() {
+        RunReader reader = queue.poll();
+        Record record = reader.head;
+        try {
+          if (reader.advance()) queue.add(reader);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        return record;
+      }
+    };
+  }
+
+  /** Removes the spilled runs. */
+  @Override
+  public void close() {
+    buffer.clear();
+    try {
+      for (Path run : runs) Files.deleteIfExists(run);
+      if (directory != null) Files.deleteIfExists(directory);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    runs.clear();
+    directory = null;
+    super.close();
+  }
+
+  private static class Record {
+    private static final byte NONE = 0;
+    private static final byte URI = 1;
+    private static final byte LITERAL = 2;
+
+    private final String namespace;
+    private final String localName;
+    /** {@code null} if the triple is kept with the blank nodes. */
+    private final Triple triple;
+
+    private Record(String namespace, String localName, Triple triple) {
+      this.namespace = namespace;
+      this.localName = localName;
+      this.triple = triple;
+    }
+
+    private void writeTo(DataOutputStream out) throws IOException {
+      writeString(out, namespace);
+      writeString(out, localName);
+      if (triple == null) {
+        out.writeByte(NONE);
+        return;
+      }
+
+      Node object = triple.getObject();
+      out.writeByte(object.isURI() ? URI : LITERAL);
+      writeString(out, triple.getPredicate().getURI());
+      if (object.isURI()) {
+        writeString(out, object.getURI());
+      } else {
+        writeString(out, object.getLiteralLexicalForm());
+        writeString(out, object.getLiteralLanguage());
+        writeString(out, object.getLiteralDatatypeURI());
+      }
+    }
+
+    private static Record readFrom(DataInputStream in) throws IOException {
+      String namespace;
+      try {
+        namespace = readString(in);
+      } catch (EOFException e) {
+        return null;
+      }
+      String localName = readString(in);
+      byte type = in.readByte();
+      if (type == NONE) return new Record(namespace, localName, null);
+
+      Node subject = NodeFactory.createURI(namespace + localName);
+      Node predicate = NodeFactory.createURI(readString(in));
+      Node object;
+      if (type == URI) {
+        object = NodeFactory.createURI(readString(in));
+      } else {
+        String lexicalForm = readString(in);
+        String language = readString(in);
+        String datatype = readString(in);
+        if (!language.isEmpty()) object = NodeFactory.createLiteral(lexicalForm, language);
+        else if (datatype.isEmpty()) object = NodeFactory.createLiteral(lexicalForm);
+        else
+          object =
+              NodeFactory.createLiteral(
+                  lexicalForm, TypeMapper.getInstance().getSafeTypeByName(datatype));
+      }
+      return new Record(namespace, localName, Triple.create(subject, predicate, object));
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+      byte[] bytes = s == null ? new byte[0] : s.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+      byte[] bytes = new byte[in.readInt()];
+      in.readFully(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+
+  /** Jena's Turtle writer, configured as for "TTL", which leaves out the prefixes. */
+  private static class BodyWriter extends N3JenaWriterPP {
+    private BodyWriter() {
+      wellKnownPropsMap = wellKnownPropsMapTurtle;
+      allowTripleQuotedStrings = true;
+    }
+
+    /** As the superclass, without writing the prefixes and the blank line that follows them. */
+    @Override
+    protected void processModel(Model model) {
+      prefixMap = model.getNsPrefixMap();
+      bNodesMap = new HashMap<>();
+      prefixMap.keySet().removeIf(prefix -> !checkPrefixPart(prefix));
+      for (Map.Entry<String, String> entry : prefixMap.entrySet())
+        reversePrefixMap.put(entry.getValue(), entry.getKey());
+      startWriting();
+      prepare(model);
+      writeModel(model);
+      finishWriting();
+      bNodesMap = null;
+    }
+  }
+
+  private static class RunReader implements Closeable {
+    private final DataInputStream in;
+    private Record head;
+
+    private RunReader(Path run) throws IOException {
+      in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run)));
+    }
+
+    private boolean advance() throws IOException {
+      head = Record.readFrom(in);
+      return head != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
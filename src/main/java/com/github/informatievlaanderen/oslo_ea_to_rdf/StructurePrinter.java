@@ -6,64 +6,157 @@ import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAPackage;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EARepository;
 import com.google.common.base.Strings;
 import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.Sets;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Command for listing the structure of an Enterprise Architect file.
  *
+ * <p>The listing is streamed to a writer. A {@link Filter} restricts it to a package subtree,
+ * element types or diagrams, and to a window of entries for pagination.
+ *
  * @author Dieter De Paepe
  */
 public class StructurePrinter {
-  public void execute(EARepository repo, boolean listElements) {
-    EAPackage root = repo.getRootPackage();
+  private static final Comparator<EADiagram> DIAGRAM_ORDER =
+      (o1, o2) ->
+          ComparisonChain.start()
+              .compare(o1.getName(), o2.getName())
+              .compare(o1.getGuid(), o2.getGuid())
+              .result();
+  private static final Comparator<EAElement> ELEMENT_ORDER =
+      (o1, o2) ->
+          ComparisonChain.start()
+              .compare(o1.getType(), o2.getType())
+              .compare(o1.getName(), o2.getName())
+              .compare(o1.getGuid(), o2.getGuid())
+              .result();
+
+  private final Writer out;
+  private final Filter filter;
+  /** The number of entries that passed the filter so far, including those outside the window. */
+  private int count;
+
+  /**
+   * @param out the writer to write to, it is flushed but not closed
+   * @param filter the entries to list
+   */
+  public StructurePrinter(Writer out, Filter filter) {
+    this.out = out;
+    this.filter = filter;
+  }
+
+  /**
+   * Prints the package tree as text, one line per entry. The window of the filter applies to the
+   * lines.
+   */
+  public void execute(EARepository repo, boolean listElements) throws IOException {
+    EAPackage root = filter.root != null ? filter.root : repo.getRootPackage();
+    count = 0;
+    recursivePrint(root, 0, listElements && !filter.diagramsOnly);
+    out.flush();
+  }
+
+  /**
+   * Prints the root package and flat lists of the packages, elements and diagrams as JSON. The
+   * window of the filter applies to the elements, or to the diagrams if only diagrams are listed.
+   * If the window is limited, the number of entries without window is added as {@code total}.
+   */
+  public void executeJson(EARepository repo) throws IOException {
+    EAPackage root = filter.root != null ? filter.root : repo.getRootPackage();
+    Set<EAPackage> subtree = null;
+    if (filter.root != null) {
+      subtree = Sets.newIdentityHashSet();
+      collectSubtree(filter.root, subtree);
+    }
+
+    // Same output as Gson with only the exposed fields, but without building it in memory.
+    JsonWriter json = new JsonWriter(out);
+    json.setHtmlSafe(true);
+    json.setSerializeNulls(false);
+    json.beginObject();
+    json.name("rootPackage");
+    writePackage(json, root);
+
+    json.name("packages").beginArray();
+    for (EAPackage pack : repo.getPackages())
+      if (subtree == null || subtree.contains(pack)) writePackage(json, pack);
+    json.endArray();
 
-    recursivePrint(root, 0, listElements);
+    count = 0;
+    json.name("elements").beginArray();
+    if (!filter.diagramsOnly) {
+      for (EAElement element : repo.getElements()) {
+        if (subtree != null && !subtree.contains(element.getPackage())) continue;
+        if (!filter.types.contains(element.getType())) continue;
+        if (inWindow()) {
+          json.beginObject();
+          json.name("name").value(element.getName());
+          json.name("guid").value(element.getGuid());
+          json.endObject();
+        }
+      }
+    }
+    json.endArray();
+    int total = count;
+
+    count = 0;
+    json.name("diagrams").beginArray();
+    for (EADiagram diagram : repo.getDiagrams()) {
+      if (subtree != null && !subtree.contains(diagram.getPackage())) continue;
+      if (!filter.diagramsOnly || inWindow()) {
+        json.beginObject();
+        json.name("name").value(diagram.getName());
+        json.name("guid").value(diagram.getGuid());
+        json.endObject();
+      }
+    }
+    json.endArray();
+
+    if (filter.isPaged()) json.name("total").value(filter.diagramsOnly ? count : total);
+    json.endObject();
+    json.flush();
   }
 
-  private void recursivePrint(EAPackage pack, int indent, boolean listElements) {
+  private void recursivePrint(EAPackage pack, int indent, boolean listElements)
+      throws IOException {
     String whitespace = Strings.repeat("  ", indent);
-    System.out.printf("%s%s %s %s\n", whitespace, "Package", pack.getName(), pack.getGuid());
+    printLine(whitespace, "Package", pack.getName(), pack.getGuid());
 
     printDiagrams(pack, indent + 1);
 
     if (listElements) printElements(pack, indent + 1);
 
     for (EAPackage child : pack.getPackages()) {
+      // Nothing more will be printed once the window is passed.
+      if (filter.isPastWindow(count)) return;
       recursivePrint(child, indent + 1, listElements);
     }
   }
 
-  private void printDiagrams(EAPackage pack, int indent) {
+  private void printDiagrams(EAPackage pack, int indent) throws IOException {
     String whitespace = Strings.repeat("  ", indent);
-    List<? extends EADiagram> diagrams = new ArrayList<>(pack.getDiagrams());
-
-    Collections.sort(
-        diagrams,
-        (o1, o2) ->
-            ComparisonChain.start()
-                .compare(o1.getName(), o2.getName())
-                .compare(o1.getGuid(), o2.getGuid())
-                .result());
+    List<EADiagram> diagrams = new ArrayList<>(pack.getDiagrams());
+    diagrams.sort(DIAGRAM_ORDER);
 
     for (EADiagram eaDiagram : diagrams) {
-      System.out.printf(
-          "%s%s %s %s\n", whitespace, "Diagram", eaDiagram.getName(), eaDiagram.getGuid());
+      printLine(whitespace, "Diagram", eaDiagram.getName(), eaDiagram.getGuid());
     }
   }
 
-  private void printElements(EAPackage pack, int indent) {
+  private void printElements(EAPackage pack, int indent) throws IOException {
     String whitespace = Strings.repeat("  ", indent);
-    List<EAElement> elements = new ArrayList<>(pack.getElements());
-    Collections.sort(
-        elements,
-        ((o1, o2) ->
-            ComparisonChain.start()
-                .compare(o1.getType(), o2.getType())
-                .compare(o1.getName(), o2.getName())
-                .compare(o1.getGuid(), o2.getGuid())
-                .result()));
+    List<EAElement> elements = new ArrayList<>(pack.getElements().size());
+    for (EAElement element : pack.getElements())
+      if (filter.types.contains(element.getType())) elements.add(element);
+    elements.sort(ELEMENT_ORDER);
 
     for (EAElement element : elements) {
       String type;
@@ -80,7 +173,84 @@ public class StructurePrinter {
         default:
           type = "?";
       }
-      System.out.printf("%s%s %s %s\n", whitespace, type, element.getName(), element.getGuid());
+      printLine(whitespace, type, element.getName(), element.getGuid());
+    }
+  }
+
+  private void printLine(String whitespace, String type, String name, String guid)
+      throws IOException {
+    if (!inWindow()) return;
+    out.write(whitespace);
+    out.write(type);
+    out.write(' ');
+    out.write(String.valueOf(name));
+    out.write(' ');
+    out.write(String.valueOf(guid));
+    out.write('\n');
+  }
+
+  /** Counts an entry, and returns whether it falls in the window. */
+  private boolean inWindow() {
+    int index = count++;
+    return index >= filter.offset && !filter.isPastWindow(index);
+  }
+
+  private static void writePackage(JsonWriter json, EAPackage pack) throws IOException {
+    json.beginObject();
+    json.name("name").value(pack.getName());
+    json.name("guid").value(pack.getGuid());
+    json.endObject();
+  }
+
+  private static void collectSubtree(EAPackage pack, Set<EAPackage> subtree) {
+    subtree.add(pack);
+    for (EAPackage child : pack.getPackages()) collectSubtree(child, subtree);
+  }
+
+  /** The entries to list. By default, everything is listed. */
+  public static class Filter {
+    private EAPackage root;
+    private Set<EAElement.Type> types = EnumSet.allOf(EAElement.Type.class);
+    private boolean diagramsOnly;
+    private int offset;
+    private int limit = -1;
+
+    /** Only lists the package and its descendants. */
+    public Filter subtree(EAPackage root) {
+      this.root = root;
+      return this;
+    }
+
+    /** Only lists elements of the given types. */
+    public Filter types(Set<EAElement.Type> types) {
+      this.types = EnumSet.copyOf(types);
+      return this;
+    }
+
+    /** Only lists packages and diagrams, no elements. */
+    public Filter diagramsOnly(boolean diagramsOnly) {
+      this.diagramsOnly = diagramsOnly;
+      return this;
+    }
+
+    /**
+     * Only lists a window of the entries.
+     *
+     * @param offset the number of entries to skip
+     * @param limit the maximum number of entries to list, or -1 for no maximum
+     */
+    public Filter window(int offset, int limit) {
+      this.offset = offset;
+      this.limit = limit;
+      return this;
+    }
+
+    private boolean isPaged() {
+      return offset > 0 || limit >= 0;
+    }
+
+    private boolean isPastWindow(int index) {
+      return limit >= 0 && index >= offset + limit;
     }
   }
 }
@@ -0,0 +1,137 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
+
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAElement;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multimap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.OWL;
+
+/**
+ * Resolves the type names used by attributes to their range once, instead of for every attribute.
+ * A type name is either one of the built-in data types, or the name of an element in the
+ * repository.
+ *
+ * <p>A type name is resolved when it is first asked for, so that only the types used by the
+ * converted attributes are resolved, and diagnostics are reported in the order of conversion. Not
+ * thread safe.
+ */
+public class AttributeTypeTable {
+  private final Map<String, Resource> datatypes;
+  private final Multimap<String, EAElement> nameToElements;
+  private final Map<EAElement, String> elementURIs;
+  private final TagHelper tagHelper;
+  /** The resolved type names, mapped to {@code null} if unknown. */
+  private final Map<String, Entry> entries = new HashMap<>();
+
+  /**
+   * @param datatypes the built-in data types
+   * @param nameToElements all (non ignored) elements by name
+   * @param elementURIs the URIs assigned to the elements
+   * @param tagHelper used to read the literal flag of referenced elements
+   */
+  public AttributeTypeTable(
+      Map<String, Resource> datatypes,
+      Multimap<String, EAElement> nameToElements,
+      Map<EAElement, String> elementURIs,
+      TagHelper tagHelper) {
+    this.datatypes = datatypes;
+    this.nameToElements = nameToElements;
+    this.elementURIs = elementURIs;
+    this.tagHelper = tagHelper;
+  }
+
+  private Entry resolve(String typeName) {
+    if (datatypes.containsKey(typeName)) {
+      Resource range = datatypes.get(typeName);
+      RangeData rangeData = new RangeData(typeName, "", range);
+      return new Entry(range, OWL.DatatypeProperty, true, rangeData, ImmutableList.of());
+    } else if (nameToElements.containsKey(typeName)) {
+      List<EAElement> candidates = ImmutableList.copyOf(nameToElements.get(typeName));
+      EAElement selectedElement = candidates.get(0);
+      boolean isLiteral =
+          Boolean.parseBoolean(tagHelper.getOptionalTag(selectedElement, Tag.IS_LITERAL, "false"));
+      Resource range = tagHelper.getUriCache().resource(elementURIs.get(selectedElement));
+      RangeData rangeData =
+          new RangeData(
+              selectedElement.getName(),
+              selectedElement.getPackage().getName(),
+              range,
+              selectedElement);
+      return new Entry(
+          range,
+          isLiteral ? OWL.DatatypeProperty : OWL.ObjectProperty,
+          isLiteral,
+          rangeData,
+          candidates);
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Gets the resolved range for a type name.
+   *
+   * @param typeName the type of an attribute, may be {@code null}
+   * @return {@code null} if the type is unknown
+   */
+  public Entry get(String typeName) {
+    if (typeName == null) return null;
+    if (!entries.containsKey(typeName)) entries.put(typeName, resolve(typeName));
+    return entries.get(typeName);
+  }
+
+  /** The resolution of a single type name. */
+  public static class Entry {
+    private final Resource range;
+    private final Resource propertyType;
+    private final boolean literal;
+    private final RangeData rangeData;
+    private final List<EAElement> candidates;
+
+    private Entry(
+        Resource range,
+        Resource propertyType,
+        boolean literal,
+        RangeData rangeData,
+        List<EAElement> candidates) {
+      this.range = range;
+      this.propertyType = propertyType;
+      this.literal = literal;
+      this.rangeData = rangeData;
+      this.candidates = candidates;
+    }
+
+    public Resource getRange() {
+      return range;
+    }
+
+    /** Either {@link OWL#DatatypeProperty} or {@link OWL#ObjectProperty}. */
+    public Resource getPropertyType() {
+      return propertyType;
+    }
+
+    public boolean isLiteral() {
+      return literal;
+    }
+
+    public RangeData getRangeData() {
+      return rangeData;
+    }
+
+    /**
+     * The elements matching the type name, the first one is used as range.
+     *
+     * @return empty for built-in data types
+     */
+    public List<EAElement> getCandidates() {
+      return candidates;
+    }
+
+    public boolean isAmbiguous() {
+      return candidates.size() > 1;
+    }
+  }
+}
@@ -0,0 +1,227 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
+
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.DiagramConnector;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.DiagramElement;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAConnector;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EADiagram;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAElement;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EARepository;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the generalization (is-a) relations between elements. Each element that takes part in a
+ * generalization is assigned a number, parents and children are stored as arrays of those numbers
+ * and the transitive closure is precomputed as a bitset per element, so that ancestor and subclass
+ * checks are constant time. Elements without generalizations are not indexed.
+ *
+ * <p>Parents and children are returned in the order in which the generalization connectors are
+ * listed on the child element.
+ */
+public class ClassHierarchy {
+  private static final int[] NONE = new int[0];
+  /** The hierarchy of each loaded repository, dropped with the repository. */
+  private static final LoadingCache<EARepository, ClassHierarchy> REPOSITORIES =
+      CacheBuilder.newBuilder().weakKeys().build(CacheLoader.from(ClassHierarchy::build));
+
+  private final List<EAElement> elements;
+  private final Map<EAElement, Integer> indices;
+  private final int[][] parents;
+  private final int[][] children;
+  private final BitSet[] ancestors;
+  private final BitSet[] descendants;
+  private final Map<EAElement, List<EAConnector>> undirected;
+
+  private ClassHierarchy(Builder builder) {
+    this.elements = builder.elements;
+    this.indices = builder.indices;
+    this.undirected = builder.undirected;
+
+    int size = elements.size();
+    this.parents = new int[size][];
+    int[] childCounts = new int[size];
+    for (int i = 0; i < size; i++) {
+      List<Integer> p = builder.parents.get(i);
+      parents[i] = p.isEmpty() ? NONE : p.stream().mapToInt(Integer::intValue).toArray();
+      for (int parent : parents[i]) childCounts[parent]++;
+    }
+
+    this.children = new int[size][];
+    for (int i = 0; i < size; i++)
+      children[i] = childCounts[i] == 0 ? NONE : new int[childCounts[i]];
+    int[] fill = new int[size];
+    for (int i = 0; i < size; i++)
+      for (int parent : parents[i]) children[parent][fill[parent]++] = i;
+
+    // A breadth first walk per element, which also terminates on (invalid) cyclic hierarchies.
+    this.ancestors = new BitSet[size];
+    this.descendants = new BitSet[size];
+    for (int i = 0; i < size; i++) descendants[i] = new BitSet();
+    int[] queue = new int[size];
+    for (int i = 0; i < size; i++) {
+      BitSet seen = new BitSet();
+      int head = 0;
+      int tail = 0;
+      for (int parent : parents[i]) {
+        if (!seen.get(parent)) {
+          seen.set(parent);
+          queue[tail++] = parent;
+        }
+      }
+      while (head < tail) {
+        for (int parent : parents[queue[head++]]) {
+          if (!seen.get(parent)) {
+            seen.set(parent);
+            queue[tail++] = parent;
+          }
+        }
+      }
+      ancestors[i] = seen;
+      for (int a = seen.nextSetBit(0); a >= 0; a = seen.nextSetBit(a + 1)) descendants[a].set(i);
+    }
+  }
+
+  /**
+   * The hierarchy of all elements in the repository, based on the generalization connectors
+   * defined in the model. It is built once per repository.
+   */
+  public static ClassHierarchy of(EARepository repo) {
+    return REPOSITORIES.getUnchecked(repo);
+  }
+
+  private static ClassHierarchy build(EARepository repo) {
+    Builder builder = new Builder();
+    for (EAElement element : repo.getElements()) {
+      for (EAConnector connector : element.getConnectors()) {
+        if (!EAConnector.TYPE_GENERALIZATION.equals(connector.getType())) continue;
+
+        if (connector.getDirection() == EAConnector.Direction.SOURCE_TO_DEST) {
+          if (connector.getSource().equals(element))
+            builder.addParent(element, connector.getDestination());
+        } else if (connector.getDirection() == EAConnector.Direction.DEST_TO_SOURCE) {
+          if (connector.getDestination().equals(element))
+            builder.addParent(element, connector.getSource());
+        } else {
+          builder.addUndirected(element, connector);
+        }
+      }
+    }
+    return new ClassHierarchy(builder);
+  }
+
+  /**
+   * Builds the hierarchy as it is shown on the given diagram: only generalizations that are visible
+   * on the diagram, are not marked as ignored and have a direction are taken into account.
+   */
+  public static ClassHierarchy of(EADiagram diagram, TagHelper tagHelper) {
+    Builder builder = new Builder();
+    for (DiagramElement diagramElement : diagram.getElements()) {
+      EAElement element = diagramElement.getReferencedElement();
+      for (DiagramConnector dConnector : diagramElement.getConnectors()) {
+        EAConnector connector = dConnector.getReferencedConnector();
+        if (!EAConnector.TYPE_GENERALIZATION.equals(connector.getType())
+            || dConnector.isHidden()
+            || Boolean.valueOf(tagHelper.getOptionalTag(connector, Tag.IGNORE, "false"))) continue;
+
+        if (connector.getDirection() == EAConnector.Direction.SOURCE_TO_DEST) {
+          if (element.equals(connector.getSource()))
+            builder.addParent(element, connector.getDestination());
+        } else if (connector.getDirection() == EAConnector.Direction.DEST_TO_SOURCE) {
+          if (element.equals(connector.getDestination()))
+            builder.addParent(element, connector.getSource());
+        } else {
+          builder.addUndirected(element, connector);
+        }
+      }
+    }
+    return new ClassHierarchy(builder);
+  }
+
+  /** The direct parents of the element. */
+  public List<EAElement> getParents(EAElement element) {
+    Integer index = indices.get(element);
+    return index == null ? Collections.emptyList() : toElements(parents[index]);
+  }
+
+  /** The direct children of the element. */
+  public List<EAElement> getChildren(EAElement element) {
+    Integer index = indices.get(element);
+    return index == null ? Collections.emptyList() : toElements(children[index]);
+  }
+
+  /** All direct and indirect parents of the element, in index order. */
+  public List<EAElement> getAncestors(EAElement element) {
+    Integer index = indices.get(element);
+    return index == null ? Collections.emptyList() : toElements(ancestors[index]);
+  }
+
+  /** All direct and indirect children of the element, in index order. */
+  public List<EAElement> getDescendants(EAElement element) {
+    Integer index = indices.get(element);
+    return index == null ? Collections.emptyList() : toElements(descendants[index]);
+  }
+
+  /**
+   * Checks whether {@code child} is a direct or indirect specialisation of {@code ancestor}. An
+   * element is not considered to be a subclass of itself, unless the hierarchy contains a cycle.
+   */
+  public boolean isSubclassOf(EAElement child, EAElement ancestor) {
+    Integer c = indices.get(child);
+    Integer a = indices.get(ancestor);
+    return c != null && a != null && ancestors[c].get(a);
+  }
+
+  /** The generalization connectors on the element that lack a direction and were skipped. */
+  public List<EAConnector> getUndirectedGeneralizations(EAElement element) {
+    return undirected.getOrDefault(element, Collections.emptyList());
+  }
+
+  private List<EAElement> toElements(int[] indexes) {
+    if (indexes.length == 0) return Collections.emptyList();
+    List<EAElement> result = new ArrayList<>(indexes.length);
+    for (int i : indexes) result.add(elements.get(i));
+    return result;
+  }
+
+  private List<EAElement> toElements(BitSet indexes) {
+    if (indexes.isEmpty()) return Collections.emptyList();
+    List<EAElement> result = new ArrayList<>(indexes.cardinality());
+    for (int i = indexes.nextSetBit(0); i >= 0; i = indexes.nextSetBit(i + 1))
+      result.add(elements.get(i));
+    return result;
+  }
+
+  private static class Builder {
+    private final List<EAElement> elements = new ArrayList<>();
+    private final Map<EAElement, Integer> indices = new HashMap<>();
+    private final List<List<Integer>> parents = new ArrayList<>();
+    private final Map<EAElement, List<EAConnector>> undirected = new HashMap<>();
+
+    private int index(EAElement element) {
+      Integer index = indices.get(element);
+      if (index == null) {
+        index = elements.size();
+        elements.add(element);
+        indices.put(element, index);
+        parents.add(new ArrayList<>(1));
+      }
+      return index;
+    }
+
+    private void addParent(EAElement child, EAElement parent) {
+      int parentIndex = index(parent);
+      parents.get(index(child)).add(parentIndex);
+    }
+
+    private void addUndirected(EAElement element, EAConnector connector) {
+      undirected.computeIfAbsent(element, e -> new ArrayList<>()).add(connector);
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
+
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAAttribute;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAConnector;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAElement;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAPackage;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.Map;
+import org.apache.jena.rdf.model.Resource;
+
+/**
+ * Output handler that passes everything to several other handlers, in the given order, so that
+ * multiple outputs are produced by a single conversion.
+ */
+public class CompositeOutputHandler implements OutputHandler {
+  private final List<OutputHandler> handlers;
+
+  public CompositeOutputHandler(OutputHandler... handlers) {
+    this.handlers = ImmutableList.copyOf(handlers);
+  }
+
+  @Override
+  public void handleURIs(UriAssigner.Result uris) {
+    for (OutputHandler handler : handlers) handler.handleURIs(uris);
+  }
+
+  @Override
+  public void handleOntology(
+      EAPackage sourcePackage, Resource ontology, String prefix, String baseURI) {
+    for (OutputHandler handler : handlers)
+      handler.handleOntology(sourcePackage, ontology, prefix, baseURI);
+  }
+
+  @Override
+  public void handleClass(
+      EAElement sourceElement,
+      Resource clazz,
+      Scope scope,
+      Resource ontology,
+      List<Resource> parentClasses,
+      List<EAElement> parentElements,
+      Map<EAElement, String> elementURIs,
+      List<Resource> allowedValues) {
+    for (OutputHandler handler : handlers)
+      handler.handleClass(
+          sourceElement,
+          clazz,
+          scope,
+          ontology,
+          parentClasses,
+          parentElements,
+          elementURIs,
+          allowedValues);
+  }
+
+  @Override
+  public void handleProperty(
+      PropertySource source,
+      Resource property,
+      Scope scope,
+      PackageExported packageExported,
+      Resource ontology,
+      Resource propertyType,
+      Resource domain,
+      Resource range,
+      RangeData rangedata,
+      String lowerbound,
+      String upperbound,
+      List<Resource> superProperties) {
+    for (OutputHandler handler : handlers)
+      handler.handleProperty(
+          source,
+          property,
+          scope,
+          packageExported,
+          ontology,
+          propertyType,
+          domain,
+          range,
+          rangedata,
+          lowerbound,
+          upperbound,
+          superProperties);
+  }
+
+  @Override
+  public void handlePropertyConnector(
+      Boolean derived,
+      EAConnector source,
+      Resource property,
+      Scope scope,
+      PackageExported packageExported,
+      Resource ontology,
+      Resource propertyType,
+      Resource domain,
+      Resource range,
+      RangeData rangedata,
+      String lowerbound,
+      String upperbound,
+      List<Resource> superProperties) {
+    for (OutputHandler handler : handlers)
+      handler.handlePropertyConnector(
+          derived,
+          source,
+          property,
+          scope,
+          packageExported,
+          ontology,
+          propertyType,
+          domain,
+          range,
+          rangedata,
+          lowerbound,
+          upperbound,
+          superProperties);
+  }
+
+  @Override
+  public void handleInstance(
+      EAAttribute source, Resource instance, Scope scope, Resource ontology, Resource clazz) {
+    for (OutputHandler handler : handlers)
+      handler.handleInstance(source, instance, scope, ontology, clazz);
+  }
+}
@@ -1,19 +1,20 @@
 package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
 
 import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.RangeData.*;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics.DiagnosticCode;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics.Diagnostics;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.ea.AssocFreeEAConnector;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.ea.AssociationEAConnector;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.ea.RoleEAConnector;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.*;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.impl.MemoryEATag;
-import com.google.common.base.Joiner;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.profile.Profiler;
 import com.google.common.collect.*;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
-import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.vocabulary.OWL;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
@@ -55,15 +56,27 @@ public class Converter {
 
   private EARepository repo;
   private TagHelper tagHelper;
+  private Diagnostics diagnostics;
+  private UriCache uriCache;
+  private Profiler profiler;
   private Multimap<String, EAPackage> nameToPackages;
   private Multimap<String, EAElement> nameToElements;
+  private ClassHierarchy hierarchy;
+  private UriAssigner uriAssigner;
   private OutputHandler outputHandler;
 
   public Converter(EARepository repo, TagHelper tagHelper, OutputHandler outputHandler) {
     this.repo = repo;
     this.tagHelper = tagHelper;
+    this.diagnostics = tagHelper.getDiagnostics().forSource(Converter.class);
+    this.uriCache = tagHelper.getUriCache();
     this.outputHandler = outputHandler;
+    this.profiler = tagHelper.getProfiler();
+    profiler.time("index", this::index);
+  }
 
+  /** Builds the name indices and the generalization hierarchy of the repository. */
+  private void index() {
     ImmutableListMultimap.Builder<String, EAPackage> pBuilder = ImmutableListMultimap.builder();
     ImmutableListMultimap.Builder<String, EAElement> eBuilder = ImmutableListMultimap.builder();
 
@@ -77,13 +90,27 @@ public class Converter {
     }
     nameToPackages = pBuilder.build();
     nameToElements = eBuilder.build();
+    hierarchy = ClassHierarchy.of(repo);
+  }
+
+  /** The generalization hierarchy of all elements in the repository. */
+  public ClassHierarchy getClassHierarchy() {
+    return hierarchy;
   }
 
   public void convertDiagram(EADiagram diagram) {
-    Map<EAConnector, EAConnector.Direction> connectorDirections = indexDirections(diagram);
+    DiagramIndex diagramIndex =
+        profiler.time("diagramIndex", () -> tagHelper.getDiagramIndex(diagram));
+    Map<EAConnector, EAConnector.Direction> connectorDirections =
+        profiler.time("directions", () -> indexDirections(diagramIndex));
+    uriAssigner = new UriAssigner(tagHelper);
     UriAssigner.Result uris =
-        new UriAssigner(tagHelper)
-            .assignURIs(repo.getPackages(), nameToPackages, connectorDirections);
+        profiler.time(
+            "uris",
+            () -> uriAssigner.assignURIs(repo.getPackages(), nameToPackages, connectorDirections));
+    AttributeTypeTable attributeTypes =
+        new AttributeTypeTable(DATATYPES, nameToElements, uris.elementURIs, tagHelper);
+    outputHandler.handleURIs(uris);
 
     // Prefixes
     // for (EAPackage eaPackage : uris.packageURIs.keySet()) {
@@ -94,14 +121,28 @@ public class Converter {
     // }
 
     // Convert package
-    Resource ontology = convertPackage(diagram.getPackage(), uris.ontologyURIs, uris.packageURIs);
+    Resource ontology =
+        profiler.time(
+            "package",
+            () -> convertPackage(diagram.getPackage(), uris.ontologyURIs, uris.packageURIs));
     LOGGER.debug("handle ontology");
 
+    profiler.time("elements", () -> convertElements(diagram, uris, ontology));
+    profiler.time(
+        "connectors",
+        () -> convertConnectors(diagram, diagramIndex, connectorDirections, uris, ontology));
+    profiler.time("attributes", () -> convertAttributes(diagram, uris, attributeTypes, ontology));
+    profiler.time("enumerations", () -> convertEnumerations(diagram, uris, ontology));
+
+    uriAssigner.reportConflicts();
+  }
+
+  private void convertElements(EADiagram diagram, UriAssigner.Result uris, Resource ontology) {
     // Convert elements.
     for (DiagramElement diagramElement : diagram.getElements()) {
       EAElement element = diagramElement.getReferencedElement();
       if (Boolean.valueOf(tagHelper.getOptionalTag(element, Tag.IGNORE, "false"))) {
-        LOGGER.info("Skipping class \"{}\" since it is marked as ignored.", element.getPath());
+        diagnostics.report(DiagnosticCode.IGNORED_CLASS, element, element);
         continue;
       }
 
@@ -126,9 +167,7 @@ public class Converter {
         ;
         if (customURIsamePrefix) {
           scope = Scope.FULL_DEFINITON;
-          LOGGER.warn(
-              "Element {} has same prefix as package: simplify by removing the extra tag uri",
-              element.getName());
+          diagnostics.report(DiagnosticCode.SAME_PREFIX_AS_PACKAGE, element, element.getName());
         }
         ;
       }
@@ -136,13 +175,16 @@ public class Converter {
       LOGGER.debug("Scope of covertion for diagram elements is \"{}\"", scope);
       convertElement(diagramElement, uris.elementURIs, uris.instanceURIs, ontology, scope);
     }
+  }
 
+  private void convertConnectors(
+      EADiagram diagram,
+      DiagramIndex diagramIndex,
+      Map<EAConnector, EAConnector.Direction> connectorDirections,
+      UriAssigner.Result uris,
+      Resource ontology) {
     // Convert connectors.
-    Set<DiagramConnector> connectors = new HashSet<>();
-    for (DiagramElement diagramElement : diagram.getElements())
-      for (DiagramConnector dConnector : diagramElement.getConnectors()) connectors.add(dConnector);
-
-    for (DiagramConnector dConnector : connectors) {
+    for (DiagramConnector dConnector : diagramIndex.getConnectors()) {
       // Skip if the connector is hidden in the diagram.
       if (dConnector.isHidden()) continue;
 
@@ -153,8 +195,7 @@ public class Converter {
 
       // Skip if marked as ignore.
       if (Boolean.valueOf(tagHelper.getOptionalTag(connector, Tag.IGNORE, "false"))) {
-        LOGGER.info(
-            "Skipping connector \"{}\" since it is marked as ignored.", connector.getPath());
+        diagnostics.report(DiagnosticCode.IGNORED_CONNECTOR, connector, connector);
         continue;
       }
 
@@ -171,7 +212,13 @@ public class Converter {
           ontology,
           diagram.getPackage());
     }
+  }
 
+  private void convertAttributes(
+      EADiagram diagram,
+      UriAssigner.Result uris,
+      AttributeTypeTable attributeTypes,
+      Resource ontology) {
     // Convert non-enum attributes.
     for (DiagramElement diagramElement : diagram.getElements()) {
       // Skip enum attributes
@@ -187,8 +234,7 @@ public class Converter {
       for (EAAttribute attribute : element.getAttributes()) {
         // Skip if marked as ignore.
         if (!uris.attributeURIs.containsKey(attribute)) {
-          LOGGER.info(
-              "Skipping attribute \"{}\" since it is marked as ignored.", attribute.getPath());
+          diagnostics.report(DiagnosticCode.IGNORED_ATTRIBUTE, attribute, attribute);
           continue;
         }
 
@@ -209,19 +255,20 @@ public class Converter {
           ;
           if (customURIsamePrefix) {
             scope = Scope.FULL_DEFINITON;
-            LOGGER.warn(
-                "Element {} has same prefix as package: simplify by removing the extra tag uri",
-                attribute.getName());
+            diagnostics.report(
+                DiagnosticCode.SAME_PREFIX_AS_PACKAGE, attribute, attribute.getName());
           }
           ;
         }
         LOGGER.debug("Scope of covertion for attributes is \"{}\"", scope);
 
         convertAttribute(
-            attribute, nameToElements, uris.elementURIs, uris.attributeURIs, ontology, scope);
+            attribute, attributeTypes, uris.elementURIs, uris.attributeURIs, ontology, scope);
       }
     }
+  }
 
+  private void convertEnumerations(EADiagram diagram, UriAssigner.Result uris, Resource ontology) {
     // Convert enum values
     for (DiagramElement diagramElement : diagram.getElements()) {
       // Skip enum attributes
@@ -244,15 +291,10 @@ public class Converter {
    * class is present) in the given diagram to their label direction, or if that is not present, the
    * direction of the connection.
    */
-  private Map<EAConnector, EAConnector.Direction> indexDirections(EADiagram diagram) {
-    Set<DiagramConnector> connectors =
-        diagram.getElements().stream()
-            .flatMap(o -> o.getConnectors().stream())
-            .collect(Collectors.toSet());
-
+  private Map<EAConnector, EAConnector.Direction> indexDirections(DiagramIndex diagramIndex) {
     ImmutableMap.Builder<EAConnector, EAConnector.Direction> builder2 = ImmutableMap.builder();
     Map<EAConnector, EAConnector.Direction> builder = new LinkedHashMap<>();
-    for (DiagramConnector connector : connectors) {
+    for (DiagramConnector connector : diagramIndex.getConnectors()) {
       EAConnector.Direction direction = connector.getLabelDirection();
       if (direction == EAConnector.Direction.UNSPECIFIED)
         direction = connector.getReferencedConnector().getDirection();
@@ -271,9 +313,8 @@ public class Converter {
               Util.extractAssociationElement2(
                   connector.getReferencedConnector(), direction, tagHelper)) {
             if (builder.containsKey(innerConnector)) {
-              LOGGER.warn(
-                  "Connector {} without explicit direction already added to the set of directions",
-                  innerConnector.getName());
+              diagnostics.report(
+                  DiagnosticCode.DUPLICATE_DIRECTION, innerConnector, innerConnector.getName());
             } else {
               builder.put(innerConnector, innerConnector.getDirection());
             }
@@ -288,10 +329,11 @@ public class Converter {
 
   private Resource convertPackage(
       EAPackage aPackage, Map<EAPackage, String> ontologyURIs, Map<EAPackage, String> baseURIs) {
-    Resource ontology = ResourceFactory.createResource(ontologyURIs.get(aPackage));
+    Resource ontology = uriCache.resource(ontologyURIs.get(aPackage));
     String prefix = tagHelper.getOptionalTag(aPackage, Tag.PACKAGE_BASE_URI_ABBREVIATION, null);
     String baseUri = baseURIs.get(aPackage);
 
+    profiler.count("handleOntology");
     outputHandler.handleOntology(aPackage, ontology, prefix, baseUri);
 
     LOGGER.debug("Ontology {}", ontology);
@@ -305,11 +347,11 @@ public class Converter {
       Map<EAElement, String> elementURIs,
       Map<EAAttribute, String> instanceURIs,
       Resource ontology) {
-    Resource elementRes = ResourceFactory.createResource(elementURIs.get(element));
+    Resource elementRes = uriCache.resource(elementURIs.get(element));
     List<? extends EAAttribute> attributes = element.getAttributes();
 
     for (EAAttribute attribute : attributes) {
-      Resource attResource = ResourceFactory.createResource(instanceURIs.get(attribute));
+      Resource attResource = uriCache.resource(instanceURIs.get(attribute));
 
       if (Boolean.valueOf(tagHelper.getOptionalTag(attribute, Tag.IGNORE, "false"))) {
         continue;
@@ -332,28 +374,29 @@ public class Converter {
         ;
         if (customURIsamePrefix) {
           scope = Scope.FULL_DEFINITON;
-          LOGGER.warn(
-              "Element {} has same prefix as package: simplify by removing the extra tag uri",
-              attribute.getName());
+          diagnostics.report(
+              DiagnosticCode.SAME_PREFIX_AS_PACKAGE, attribute, attribute.getName());
         }
         ;
       }
 
+      profiler.count("handleInstance");
       outputHandler.handleInstance(attribute, attResource, scope, ontology, elementRes);
     }
   }
 
   private void convertAttribute(
       EAAttribute attribute,
-      Multimap<String, EAElement> elementIndex,
+      AttributeTypeTable attributeTypes,
       Map<EAElement, String> elementURIs,
       Map<EAAttribute, String> attributeURIs,
       Resource ontology,
       Scope scope) {
-    LOGGER.debug("converting Attribute \"{}\".", attribute.getPath());
+    if (LOGGER.isDebugEnabled())
+      LOGGER.debug("converting Attribute \"{}\".", attribute.getPath());
     if (!attributeURIs.containsKey(attribute)) return;
 
-    Property attResource = ResourceFactory.createProperty(attributeURIs.get(attribute));
+    Property attResource = uriCache.property(attributeURIs.get(attribute));
 
     Resource domain;
     Resource range = null;
@@ -361,9 +404,9 @@ public class Converter {
 
     String customDomain = tagHelper.getOptionalTag(attribute, Tag.DOMAIN, null);
     if (customDomain == null) {
-      domain = ResourceFactory.createResource(elementURIs.get(attribute.getElement()));
+      domain = uriCache.resource(elementURIs.get(attribute.getElement()));
     } else {
-      domain = ResourceFactory.createResource(customDomain);
+      domain = uriCache.resource(customDomain);
     }
 
     String customRange = tagHelper.getOptionalTag(attribute, Tag.RANGE, null);
@@ -374,42 +417,22 @@ public class Converter {
       boolean rangeIsLiteral =
           Boolean.parseBoolean(tagHelper.getOptionalTag(attribute, Tag.IS_LITERAL, "false"));
       propertyType = rangeIsLiteral ? OWL.DatatypeProperty : OWL.ObjectProperty;
-      range = ResourceFactory.createProperty(customRange);
+      range = uriCache.property(customRange);
       rangedata = new RangeData("", "", range);
 
-    } else if (DATATYPES.containsKey(attribute.getType())) {
-      propertyType = OWL.DatatypeProperty;
-      range = DATATYPES.get(attribute.getType());
-      rangedata = new RangeData(attribute.getType().toString(), "", range);
-    } else if (elementIndex.containsKey(attribute.getType())) {
-      Collection<EAElement> refElements = elementIndex.get(attribute.getType());
-      if (refElements.size() > 1) {
-        Iterable<String> names = Iterables.transform(refElements, EAObject::getPath);
-        LOGGER.warn(
-            "Ambiguous data type \"{}\" for attribute \"{}\": {}.",
-            attribute.getType(),
-            attribute.getPath(),
-            Joiner.on(", ").join(names));
+    } else if (attributeTypes.get(attribute.getType()) != null) {
+      AttributeTypeTable.Entry type = attributeTypes.get(attribute.getType());
+      if (type.isAmbiguous()) {
+        // Reported without subject, so that it is only listed once per type name.
+        diagnostics.report(
+            DiagnosticCode.AMBIGUOUS_DATA_TYPE, null, attribute.getType(), type.getCandidates());
       }
-      EAElement selectedElement = refElements.iterator().next();
-      LOGGER.debug(
-          "Attribute range is EA Element {} from type {} ",
-          selectedElement.getName(),
-          attribute.getType());
-      LOGGER.debug("Attribute range package {} ", selectedElement.getPackage().getName());
-      boolean isLiteral =
-          Boolean.parseBoolean(tagHelper.getOptionalTag(selectedElement, Tag.IS_LITERAL, "false"));
-      propertyType = isLiteral ? OWL.DatatypeProperty : OWL.ObjectProperty;
-      range = ResourceFactory.createResource(elementURIs.get(selectedElement));
-      rangedata =
-          new RangeData(
-              selectedElement.getName(),
-              selectedElement.getPackage().getName(),
-              range,
-              selectedElement);
+      propertyType = type.getPropertyType();
+      range = type.getRange();
+      rangedata = type.getRangeData();
     } else {
       propertyType = RDF.Property;
-      LOGGER.warn("Missing data type for attribute \"{}\".", attribute.getPath());
+      diagnostics.report(DiagnosticCode.MISSING_DATA_TYPE, attribute, attribute);
     }
 
     // Subproperty
@@ -421,12 +444,13 @@ public class Converter {
                     TagHelper.USE_NOTE_VALUE.equals(tag.getValue())
                         ? tag.getNotes()
                         : tag.getValue())
-            .map(ResourceFactory::createResource)
+            .map(uriCache::resource)
             .collect(Collectors.toList());
 
     LOGGER.debug(
         "Attribute cardinality {} - {}", attribute.getLowerBound(), attribute.getUpperBound());
 
+    profiler.count("handleProperty");
     outputHandler.handleProperty(
         OutputHandler.PropertySource.from(attribute),
         attResource,
@@ -470,7 +494,7 @@ public class Converter {
       EAPackage convertedPackage) {
 
     EAConnector bareConnector = dconnector.getReferencedConnector();
-    UriAssigner UA = new UriAssigner(tagHelper);
+    UriAssigner UA = uriAssigner;
     if (bareConnector.getAssociationClass() != null) {
       // connector with AssociationClass
       convertConnector3(
@@ -505,7 +529,8 @@ public class Converter {
           directions.getOrDefault(bareConnector, EAConnector.Direction.UNSPECIFIED);
       if (rawDirection == EAConnector.Direction.SOURCE_TO_DEST) {
         // simple directed connector
-        LOGGER.debug("directed Connector \"{}\" SOURCE_TO_DEST ", bareConnector.getPath());
+        if (LOGGER.isDebugEnabled())
+          LOGGER.debug("directed Connector \"{}\" SOURCE_TO_DEST ", bareConnector.getPath());
         UriAssigner.ConnectorURI c =
             UA.assignConnectorURI(false, bareConnector, null, "", nameToPackages, packageURIs);
         convertConnector_base(
@@ -522,7 +547,8 @@ public class Converter {
       } else {
         if (rawDirection == EAConnector.Direction.DEST_TO_SOURCE) {
           // simple directed connector
-          LOGGER.debug("directed Connector \"{}\" DEST_TO_SOURCE", bareConnector.getPath());
+          if (LOGGER.isDebugEnabled())
+            LOGGER.debug("directed Connector \"{}\" DEST_TO_SOURCE", bareConnector.getPath());
           UriAssigner.ConnectorURI c =
               UA.assignConnectorURI(false, bareConnector, null, "", nameToPackages, packageURIs);
           convertConnector_base(
@@ -539,7 +565,8 @@ public class Converter {
         }
       }
       if (bareConnector.getSourceRole() != null && bareConnector.getSourceRole() != "") {
-        LOGGER.debug("undirected Connector \"{}\" DEST_TO_SOURCE ", bareConnector.getPath());
+        if (LOGGER.isDebugEnabled())
+          LOGGER.debug("undirected Connector \"{}\" DEST_TO_SOURCE ", bareConnector.getPath());
         RoleEAConnector roleConnector =
             new RoleEAConnector(
                 bareConnector, RoleEAConnector.ConnectionPart.DEST_TO_SOURCE, tagHelper);
@@ -559,7 +586,8 @@ public class Converter {
       }
       if (bareConnector.getDestRole() != null && bareConnector.getDestRole() != "") {
         // not directed connector => both directions are created
-        LOGGER.debug("undirected Connector \"{}\" SOURCE_TO_DEST ", bareConnector.getPath());
+        if (LOGGER.isDebugEnabled())
+          LOGGER.debug("undirected Connector \"{}\" SOURCE_TO_DEST ", bareConnector.getPath());
         RoleEAConnector roleConnector =
             new RoleEAConnector(
                 bareConnector, RoleEAConnector.ConnectionPart.SOURCE_TO_DEST, tagHelper);
@@ -653,20 +681,23 @@ public class Converter {
       EAPackage convertedPackage) {
 
     EAConnector bareConnector = dconnector.getReferencedConnector();
-    UriAssigner UA = new UriAssigner(tagHelper);
+    UriAssigner UA = uriAssigner;
     EAConnector.Direction rawDirection =
         directions.getOrDefault(bareConnector, EAConnector.Direction.UNSPECIFIED);
 
     if (Util.connectorHasOldAssociationClassTags(bareConnector)) {
       // handling association classes with old definition has priority
-      LOGGER.debug("0) add connectors based on deprecated tags for {}", bareConnector.getPath());
+      if (LOGGER.isDebugEnabled())
+        LOGGER.debug("0) add connectors based on deprecated tags for {}", bareConnector.getPath());
       for (EAConnector connector : Util.extractAssociationElement(bareConnector, rawDirection)) {
         UriAssigner.ConnectorURI c =
             UA.assignConnectorURI(false, connector, null, "", nameToPackages, packageURIs);
         if (c != null) {
-          LOGGER.debug("calculated uri for connector \"{}\" is {}", connector.getPath(), c.curi);
+          if (LOGGER.isDebugEnabled())
+            LOGGER.debug("calculated uri for connector \"{}\" is {}", connector.getPath(), c.curi);
         } else {
-          LOGGER.debug("calculated uri for connector \"{}\" not found ", connector.getPath());
+          if (LOGGER.isDebugEnabled())
+            LOGGER.debug("calculated uri for connector \"{}\" not found ", connector.getPath());
         }
         ;
         // URI calculation works
@@ -688,7 +719,8 @@ public class Converter {
           && (bareConnector.getSourceRole() == null || bareConnector.getSourceRole() == "")
           && (rawDirection != EAConnector.Direction.UNSPECIFIED)) {
 
-        LOGGER.debug("0) add AssocFree connector {}", bareConnector.getPath());
+        if (LOGGER.isDebugEnabled())
+          LOGGER.debug("0) add AssocFree connector {}", bareConnector.getPath());
         AssocFreeEAConnector aconn = new AssocFreeEAConnector(bareConnector);
         UriAssigner.ConnectorURI c =
             UA.assignConnectorURI(true, aconn, null, "", nameToPackages, packageURIs);
@@ -706,7 +738,8 @@ public class Converter {
       }
       ;
       if (bareConnector.getSourceRole() != null && bareConnector.getSourceRole() != "") {
-        LOGGER.debug("1) add Role connector {}", bareConnector.getPath());
+        if (LOGGER.isDebugEnabled())
+          LOGGER.debug("1) add Role connector {}", bareConnector.getPath());
         RoleEAConnector roleConnector =
             new RoleEAConnector(
                 bareConnector, RoleEAConnector.ConnectionPart.DEST_TO_SOURCE, tagHelper);
@@ -726,7 +759,8 @@ public class Converter {
       }
       ;
       if (bareConnector.getDestRole() != null && bareConnector.getDestRole() != "") {
-        LOGGER.debug("2) add Role connector {}", bareConnector.getPath());
+        if (LOGGER.isDebugEnabled())
+          LOGGER.debug("2) add Role connector {}", bareConnector.getPath());
         RoleEAConnector roleConnector =
             new RoleEAConnector(
                 bareConnector, RoleEAConnector.ConnectionPart.SOURCE_TO_DEST, tagHelper);
@@ -748,7 +782,8 @@ public class Converter {
       if ((bareConnector.getDestRole() == null || bareConnector.getDestRole() == "")
           && (bareConnector.getSourceRole() == null || bareConnector.getSourceRole() == "")
           && (rawDirection == EAConnector.Direction.UNSPECIFIED)) {
-        LOGGER.debug("3) add Role connector {}", bareConnector.getPath());
+        if (LOGGER.isDebugEnabled())
+          LOGGER.debug("3) add Role connector {}", bareConnector.getPath());
         String destName = bareConnector.getDestination().getName();
         String sourceName = bareConnector.getSource().getName();
         String destDis = "";
@@ -923,7 +958,9 @@ public class Converter {
       Map<EAConnector, EAPackage> definingPackages, // obsolete
       Resource ontology,
       EAPackage convertedPackage) {
-    LOGGER.debug("initiating conversion Connector \"{}\" in a directed form.", connector.getPath());
+    if (LOGGER.isDebugEnabled())
+      LOGGER.debug(
+          "initiating conversion Connector \"{}\" in a directed form.", connector.getPath());
 
     if (connector.getAssociationClass() != null)
       throw new AssertionError("Association class should not be present.");
@@ -936,18 +973,19 @@ public class Converter {
           .contains(connector.getType())) {
         // must not be a is-a or aggregation type
 
-        LOGGER.debug("Connector \"{}\" is processed.", connector.getPath());
+        if (LOGGER.isDebugEnabled())
+          LOGGER.debug("Connector \"{}\" is processed.", connector.getPath());
 
         //                Resource connResource =
         // ResourceFactory.createResource(connectorURIs.get(connector));
-        Resource connResource = ResourceFactory.createResource(dconnectorUri.curi);
+        Resource connResource = uriCache.resource(dconnectorUri.curi);
 
         // source and target are the two ends of the connector
         // which element is source or target is determined by the drawing order
         EAElement source = connector.getSource();
         EAElement target = connector.getDestination();
-        Resource sourceRes = ResourceFactory.createResource(elementURIs.get(source));
-        Resource targetRes = ResourceFactory.createResource(elementURIs.get(target));
+        Resource sourceRes = uriCache.resource(elementURIs.get(source));
+        Resource targetRes = uriCache.resource(elementURIs.get(target));
 
         // Subproperties
         List<Resource> superProperties =
@@ -958,7 +996,7 @@ public class Converter {
                         TagHelper.USE_NOTE_VALUE.equals(tag.getValue())
                             ? tag.getNotes()
                             : tag.getValue())
-                .map(ResourceFactory::createResource)
+                .map(uriCache::resource)
                 .collect(Collectors.toList());
 
         Resource domain = null;
@@ -980,15 +1018,13 @@ public class Converter {
         rangedata = new RangeData(target.getName(), target.getPackage().getName(), range, target);
 
         if (customDomain != null) {
-          domain = ResourceFactory.createResource(customDomain);
-          LOGGER.warn(
-              "Connector {} overwrites domain with custom domain {} ", connector.getPath(), domain);
+          domain = uriCache.resource(customDomain);
+          diagnostics.report(DiagnosticCode.CUSTOM_DOMAIN, connector, connector, domain);
         }
         ;
         if (customRange != null) {
-          range = ResourceFactory.createResource(customRange);
-          LOGGER.warn(
-              "Connector {} overwrites range with custom range {} ", connector.getPath(), range);
+          range = uriCache.resource(customRange);
+          diagnostics.report(DiagnosticCode.CUSTOM_RANGE, connector, connector, range);
         }
         ;
 
@@ -1010,7 +1046,7 @@ public class Converter {
         PackageExported packageExported;
         if (definingPackage == null) {
           packageExported = PackageExported.UNKNOWN;
-          LOGGER.warn("Package for connector {} is unknown", connector.getPath());
+          diagnostics.report(DiagnosticCode.UNKNOWN_CONNECTOR_PACKAGE, connector, connector);
         } else if (convertedPackage.equals(definingPackage))
           packageExported = PackageExported.ACTIVE_PACKAGE;
         else packageExported = PackageExported.OTHER_PACKAGE;
@@ -1021,8 +1057,10 @@ public class Converter {
           scope = Scope.FULL_DEFINITON;
         else if (externalTerm && packageExported == PackageExported.ACTIVE_PACKAGE)
           scope = Scope.TRANSLATIONS_ONLY;
-        LOGGER.debug("Scope of covertion for connector {} is \"{}\"", connector.getPath(), scope);
+        if (LOGGER.isDebugEnabled())
+          LOGGER.debug("Scope of covertion for connector {} is \"{}\"", connector.getPath(), scope);
 
+        profiler.count("handlePropertyConnector");
         outputHandler.handlePropertyConnector(
             derived,
             connector,
@@ -1038,10 +1076,11 @@ public class Converter {
             higherCardinality,
             superProperties);
       } else {
-        LOGGER.error("Unsupported connector type for \"{}\" - skipping.", connector.getPath());
+        diagnostics.report(DiagnosticCode.UNSUPPORTED_CONNECTOR_TYPE, connector, connector);
       }
     } else {
-      LOGGER.debug("connector \"{}\" has no uri - skipping.", connector.getPath());
+      if (LOGGER.isDebugEnabled())
+        LOGGER.debug("connector \"{}\" has no uri - skipping.", connector.getPath());
       /*
       		for ( EAConnector k : connectorURIs.keySet()) {
       			LOGGER.error("contains key {}", k.getPath());
@@ -1177,45 +1216,28 @@ public class Converter {
       Resource ontology,
       Scope scope) {
     EAElement element = diagramElement.getReferencedElement();
-    Resource classEntity = ResourceFactory.createResource(elementURIs.get(element));
+    Resource classEntity = uriCache.resource(elementURIs.get(element));
 
-    LOGGER.debug("converting element \"{}\".", element.getPath());
+    if (LOGGER.isDebugEnabled()) LOGGER.debug("converting element \"{}\".", element.getPath());
 
     List<Resource> allowedValues = null;
     if (element.getType().equals(EAElement.Type.ENUMERATION)) {
       List<? extends EAAttribute> attributes = element.getAttributes();
       allowedValues =
-          Lists.transform(attributes, a -> ResourceFactory.createResource(instanceURIs.get(a)));
+          Lists.transform(attributes, a -> uriCache.resource(instanceURIs.get(a)));
       if (allowedValues.isEmpty())
-        LOGGER.warn("No possible values defined for enumeration \"{}\".", element.getPath());
+        diagnostics.report(DiagnosticCode.NO_ENUMERATION_VALUES, element, element);
     }
 
-    List<Resource> parentClasses = new ArrayList<>();
-    List<EAElement> parentElements = new ArrayList<>();
+    List<EAElement> parentElements = hierarchy.getParents(element);
+    List<Resource> parentClasses = new ArrayList<>(parentElements.size());
+    for (EAElement parent : parentElements)
+      parentClasses.add(uriCache.resource(elementURIs.get(parent)));
 
-    for (EAConnector connector : element.getConnectors()) {
-      if (!EAConnector.TYPE_GENERALIZATION.equals(connector.getType())) continue;
-
-      if (connector.getDirection() == EAConnector.Direction.SOURCE_TO_DEST) {
-        if (connector.getSource().equals(element)) {
-          parentClasses.add(
-              ResourceFactory.createResource(elementURIs.get(connector.getDestination())));
-          parentElements.add(connector.getDestination());
-        }
-        ;
-      } else if (connector.getDirection() == EAConnector.Direction.DEST_TO_SOURCE) {
-        if (connector.getDestination().equals(element)) {
-          parentClasses.add(ResourceFactory.createResource(elementURIs.get(connector.getSource())));
-          parentElements.add(connector.getSource());
-        }
-        ;
-      } else {
-        LOGGER.error(
-            "Generalization connector \"{}\" does not specify a direction - skipping.",
-            connector.getPath());
-      }
-    }
+    for (EAConnector connector : hierarchy.getUndirectedGeneralizations(element))
+      diagnostics.report(DiagnosticCode.GENERALIZATION_WITHOUT_DIRECTION, connector, connector);
 
+    profiler.count("handleClass");
     outputHandler.handleClass(
         element,
         classEntity,
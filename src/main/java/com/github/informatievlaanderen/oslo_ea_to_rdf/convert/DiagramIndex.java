@@ -0,0 +1,82 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
+
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.DiagramConnector;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.DiagramElement;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAConnector;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EADiagram;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAElement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lookups from model objects to their representation on a diagram, built once per diagram. Use
+ * {@link TagHelper#getDiagramIndex(EADiagram)} to share the index between the converter and the
+ * output handlers.
+ *
+ * <p>When an object is shown more than once, the first occurrence in the order of {@link
+ * EADiagram#getElements()} is used.
+ */
+public class DiagramIndex {
+  private final TagHelper tagHelper;
+  private final Map<EAElement, DiagramElement> elements = new HashMap<>();
+  private final Set<DiagramConnector> connectors = new HashSet<>();
+  /** The same connectors, in the order they are shown. */
+  private final List<DiagramConnector> orderedConnectors = new ArrayList<>();
+  private final Map<EAConnector, DiagramConnector> connectorsByReference = new HashMap<>();
+  /** Built on first use, as deriving the connectors reads their tags. */
+  private Map<EAConnector, DiagramConnector> connectorsByDerived;
+
+  public DiagramIndex(EADiagram diagram, TagHelper tagHelper) {
+    this.tagHelper = tagHelper;
+    for (DiagramElement diagramElement : diagram.getElements()) {
+      elements.putIfAbsent(diagramElement.getReferencedElement(), diagramElement);
+      for (DiagramConnector dConnector : diagramElement.getConnectors()) {
+        if (connectors.add(dConnector)) orderedConnectors.add(dConnector);
+        connectorsByReference.putIfAbsent(dConnector.getReferencedConnector(), dConnector);
+      }
+    }
+  }
+
+  /** @return {@code null} if the element is not shown on the diagram */
+  public DiagramElement getDiagramElement(EAElement element) {
+    return elements.get(element);
+  }
+
+  /**
+   * Finds the diagram connector for a connector, or for one of the connectors derived from it by
+   * {@link Util#extractAssociationElement} or {@link Util#extractAssociationElement2} using the
+   * label direction on the diagram.
+   *
+   * @return {@code null} if the connector is not shown on the diagram
+   */
+  public DiagramConnector getDiagramConnector(EAConnector connector) {
+    DiagramConnector dConnector = connectorsByReference.get(connector);
+    if (dConnector != null) return dConnector;
+
+    if (connectorsByDerived == null) {
+      connectorsByDerived = new HashMap<>();
+      for (DiagramConnector candidate : orderedConnectors) {
+        EAConnector reference = candidate.getReferencedConnector();
+        EAConnector.Direction direction = candidate.getLabelDirection();
+        for (EAConnector derived : Util.extractAssociationElement(reference, direction))
+          connectorsByDerived.putIfAbsent(derived, candidate);
+        for (EAConnector derived : Util.extractAssociationElement2(reference, direction, tagHelper))
+          connectorsByDerived.putIfAbsent(derived, candidate);
+      }
+    }
+    return connectorsByDerived.get(connector);
+  }
+
+  /**
+   * All connectors shown on the diagram, without duplicates. The iteration order is that of a
+   * {@link HashSet}, as the converter has always used.
+   */
+  public Set<DiagramConnector> getConnectors() {
+    return Collections.unmodifiableSet(connectors);
+  }
+}
@@ -8,8 +8,8 @@ import java.util.List;
 public class ClassDescription implements Comparable<ClassDescription> {
   private String uri;
   private String type;
-  private String scopetags;
-  private String extra;
+  private JsonFields scopetags;
+  private JsonFields extra;
   private PackageExported inpackage;
   private List<LanguageStringDescription> name;
   private List<LanguageStringDescription> description;
@@ -70,19 +70,19 @@ public class ClassDescription implements Comparable<ClassDescription> {
     this.usage = usage;
   }
 
-  public String getExtra() {
+  public JsonFields getExtra() {
     return extra;
   }
 
-  public void setExtra(String extra) {
+  public void setExtra(JsonFields extra) {
     this.extra = extra;
   }
 
-  public String getScopetags() {
+  public JsonFields getScopetags() {
     return scopetags;
   }
 
-  public void setScopetags(String scopetags) {
+  public void setScopetags(JsonFields scopetags) {
     this.scopetags = scopetags;
   }
 
@@ -0,0 +1,199 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert.JSONLDOntology;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The contributors (stakeholders) CSV, parsed once so that it can be shared by all themas that are
+ * converted. The CSV is separated by semicolons: the first five columns describe the contributor,
+ * every further column is named after a thema, and holds the role of the contributor in that thema:
+ * A (author), E (editor) or C (contributor).
+ *
+ * <p>Registries are cached per file for as long as the file is not modified. A CSV that is
+ * downloaded is kept in a cache directory, and is only downloaded again once it is older than the
+ * requested age. Concurrent requests for the same URL download it once. A download that cannot
+ * connect or stalls fails after a few seconds, and an outdated copy is used instead.
+ */
+public class ContributorsRegistry {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ContributorsRegistry.class);
+  private static final Map<Path, ContributorsRegistry> CACHE = new ConcurrentHashMap<>();
+  /** A lock per downloaded file, held while checking its age and downloading it. */
+  private static final Map<Path, Object> DOWNLOAD_LOCKS = new ConcurrentHashMap<>();
+  private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+  private static final int READ_TIMEOUT_MILLIS = 10000;
+
+  private final BasicFileAttributes source;
+  private final List<CSVRecord> rows;
+  /** The index of the column with a given lower case name. */
+  private final Map<String, Integer> columnIndex = new HashMap<>();
+  private final Map<Integer, Column> columns = new ConcurrentHashMap<>();
+
+  private ContributorsRegistry(Path file) throws IOException {
+    this.source = Files.readAttributes(file, BasicFileAttributes.class);
+    try (Reader reader = Files.newBufferedReader(file, Charsets.UTF_8);
+        CSVParser parser = new CSVParser(reader, CSVFormat.newFormat(';'))) {
+      List<CSVRecord> records = parser.getRecords();
+      if (records.isEmpty()) {
+        rows = Collections.emptyList();
+        return;
+      }
+      CSVRecord header = records.get(0);
+      // The last column wins if names are repeated.
+      for (int i = 0; i < header.size(); i++)
+        columnIndex.put(header.get(i).toLowerCase(Locale.ROOT), i);
+      rows = records.subList(1, records.size());
+    }
+  }
+
+  /**
+   * The registry for a local CSV file, parsed only if it was not parsed before or has changed
+   * since.
+   */
+  public static ContributorsRegistry forFile(Path file) throws IOException {
+    Path key = file.toAbsolutePath().normalize();
+    BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+    ContributorsRegistry registry = CACHE.get(key);
+    if (registry == null || !registry.isFresh(attributes)) {
+      registry = new ContributorsRegistry(key);
+      CACHE.put(key, registry);
+    }
+    return registry;
+  }
+
+  /**
+   * The registry for a CSV published at an URL. The CSV is only downloaded if the cached copy is
+   * missing or older than the maximum age. If it cannot be downloaded, an outdated copy is used.
+   *
+   * @param cacheDirectory the directory to keep the downloaded CSV in
+   * @param maxAgeHours the age after which the cached copy is downloaded again, if negative the
+   *     cached copy is used however old it is, and the CSV is only downloaded if there is none
+   * @throws IOException if the CSV could not be downloaded, and there is no cached copy
+   */
+  public static ContributorsRegistry forUrl(URL url, Path cacheDirectory, long maxAgeHours)
+      throws IOException {
+    Path file =
+        cacheDirectory
+            .resolve(Hashing.sha256().hashString(url.toString(), Charsets.UTF_8) + ".csv")
+            .toAbsolutePath()
+            .normalize();
+    synchronized (DOWNLOAD_LOCKS.computeIfAbsent(file, f -> new Object())) {
+      boolean cached = Files.exists(file);
+      long age =
+          cached ? System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis() : 0;
+      if (!cached || (maxAgeHours >= 0 && age > TimeUnit.HOURS.toMillis(maxAgeHours))) {
+        try {
+          download(url, file);
+        } catch (IOException e) {
+          if (!cached) throw e;
+          LOGGER.warn(
+              "Could not download {}, using the copy of {} hours ago.", url, age / 3600000);
+        }
+      }
+      return forFile(file);
+    }
+  }
+
+  /** The roles of the contributors in a column, or {@code null} if there is no such column. */
+  public Column getColumn(String name) {
+    Integer index = columnIndex.get(name.toLowerCase(Locale.ROOT));
+    // The first column describes the contributor, and is never a thema.
+    if (index == null || index == 0) return null;
+    return columns.computeIfAbsent(index, Column::new);
+  }
+
+  private boolean isFresh(BasicFileAttributes attributes) {
+    return attributes.lastModifiedTime().equals(source.lastModifiedTime())
+        && attributes.size() == source.size();
+  }
+
+  private static void download(URL url, Path file) throws IOException {
+    Path directory = Files.createDirectories(file.getParent());
+    // Unique, so that another process downloading to the same cache cannot interfere.
+    Path temp = Files.createTempFile(directory, "." + file.getFileName(), ".tmp");
+    URLConnection connection = url.openConnection();
+    connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+    connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+    try (InputStream in = connection.getInputStream()) {
+      Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+      try {
+        Files.move(
+            temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /** The contributors of one thema, by role, each sorted. */
+  public class Column {
+    private final List<ContributorDescription> authors = new ArrayList<>();
+    private final List<ContributorDescription> editors = new ArrayList<>();
+    private final List<ContributorDescription> contributors = new ArrayList<>();
+    /** First name, last name and code of the rows with an unknown code. */
+    private final List<String[]> unknownCodes = new ArrayList<>();
+
+    private Column(int index) {
+      for (CSVRecord row : rows) {
+        String code = get(row, index);
+        if (code.trim().isEmpty()) continue;
+        ContributorDescription cd =
+            new ContributorDescription(
+                get(row, 0), get(row, 1), get(row, 2), get(row, 3), get(row, 4));
+        if (code.equals("A")) authors.add(cd);
+        else if (code.equals("E")) editors.add(cd);
+        else if (code.equals("C")) contributors.add(cd);
+        else unknownCodes.add(new String[] {get(row, 0), get(row, 1), code});
+      }
+      Collections.sort(authors);
+      Collections.sort(editors);
+      Collections.sort(contributors);
+    }
+
+    public List<ContributorDescription> getAuthors() {
+      return Collections.unmodifiableList(authors);
+    }
+
+    public List<ContributorDescription> getEditors() {
+      return Collections.unmodifiableList(editors);
+    }
+
+    public List<ContributorDescription> getContributors() {
+      return Collections.unmodifiableList(contributors);
+    }
+
+    /** First name, last name and code of every row with a code other than A, E or C. */
+    public List<String[]> getUnknownCodes() {
+      return ImmutableList.copyOf(unknownCodes);
+    }
+
+    private String get(CSVRecord row, int index) {
+      return index < row.size() ? row.get(index) : "";
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert.JSONLDOntology;
+
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The members of a JSON object, kept in insertion order until the ontology is written. Unlike a
+ * map, a name may occur more than once (the output has always allowed this for tags).
+ *
+ * <p>Values can be strings, other {@link JsonWritable}s, iterables of those or {@code null}.
+ */
+public class JsonFields implements JsonWritable {
+  private final List<String> names;
+  private final List<Object> values;
+
+  public JsonFields() {
+    this(4);
+  }
+
+  public JsonFields(int expectedSize) {
+    names = new ArrayList<>(expectedSize);
+    values = new ArrayList<>(expectedSize);
+  }
+
+  public JsonFields add(String name, Object value) {
+    names.add(name);
+    values.add(value);
+    return this;
+  }
+
+  /** Adds all members of the other object, after the existing ones. */
+  public JsonFields addAll(JsonFields other) {
+    names.addAll(other.names);
+    values.addAll(other.values);
+    return this;
+  }
+
+  /**
+   * Gets the value of the first member with the given name.
+   *
+   * @return {@code null} if there is no such member
+   */
+  public Object get(String name) {
+    int index = names.indexOf(name);
+    return index < 0 ? null : values.get(index);
+  }
+
+  public boolean isEmpty() {
+    return names.isEmpty();
+  }
+
+  /** Writes the members into the object that is currently open in the writer. */
+  public void writeMembers(JsonWriter out) throws IOException {
+    for (int i = 0; i < names.size(); i++) {
+      out.name(names.get(i));
+      write(out, values.get(i));
+    }
+  }
+
+  @Override
+  public void writeJson(JsonWriter out) throws IOException {
+    out.beginObject();
+    writeMembers(out);
+    out.endObject();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    for (int i = 0; i < names.size(); i++) {
+      if (i > 0) sb.append(", ");
+      sb.append(names.get(i)).append('=').append(values.get(i));
+    }
+    return sb.append('}').toString();
+  }
+
+  /** Writes a single value, see the class description for the supported types. */
+  public static void write(JsonWriter out, Object value) throws IOException {
+    if (value == null) {
+      out.nullValue();
+    } else if (value instanceof JsonWritable) {
+      ((JsonWritable) value).writeJson(out);
+    } else if (value instanceof Iterable) {
+      out.beginArray();
+      for (Object element : (Iterable<?>) value) write(out, element);
+      out.endArray();
+    } else {
+      out.value(value.toString());
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert.JSONLDOntology;
+
+import com.google.gson.stream.JsonWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The elements of a JSON array, written one at a time to a temporary file, without the enclosing
+ * brackets. Once complete, the segment is copied into the final document with {@link
+ * FileChannel#transferTo}, so its content is never read back into memory.
+ */
+public class JsonSegment implements Closeable {
+  private final Path file;
+  private final Writer out;
+  private final JsonWriter json;
+  private int size;
+
+  /** @param file the temporary file to write to, it is deleted when the segment is closed */
+  public JsonSegment(Path file) throws IOException {
+    this.file = file;
+    this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    this.json = new JsonWriter(out);
+    // Lenient, so that the elements can be written as consecutive top level values.
+    json.setLenient(true);
+    json.setIndent("  ");
+  }
+
+  /**
+   * Starts a new element of the array.
+   *
+   * @return the writer to write exactly one value to
+   */
+  public JsonWriter nextElement() throws IOException {
+    if (size++ > 0) out.write(",\n");
+    return json;
+  }
+
+  /** The number of elements started so far. */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Copies the elements written so far to the target channel.
+   *
+   * @param target the channel to write to, it is not closed
+   */
+  public void transferTo(WritableByteChannel target) throws IOException {
+    json.flush();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long position = 0;
+      long length = channel.size();
+      while (position < length)
+        position += channel.transferTo(position, length - position, target);
+    }
+  }
+
+  /** Closes and deletes the temporary file. */
+  @Override
+  public void close() throws IOException {
+    try {
+      // Not the JsonWriter, as it refuses to close an empty document.
+      out.close();
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert.JSONLDOntology;
+
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
+/**
+ * A value in the JSON-LD output that serializes itself directly to the output stream.
+ */
+public interface JsonWritable {
+  void writeJson(JsonWriter out) throws IOException;
+}
@@ -10,8 +10,8 @@ public class OntologyDescription {
   private String uri;
   private String type;
   private String label;
-  private String scopetags;
-  private String extra;
+  private JsonFields scopetags;
+  private JsonFields extra;
   private List<ClassDescription> classes;
   private List<PropertyDescription> properties;
   private List<DatatypeDescription> datatypes;
@@ -130,19 +130,19 @@ public class OntologyDescription {
     this.externalProperties = properties;
   }
 
-  public String getExtra() {
+  public JsonFields getExtra() {
     return extra;
   }
 
-  public void setExtra(String extra) {
+  public void setExtra(JsonFields extra) {
     this.extra = extra;
   }
 
-  public String getScopetags() {
+  public JsonFields getScopetags() {
     return scopetags;
   }
 
-  public void setScopetags(String scopetags) {
+  public void setScopetags(JsonFields scopetags) {
     this.scopetags = scopetags;
   }
 }
@@ -1,6 +1,7 @@
 package com.github.informatievlaanderen.oslo_ea_to_rdf.convert.JSONLDOntology;
 
 import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.PackageExported;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.RangeData;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,14 +9,14 @@ import java.util.List;
 public class PropertyDescription implements Comparable<PropertyDescription> {
   private String uri;
   private String type;
-  private String scopetags;
-  private String extra;
+  private JsonFields scopetags;
+  private JsonFields extra;
   private PackageExported inpackage;
   private List<LanguageStringDescription> name;
   private List<LanguageStringDescription> description;
   private List<LanguageStringDescription> usage;
-  private List<String> domain;
-  private List<String> range;
+  private List<JsonFields> domain;
+  private List<RangeData> range;
   private List<String> generalization;
   private List<String> codelist;
   private String minCount;
@@ -79,11 +80,11 @@ public class PropertyDescription implements Comparable<PropertyDescription> {
     this.usage = usage;
   }
 
-  public List<String> getDomain() {
+  public List<JsonFields> getDomain() {
     return domain;
   }
 
-  public void setDomain(List<String> domain) {
+  public void setDomain(List<JsonFields> domain) {
     this.domain = domain;
   }
 
@@ -119,27 +120,27 @@ public class PropertyDescription implements Comparable<PropertyDescription> {
     this.maxCount = maxCount;
   }
 
-  public List<String> getRange() {
+  public List<RangeData> getRange() {
     return range;
   }
 
-  public void setRange(List<String> range) {
+  public void setRange(List<RangeData> range) {
     this.range = range;
   }
 
-  public String getExtra() {
+  public JsonFields getExtra() {
     return extra;
   }
 
-  public void setExtra(String extra) {
+  public void setExtra(JsonFields extra) {
     this.extra = extra;
   }
 
-  public String getScopetags() {
+  public JsonFields getScopetags() {
     return scopetags;
   }
 
-  public void setScopetags(String scopetags) {
+  public void setScopetags(JsonFields scopetags) {
     this.scopetags = scopetags;
   }
 
@@ -0,0 +1,34 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert.JSONLDOntology;
+
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EATag;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The tags of an EA object as they are, written as a list of key, value and note objects. The tags
+ * are only referenced, not copied.
+ */
+public class RawTags implements JsonWritable {
+  private final List<EATag> tags;
+
+  /** @param tags the tags, {@code null} is treated as an empty list */
+  public RawTags(List<EATag> tags) {
+    this.tags = tags == null ? Collections.emptyList() : tags;
+  }
+
+  @Override
+  public void writeJson(JsonWriter out) throws IOException {
+    out.beginArray();
+    for (EATag tag : tags) {
+      // Missing values have always been written as the text "null".
+      out.beginObject();
+      out.name("key").value(String.valueOf(tag.getKey()));
+      out.name("value").value(String.valueOf(tag.getValue()));
+      out.name("note").value(String.valueOf(tag.getNotes()));
+      out.endObject();
+    }
+    out.endArray();
+  }
+}
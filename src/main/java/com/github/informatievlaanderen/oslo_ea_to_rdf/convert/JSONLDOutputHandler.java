@@ -1,28 +1,31 @@
 package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
 
+import com.github.informatievlaanderen.oslo_ea_to_rdf.Compression;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.JSONLDOntology.*;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics.DiagnosticCode;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics.Diagnostics;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.*;
 import com.google.common.base.Joiner;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.Lists;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import com.google.gson.stream.JsonWriter;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.text.CaseUtils;
 import org.apache.jena.rdf.model.Resource;
-import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.vocabulary.OWL;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Class that aggregates the conversion results in JSONLD file that follows the context as it was
@@ -41,16 +44,25 @@ import java.util.stream.Collectors;
  * Tag resultion is not anymore dependent on the scope: we use only ontologymappings and internalmappings
  * distinction between vocabulary & applicationprofile/objectcatalog is controlled by the selected configuration
  */
-public class JSONLDOutputHandler implements OutputHandler {
+public class JSONLDOutputHandler implements OutputHandler, Closeable {
     private static final Joiner JOINER = Joiner.on(", ");
     private String contributorsList;
     private String ontologyName;
     private BufferedWriter writer;
     private TagHelper tagHelper;
+    private Diagnostics diagnostics;
     private EADiagram diagram;
+    private DiagramIndex diagramIndex;
+    private ClassHierarchy hierarchy;
     private List<String> tagNames;
     private OntologyDescription ontologyDescription = new OntologyDescription();
     private JSONLDConversionReport conversionReport = new JSONLDConversionReport();
+    /* only used in incremental mode */
+    private Path segmentDirectory;
+    private JsonSegment classSegment;
+    private JsonSegment propertySegment;
+    private JsonSegment externalClassSegment;
+    private JsonSegment externalPropertySegment;
 
     private final Logger LOGGER = LoggerFactory.getLogger(JSONLDOutputHandler.class);
 
@@ -65,105 +77,106 @@ public class JSONLDOutputHandler implements OutputHandler {
         this.ontologyName = ontologyName;
         this.writer = writer;
         this.tagHelper = tagHelper;
+        this.diagnostics = tagHelper.getDiagnostics().forSource(JSONLDOutputHandler.class);
         this.diagram = diagram;
+        this.hierarchy = ClassHierarchy.of(diagram, tagHelper);
+        this.diagramIndex = tagHelper.getDiagramIndex(diagram);
         this.tagNames = tagHelper.getTagNames(tagHelper.getContentMappings(Scope.FULL_DEFINITON));
     }
 
-    public void handleContributors(URL url) {
+    /**
+     * Creates a handler in incremental mode: every class and property is written to a temporary
+     * segment file as soon as it is handled, instead of being kept in memory. {@link
+     * #writeToFile(Path)} writes the header and contributors, and splices the segments behind
+     * them. The terms are written in the order they are handled, not sorted on their URI.
+     *
+     * <p>The handler must be closed, also if the conversion fails, to delete the segment files.
+     */
+    public JSONLDOutputHandler(
+            String ontologyName, String contributorsList, TagHelper tagHelper, EADiagram diagram)
+            throws IOException {
+        this(ontologyName, contributorsList, null, tagHelper, diagram);
+        this.segmentDirectory = Files.createTempDirectory("ea-to-rdf");
         try {
-            BufferedReader in = new BufferedReader(new InputStreamReader(url.openStream()));
-            this.handleContributors(in);
+            this.classSegment = new JsonSegment(segmentDirectory.resolve("classes"));
+            this.propertySegment = new JsonSegment(segmentDirectory.resolve("properties"));
+            this.externalClassSegment = new JsonSegment(segmentDirectory.resolve("externals"));
+            this.externalPropertySegment =
+                    new JsonSegment(segmentDirectory.resolve("externalproperties"));
         } catch (IOException e) {
-            e.printStackTrace();
+            closeSegments();
+            throw e;
         }
     }
 
-    public void handleContributors(File file) {
-        try (Reader r = Files.newBufferedReader(file.toPath())) {
-            handleContributors(new BufferedReader(r));
-        } catch (IOException e) {
-            e.printStackTrace();
+    /**
+     * Adds the authors, editors and contributors of the column of this ontology to the output.
+     *
+     * @param registry the parsed contributors CSV, or {@code null} if none is available
+     */
+    public void handleContributors(ContributorsRegistry registry) {
+        ContributorsRegistry.Column column =
+                registry == null ? null : registry.getColumn(this.contributorsList);
+        if (column == null) {
+            diagnostics.report(
+                    DiagnosticCode.CONTRIBUTORS_COLUMN_NOT_FOUND, null, this.contributorsList);
+            return;
         }
-    }
-
-    private void handleContributors(BufferedReader reader) {
-        try {
-            CSVParser csvParser = new CSVParser(reader, CSVFormat.newFormat(';'));
-
-            // This list contains all records in the contributors CSV
-            // the first line contains just the headers.
-            List<CSVRecord> csvRecords = csvParser.getRecords();
-
-            // now we will get the column that corresponds to this ontology
-            CSVRecord header = csvRecords.get(0);
-            int ontologyField = 0;
-            for (int i = 0; i < header.size(); ++i) {
-                if (header.get(i).toLowerCase().equals(this.contributorsList.toLowerCase())) {
-                    ontologyField = i;
-                }
-            }
-            if (ontologyField == 0) {
-                // the ontology name was not found in the header
-
-                //                this.conversionReport.addRemark("[!] Error: The header with name: " +
-                // this.contributorsList + " was not found in the contributors.csv file");
-                LOGGER.error(
-                        "The header with name: {} was not found in the contributors.csv file",
-                        this.contributorsList);
-                return;
-            }
-            for (int i = 1; i < csvRecords.size(); ++i) {
-                CSVRecord contributor = csvRecords.get(i);
-                if (contributor.get(ontologyField) != "") {
-                    // ok they contributed to our ontology
-                    ContributorDescription cd =
-                            new ContributorDescription(
-                                    contributor.get(0),
-                                    contributor.get(1),
-                                    contributor.get(2),
-                                    contributor.get(3),
-                                    contributor.get(4));
-                    if (contributor.get((ontologyField)).equals("A")) {
-                        this.ontologyDescription.getAuthors().add(cd);
-                    } else if (contributor.get((ontologyField)).equals("E")) {
-                        LOGGER.debug("Add Editor {}", contributor.get(0));
-                        this.ontologyDescription.getEditors().add(cd);
-                    } else if (contributor.get((ontologyField)).equals("C")) {
-                        this.ontologyDescription.getContributors().add(cd);
-                    } else if (!contributor.get(ontologyField).trim().isEmpty()) {
-                        LOGGER.warn(
-                                "The contributor with name: {}  {}'s code was not recognized. Code found was: {} ",
-                                contributor.get(0),
-                                contributor.get(1),
-                                contributor.get(ontologyField));
-                        //                        this.conversionReport.addRemark("[ ] Warning: The contributor
-                        // with name: " + contributor.get(0) + " " + contributor.get(1) + "'s code was not
-                        // recognized. Code found was: " + contributor.get(ontologyField));
-                    }
-                }
-            }
-            List<ContributorDescription> sorteda = this.ontologyDescription.getAuthors();
-            Collections.sort(sorteda);
-            this.ontologyDescription.setAuthors(sorteda);
-            List<ContributorDescription> sortede = this.ontologyDescription.getEditors();
-            Collections.sort(sortede);
-            this.ontologyDescription.setEditors(sortede);
-            List<ContributorDescription> sortedc = this.ontologyDescription.getContributors();
-            Collections.sort(sortedc);
-            this.ontologyDescription.setContributors(sortedc);
-
-        } catch (IOException e) {
-            e.printStackTrace();
+        for (String[] unknown : column.getUnknownCodes()) {
+            diagnostics.report(
+                    DiagnosticCode.UNKNOWN_CONTRIBUTOR_CODE,
+                    null,
+                    unknown[0],
+                    unknown[1],
+                    unknown[2]);
         }
+        this.ontologyDescription.getAuthors().addAll(column.getAuthors());
+        Collections.sort(this.ontologyDescription.getAuthors());
+        this.ontologyDescription.getEditors().addAll(column.getEditors());
+        Collections.sort(this.ontologyDescription.getEditors());
+        this.ontologyDescription.getContributors().addAll(column.getContributors());
+        Collections.sort(this.ontologyDescription.getContributors());
     }
 
     /**
      * Writes the internal model to the specified turtle file.
      *
+     * <p>Except in incremental mode, the output is written to the writer passed to the
+     * constructor. In incremental mode, the file is gzipped if its name ends in {@code .gz}.
+     *
      * @param outputFile the desired output turtle file
      * @throws IOException if an exception occurred while writing the file
      */
     public void writeToFile(Path outputFile) throws IOException {
+        writeToFile(outputFile, Compression.forFile(outputFile));
+    }
+
+    /**
+     * Writes the internal model to the specified turtle file.
+     *
+     * <p>Except in incremental mode, the output is written to the writer passed to the
+     * constructor, and the compression is up to the caller.
+     *
+     * @param outputFile the desired output turtle file
+     * @param compression the compression to apply to the file in incremental mode
+     * @throws IOException if an exception occurred while writing the file
+     */
+    public void writeToFile(Path outputFile, Compression compression) throws IOException {
+        if (segmentDirectory != null) {
+            this.spliceOntology(outputFile, compression);
+        } else {
+            this.writeOntology();
+        }
+    }
+
+    /**
+     * Writes the ontology to the writer passed to the constructor, not in incremental mode.
+     *
+     * @throws IOException if an exception occurred while writing
+     */
+    public void write() throws IOException {
+        if (segmentDirectory != null)
+            throw new IllegalStateException("The terms are written to files in incremental mode.");
         this.writeOntology();
     }
 
@@ -186,25 +199,11 @@ public class JSONLDOutputHandler implements OutputHandler {
     }
 
     private DiagramElement findInDiagram(EAElement element) {
-        for (DiagramElement diagramElement : diagram.getElements()) {
-            if (diagramElement.getReferencedElement().equals(element)) return diagramElement;
-        }
-        return null;
+        return diagramIndex.getDiagramElement(element);
     }
 
     private DiagramConnector findInDiagram(EAConnector connector) {
-        for (DiagramElement element : diagram.getElements()) {
-            for (DiagramConnector rawConnector : element.getConnectors()) {
-                for (EAConnector conn :
-                        Util.extractAssociationElement2(
-                                rawConnector.getReferencedConnector(),
-                                rawConnector.getLabelDirection(),
-                                this.tagHelper)) {
-                    if (connector.equals(conn)) return rawConnector;
-                }
-            }
-        }
-        return null;
+        return diagramIndex.getDiagramConnector(connector);
     }
 
     private List<String> extractTagValues(List<TagData> tagData) {
@@ -242,13 +241,11 @@ public class JSONLDOutputHandler implements OutputHandler {
                                                 : t.getValue().asResource().getURI())
                         .orElse("");
 
-        return StringEscapeUtils.escapeJson(s);
+        return s;
     }
 
-    /* filter the extracted names w.r.t. the default list of tagnames in the configuration as this.tagNames */
-    private List<String> extractTagsJsonFilterDefault(List<TagData> tagData) {
-        List<String> result = new ArrayList<>();
-
+    /* add the values for the default list of tagnames in the configuration as this.tagNames */
+    private void addTagValues(JsonFields fields, List<TagData> tagData) {
         for (String tagName : tagNames) {
             String s =
                     tagData.stream()
@@ -260,112 +257,17 @@ public class JSONLDOutputHandler implements OutputHandler {
                                                     ? t.getValue().asLiteral().getString()
                                                     : t.getValue().asResource().getURI())
                             .orElse("");
-            result.add("\"" + tagName + "\" : \"" + StringEscapeUtils.escapeJson(s) + "\"");
+            fields.add(tagName, s);
         }
-        return result;
-    }
-
-    /* filter the extracted names w.r.t. the provided list of tagnames */
-    private List<String> extractTagsJsonFilter(List<TagData> tagData, List<String> tagnames) {
-        List<String> result = new ArrayList<>();
-
-        for (String tagName : tagnames) {
-            String s =
-                    tagData.stream()
-                            .filter(t -> tagName.equals(t.getOriginTag()))
-                            .findFirst()
-                            .map(
-                                    t ->
-                                            t.getValue().isLiteral()
-                                                    ? t.getValue().asLiteral().getString()
-                                                    : t.getValue().asResource().getURI())
-                            .orElse("");
-            result.add("\"" + tagName + "\" : \"" + StringEscapeUtils.escapeJson(s) + "\"");
-        }
-        return result;
     }
 
     /* no filtering on additional tagnams */
-    private List<String> extractTagsJson(List<TagData> tagData) {
-        List<String> result = new ArrayList<>();
-
+    private void addOriginTagValues(JsonFields fields, List<TagData> tagData) {
         for (TagData td : tagData) {
-            result.add(
-                    "\""
-                            + td.getOriginTag()
-                            + "\" : \""
-                            + StringEscapeUtils.escapeJson(td.getOriginValue())
-                            + "\"");
-        }
-        return result;
-    }
-
-    private String extractRawTags(EAObject eaobj) {
-        String rawTags = "";
-        List<String> allRawTags = new ArrayList<>();
-        for (EATag t : eaobj.getTags()) {
-            allRawTags.add(
-                    "{ \"key\": \""
-                            + StringEscapeUtils.escapeJson(t.getKey())
-                            + "\", \"value\": \""
-                            + StringEscapeUtils.escapeJson(t.getValue())
-                            + "\", \"note\": \""
-                            + StringEscapeUtils.escapeJson(t.getNotes())
-                            + "\" }");
-        }
-        ;
-        rawTags = JOINER.join(allRawTags);
-
-        return rawTags;
-    }
-
-    ;
-
-    private String extractSourceRoleTags(EAConnector eaobj) {
-        String rawTags = "";
-        List<String> allRawTags = new ArrayList<>();
-        for (EATag t : eaobj.getSourceRoleTags()) {
-            allRawTags.add(
-                    "{ \"key\": \""
-                            + StringEscapeUtils.escapeJson(t.getKey())
-                            + "\", \"value\": \""
-                            + StringEscapeUtils.escapeJson(t.getValue())
-                            + "\", \"note\": \""
-                            + StringEscapeUtils.escapeJson(t.getNotes())
-                            + "\" }");
-        }
-        ;
-        rawTags = JOINER.join(allRawTags);
-
-        return rawTags;
-    }
-
-    ;
-
-    private String extractDestRoleTags(EAConnector eaobj) {
-        String rawTags = "";
-        List<String> allRawTags = new ArrayList<>();
-        if (eaobj.getDestRoleTags() != null) {
-            for (EATag t : eaobj.getDestRoleTags()) {
-                allRawTags.add(
-                        "{ \"key\": \""
-                                + StringEscapeUtils.escapeJson(t.getKey())
-                                + "\", \"value\": \""
-                                + StringEscapeUtils.escapeJson(t.getValue())
-                                + "\", \"note\": \""
-                                + StringEscapeUtils.escapeJson(t.getNotes())
-                                + "\" }");
-            }
-            ;
-            rawTags = JOINER.join(allRawTags);
+            fields.add(td.getOriginTag(), String.valueOf(td.getOriginValue()));
         }
-        ;
-
-        return rawTags;
     }
 
-    ;
-
     private String extractVocabulary(String URI) {
         if (URI.lastIndexOf("#") > -1) {
             return URI.substring(0, URI.lastIndexOf("#"));
@@ -384,14 +286,16 @@ public class JSONLDOutputHandler implements OutputHandler {
             if (!propertyDescription.getType().contains(ontologyURINoHttps)) {
                 vocabularies.add(extractVocabulary(propertyDescription.getType()));
             }
-            for (String domain : propertyDescription.getDomain()) {
-                if (!domain.contains(ontologyURINoHttps)) {
-                    vocabularies.add(extractVocabulary(domain));
+            for (JsonFields domain : propertyDescription.getDomain()) {
+                String domainURI = String.valueOf(domain.get("uri"));
+                if (!domainURI.contains(ontologyURINoHttps)) {
+                    vocabularies.add(extractVocabulary(domainURI));
                 }
             }
-            for (String range : propertyDescription.getRange()) {
-                if (!range.contains(ontologyURINoHttps)) {
-                    vocabularies.add(extractVocabulary(range));
+            for (RangeData range : propertyDescription.getRange()) {
+                String rangeURI = String.valueOf(range.getUri());
+                if (!rangeURI.contains(ontologyURINoHttps)) {
+                    vocabularies.add(extractVocabulary(rangeURI));
                 }
             }
         }
@@ -403,6 +307,11 @@ public class JSONLDOutputHandler implements OutputHandler {
         this.ontologyDescription.getExternals().addAll(vocabularies);
     }
 
+    @Override
+    public void handleURIs(UriAssigner.Result uris) {
+        // Terms are handled together with their URI.
+    }
+
     @Override
     public void handleOntology(
             EAPackage sourcePackage, Resource ontology, String prefix, String baseURI) {
@@ -414,34 +323,16 @@ public class JSONLDOutputHandler implements OutputHandler {
         List<TagData> oTagData =
                 tagHelper.getTagDataFor(sourcePackage, tagHelper.getOntologyMappings());
         LOGGER.debug("oTags \"{}\".", oTagData);
-        List<String> tagJsons = extractTagsJson(oTagData);
 
-        LOGGER.debug("Tags \"{}\".", tagJsons);
-
-        String tags = "";
-        if (!tagJsons.isEmpty()) {
-            tags = ", ";
-        }
-        tags = tags + JOINER.join(tagJsons);
-
-        String extra =
-                "{\"EA-Name\" : \""
-                        + sourcePackage.getName()
-                        + "\", \"EA-Guid\" : \""
-                        + sourcePackage.getGuid()
-                        + "\" "
-                        + tags
-                        + ", \"RawTags\" : ["
-                        + extractRawTags(sourcePackage)
-                        + "]"
-                        + "}";
+        JsonFields extra = new JsonFields(oTagData.size() + 3);
+        extra.add("EA-Name", sourcePackage.getName());
+        extra.add("EA-Guid", sourcePackage.getGuid());
+        addOriginTagValues(extra, oTagData);
+        extra.add("RawTags", new RawTags(sourcePackage.getTags()));
         ontologyDescription.setExtra(extra);
 
-        String scopedtags = "";
-        List<String> tagScoped =
-                tagHelper.getTagDataForJson(sourcePackage, tagHelper.getOntologyMappings());
-        scopedtags = JOINER.join(tagScoped);
-        ontologyDescription.setScopetags(scopedtags);
+        ontologyDescription.setScopetags(
+                tagHelper.getTagDataForJson(sourcePackage, tagHelper.getOntologyMappings()));
 
     /*
        EA Details:
@@ -489,7 +380,7 @@ public class JSONLDOutputHandler implements OutputHandler {
        write(JOINER.join(parentClasses));
     */
 
-        LOGGER.info("handle class \"{}\" .", sourceElement.getName());
+        LOGGER.debug("handle class \"{}\" .", sourceElement.getName());
 
         ClassDescription classDescription = new ClassDescription();
         classDescription.setUri(clazz.getURI());
@@ -502,73 +393,46 @@ public class JSONLDOutputHandler implements OutputHandler {
 
         // the following is not yet exposed, should be done
         // for the html regenerator we need also to expose the EA-Name/label of the parent class
-        List<EAElement> parents = findParents(findInDiagram(sourceElement));
+        List<EAElement> parents = hierarchy.getParents(sourceElement);
         String eaparents = JOINER.join(Lists.transform(parents, EAElement::getName));
 
-        List<String> pps = new ArrayList<>();
+        List<JsonFields> eaparents2 = new ArrayList<>(parentElements.size());
         for (EAElement p : parentElements) {
             String pLabel =
                     selectTagValue(
                             tagHelper.getTagDataFor(p, tagHelper.getContentMappings(Scope.FULL_DEFINITON)),
                             "label");
             String pPackage = p.getPackage().getName();
-            Resource pURIres = ResourceFactory.createResource(elementURIs.get(p));
+            Resource pURIres = tagHelper.getUriCache().resource(elementURIs.get(p));
             String pURI = pURIres.getURI();
             // determining the URI is hard
-            pps.add(
-                    "{ \"name\": \""
-                            + p.getName()
-                            + "\", \"label\" : \""
-                            + pLabel
-                            + "\", \"package\" : \""
-                            + pPackage
-                            + "\", \"uri\" : \""
-                            + pURI
-                            + "\" }");
+            eaparents2.add(
+                    new JsonFields()
+                            .add("name", p.getName())
+                            .add("label", pLabel)
+                            .add("package", pPackage)
+                            .add("uri", String.valueOf(pURI)));
         }
-        ;
-        // String eaparents2 = JOINER.join(Lists.transform(parentElements, EAElement::getName));
-        String eaparents2 = JOINER.join(pps);
-
-        String tags = "";
-        String scopedtags = "";
 
-        List<String> tagJsons =
-                extractTagsJsonFilterDefault(
-                        tagHelper.getTagDataFor(
-                                sourceElement, tagHelper.getContentMappings(Scope.FULL_DEFINITON)));
-        tags = JOINER.join(tagJsons);
-        List<String> tagScoped =
+        JsonFields scopedtags =
                 tagHelper.getTagDataForJson(
                         sourceElement, tagHelper.getContentMappings(Scope.FULL_DEFINITON));
-        scopedtags = JOINER.join(tagScoped);
-
-        String extra =
-                "{\"EA-Name\" : \""
-                        + sourceElement.getName()
-                        + "\", \"EA-Guid\" : \""
-                        + sourceElement.getGuid()
-                        + "\", \"EA-Package\" : \""
-                        + sourceElement.getPackage().getName()
-                        + "\", \"EA-Type\" : \""
-                        + sourceElement.getType()
-                        + "\", \"EA-Parents\" : \""
-                        + eaparents
-                        + "\", \"EA-Parents2\" : ["
-                        + eaparents2
-                        + "], \"parentclasses\" : \""
-                        + JOINER.join(parentClasses)
-                        + "\", "
-                        + tags
-                        + ", \"RawTags\" : ["
-                        + extractRawTags(sourceElement)
-                        + "]"
-                        + ", \"Scope\" : \""
-                        + scope.toString()
-                        + "\""
-                        + ", "
-                        + scopedtags
-                        + "}";
+
+        JsonFields extra = new JsonFields(tagNames.size() + 10);
+        extra.add("EA-Name", sourceElement.getName());
+        extra.add("EA-Guid", sourceElement.getGuid());
+        extra.add("EA-Package", sourceElement.getPackage().getName());
+        extra.add("EA-Type", String.valueOf(sourceElement.getType()));
+        extra.add("EA-Parents", eaparents);
+        extra.add("EA-Parents2", eaparents2);
+        extra.add("parentclasses", JOINER.join(parentClasses));
+        addTagValues(
+                extra,
+                tagHelper.getTagDataFor(
+                        sourceElement, tagHelper.getContentMappings(Scope.FULL_DEFINITON)));
+        extra.add("RawTags", new RawTags(sourceElement.getTags()));
+        extra.add("Scope", scope.toString());
+        extra.addAll(scopedtags);
 
         classDescription.setExtra(extra);
         classDescription.setScopetags(scopedtags);
@@ -582,7 +446,7 @@ public class JSONLDOutputHandler implements OutputHandler {
                 tagHelper.getTagDataFor(
                         sourceElement, tagHelper.getContentMappings(Scope.FULL_DEFINITON))) {
             LOGGER.debug(
-                    "process class-tag \"{}\" having value {}.", t.getOriginTag(), t.getValue().toString());
+                    "process class-tag \"{}\" having value {}.", t.getOriginTag(), t.getValue());
             tv = t.getOriginValue();
             String camelCaseName = "";
             switch (t.getOriginTag()) {
@@ -608,10 +472,10 @@ public class JSONLDOutputHandler implements OutputHandler {
         if (scope != Scope.FULL_DEFINITON) {
             // external
             qualitycontrol_classdescription(1, classDescription, sourceElement);
-            this.ontologyDescription.getExternalClasses().add(classDescription);
+            addClass(classDescription, true);
         } else {
             qualitycontrol_classdescription(-1, classDescription, sourceElement);
-            this.ontologyDescription.getClasses().add(classDescription);
+            addClass(classDescription, false);
         }
     }
 
@@ -619,39 +483,27 @@ public class JSONLDOutputHandler implements OutputHandler {
             int severity, ClassDescription classDescription, EAElement sourceElement) {
         if (classDescription.getName().size() < 1
                 && (classDescription.getUri() == null || classDescription.getUri().length() < 1)) {
-            if (severity < 0) {
-                LOGGER.error(
-                        " Class {} without name or URI found, further processing this class will be incoherent",
-                        sourceElement.getName());
-            } else {
-                LOGGER.warn(
-                        " Class {} without name or URI found, further processing this class will be incoherent",
-                        sourceElement.getName());
-            }
+            diagnostics.report(
+                    DiagnosticCode.CLASS_WITHOUT_NAME_OR_URI,
+                    qualitySeverity(severity),
+                    sourceElement,
+                    sourceElement.getName());
         } else if (classDescription.getName().size() < 1) {
-            if (severity < 0) {
-                LOGGER.error(
-                        " Class {} without label, further processing this class will be incoherent",
-                        sourceElement.getName());
-            } else {
-                LOGGER.warn(
-                        " Class {} without label, further processing this class will be incoherent",
-                        sourceElement.getName());
-            }
+            diagnostics.report(
+                    DiagnosticCode.CLASS_WITHOUT_LABEL,
+                    qualitySeverity(severity),
+                    sourceElement,
+                    sourceElement.getName());
         } else {
             for (LanguageStringDescription name : classDescription.getName()) {
                 if (name.getValue() == null
                         || name.getValue().length() < 1
                         || name.getValue().toLowerCase().trim().equals("todo")) {
-                    if (severity < 0) {
-                        LOGGER.error(
-                                " Class {} with empty or dummy label, further processing this class will be incoherent",
-                                sourceElement.getName());
-                    } else {
-                        LOGGER.warn(
-                                " Class {} with empty or dummy label, further processing this class will be incoherent",
-                                sourceElement.getName());
-                    }
+                    diagnostics.report(
+                            DiagnosticCode.CLASS_WITH_DUMMY_LABEL,
+                            qualitySeverity(severity),
+                            sourceElement,
+                            sourceElement.getName());
                 }
             }
         }
@@ -659,6 +511,11 @@ public class JSONLDOutputHandler implements OutputHandler {
 
     ;
 
+    /** Quality problems are errors for terms defined in this ontology, warnings otherwise. */
+    private static DiagnosticCode.Severity qualitySeverity(int severity) {
+        return severity < 0 ? DiagnosticCode.Severity.ERROR : DiagnosticCode.Severity.WARN;
+    }
+
     private String extractURI(EAElement element) {
         for (EAAttribute attribute : element.getAttributes()) {
             for (EATag tag : attribute.getTags()) {
@@ -694,21 +551,11 @@ public class JSONLDOutputHandler implements OutputHandler {
         propertyDescription.setType(propertyType.getURI());
         propertyDescription.setInPackage(packageExported);
 
-        String tags = "";
-        String scopedtags = "";
-
-        List<String> tagJsons =
-                extractTagsJsonFilterDefault(
-                        tagHelper.getTagDataFor(
-                                MoreObjects.firstNonNull(source.attribute, source.connector),
-                                tagHelper.getContentMappings(Scope.FULL_DEFINITON)));
-        tags = JOINER.join(tagJsons);
-        String extra = "";
-        List<String> tagScoped =
+        EAObject sourceObject = MoreObjects.firstNonNull(source.attribute, source.connector);
+        JsonFields scopedtags =
                 tagHelper.getTagDataForJson(
-                        MoreObjects.firstNonNull(source.attribute, source.connector),
-                        tagHelper.getContentMappings(Scope.FULL_DEFINITON));
-        scopedtags = JOINER.join(tagScoped);
+                        sourceObject, tagHelper.getContentMappings(Scope.FULL_DEFINITON));
+        JsonFields extra = new JsonFields(tagNames.size() + 12);
 
         String pdomain = "";
         String pdomainguid = "";
@@ -725,34 +572,14 @@ public class JSONLDOutputHandler implements OutputHandler {
             //        prangePackage = prangeObject.getPackage().getName();
             prangeLabel = "";
             prangePackage = "";
-            extra =
-                    "{\"EA-Name\" : \""
-                            + source.attribute.getName()
-                            + "\", \"EA-Guid\" : \""
-                            + source.attribute.getGuid()
-                            + "\", \"EA-Package\" : \""
-                            + source.attribute.getElement().getPackage().getName()
-                            + "\", \"EA-Type\" : \""
-                            + "attribute"
-                            + "\", \"EA-Domain\" : \""
-                            + pdomain
-                            + "\", \"EA-Domain-Guid\" : \""
-                            + source.attribute.getElement().getGuid()
-                            + "\", \"EA-Range\" : \""
-                            + StringEscapeUtils.escapeJson(prange)
-                            + "\", \"RangeData\" : "
-                            + rangedata.toJson()
-                            + ", "
-                            + tags
-                            + ", \"RawTags\" : ["
-                            + extractRawTags(MoreObjects.firstNonNull(source.attribute, source.connector))
-                            + "]"
-                            + ", \"Scope\" : \""
-                            + scope.toString()
-                            + "\""
-                            + ", "
-                            + scopedtags
-                            + "}";
+            extra.add("EA-Name", source.attribute.getName());
+            extra.add("EA-Guid", source.attribute.getGuid());
+            extra.add("EA-Package", source.attribute.getElement().getPackage().getName());
+            extra.add("EA-Type", "attribute");
+            extra.add("EA-Domain", pdomain);
+            extra.add("EA-Domain-Guid", source.attribute.getElement().getGuid());
+            extra.add("EA-Range", prange);
+            extra.add("RangeData", rangedata);
         } else {
             DiagramConnector dConnector = findInDiagram(source.connector);
             EAConnector.Direction direction = dConnector.getLabelDirection();
@@ -785,40 +612,27 @@ public class JSONLDOutputHandler implements OutputHandler {
             String sRole = source.connector.getSourceRole();
             String dRole = source.connector.getDestRole();
 
-            extra =
-                    "{\"EA-Name\" : \""
-                            + source.connector.getName()
-                            + "\", \"EA-Guid\" : \""
-                            + source.connector.getGuid()
-                            + "\", \"EA-Package\" : \""
-                            + ""
-                            + "\", \"EA-Type\" : \""
-                            + "connector"
-                            + "\", \"EA-Domain\" : \""
-                            + pdomain
-                            + "\", \"EA-Domain-Guid\" : \""
-                            + pdomainguid
-                            + "\", \"EA-Range\" : \""
-                            + prange
-                            + "\", \"RangeData\" : "
-                            + rangedata.toJson()
-                            + ", \"sourceRole\" : \""
-                            + sRole
-                            + "\", \"destRole\" : \""
-                            + dRole
-                            + "\", "
-                            + tags
-                            + ", \"RawTags\" : ["
-                            + extractRawTags(MoreObjects.firstNonNull(source.attribute, source.connector))
-                            + "]"
-                            + ", \"Scope\" : \""
-                            + scope.toString()
-                            + "\""
-                            + ", "
-                            + scopedtags
-                            + "}";
+            extra.add("EA-Name", source.connector.getName());
+            extra.add("EA-Guid", source.connector.getGuid());
+            extra.add("EA-Package", "");
+            extra.add("EA-Type", "connector");
+            extra.add("EA-Domain", pdomain);
+            extra.add("EA-Domain-Guid", pdomainguid);
+            extra.add("EA-Range", prange);
+            extra.add("RangeData", rangedata);
+            extra.add("sourceRole", String.valueOf(sRole));
+            extra.add("destRole", String.valueOf(dRole));
         }
+        addTagValues(
+                extra,
+                tagHelper.getTagDataFor(
+                        sourceObject, tagHelper.getContentMappings(Scope.FULL_DEFINITON)));
+        extra.add("RawTags", new RawTags(sourceObject.getTags()));
+        extra.add("Scope", scope.toString());
+        extra.addAll(scopedtags);
 
+        propertyDescription.setExtra(extra);
+        propertyDescription.setScopetags(scopedtags);
         propertyDescription.setExtra(extra);
         propertyDescription.setScopetags(scopedtags);
 
@@ -834,7 +648,7 @@ public class JSONLDOutputHandler implements OutputHandler {
             LOGGER.debug(
                     "process property-tag \"{}\" having value {}.",
                     t.getOriginTag(),
-                    t.getValue().toString());
+                    t.getValue());
             tv = t.getOriginValue();
             switch (t.getOriginTag()) {
                 case "label":
@@ -865,12 +679,12 @@ public class JSONLDOutputHandler implements OutputHandler {
         // Therefore the label should be part of the domain/range resolvement. => Impact on other
         // processing parts
         if (domain != null) {
-            String propdomain =
-                    "{ \"uri\": \"" + domain.getURI() + "\", \"EA-Name\" : \"" + pdomain + "\" }";
-            propertyDescription.getDomain().add(propdomain);
+            propertyDescription
+                    .getDomain()
+                    .add(new JsonFields(2).add("uri", domain.getURI()).add("EA-Name", pdomain));
         }
         if (range != null) {
-            String proprange = rangedata.toJson();
+            RangeData proprange = rangedata;
       /*
                 "{ \"uri\": \"" + range.getURI()
                  + "\", \"EA-Name\" : \"" + prange
@@ -895,17 +709,15 @@ public class JSONLDOutputHandler implements OutputHandler {
         }
 
         // Quality control
-        String pname = MoreObjects.firstNonNull(source.attribute, source.connector).getName();
-
         // always add property
         // determin to which categorie the class belongs:
         if (scope != Scope.FULL_DEFINITON) {
             // external for the vocabulary definition
-            qualitycontrol_propertydescription(10, propertyDescription, pname);
-            this.ontologyDescription.getExternalProperties().add(propertyDescription);
+            qualitycontrol_propertydescription(10, propertyDescription, sourceObject);
+            addProperty(propertyDescription, true);
         } else {
-            qualitycontrol_propertydescription(-1, propertyDescription, pname);
-            this.ontologyDescription.getProperties().add(propertyDescription);
+            qualitycontrol_propertydescription(-1, propertyDescription, sourceObject);
+            addProperty(propertyDescription, false);
         }
     }
 
@@ -931,17 +743,8 @@ public class JSONLDOutputHandler implements OutputHandler {
         propertyDescription.setType(propertyType.getURI());
         propertyDescription.setInPackage(packageExported);
 
-        String extra = "";
-        String tags = "";
-        String scopedtags = "";
-
-        List<String> tagJsons =
-                extractTagsJsonFilterDefault(
-                        tagHelper.getTagDataFor(source, tagHelper.getContentMappings(Scope.FULL_DEFINITON)));
-        tags = JOINER.join(tagJsons);
-        List<String> tagScoped =
+        JsonFields scopedtags =
                 tagHelper.getTagDataForJson(source, tagHelper.getContentMappings(Scope.FULL_DEFINITON));
-        scopedtags = JOINER.join(tagScoped);
 
         String pdomain = "";
         String pdomainguid = "";
@@ -965,43 +768,25 @@ public class JSONLDOutputHandler implements OutputHandler {
         sRole = source.getSourceRole();
         dRole = source.getDestRole();
 
-        extra =
-                "{\"EA-Name\" : \""
-                        + source.getName()
-                        + "\", \"EA-Guid\" : \""
-                        + source.getGuid()
-                        + "\", \"derived\" : \""
-                        + derived
-                        + "\", \"EA-Package\" : \""
-                        + ""
-                        + "\", \"EA-Type\" : \""
-                        + "connector"
-                        + "\", \"EA-Domain\" : \""
-                        + pdomain
-                        + "\", \"EA-Domain-Guid\" : \""
-                        + pdomainguid
-                        + "\", \"EA-Range\" : \""
-                        + prange
-                        + "\", \"RangeData\" : "
-                        + rangedata.toJson()
-                        + ", \"sourceRole\" : \""
-                        + sRole
-                        + "\", \"destRole\" : \""
-                        + dRole
-                        + "\", "
-                        + tags
-                        + ", \"RawTags\" : ["
-                        + extractRawTags(source)
-                        + "]"
-                        + ", \"DestRoleTags\" : ["
-                        + extractDestRoleTags(source)
-                        + "]"
-                        + ", \"Scope\" : \""
-                        + scope.toString()
-                        + "\""
-                        + ", "
-                        + scopedtags
-                        + "}";
+        JsonFields extra = new JsonFields(tagNames.size() + 14);
+        extra.add("EA-Name", source.getName());
+        extra.add("EA-Guid", source.getGuid());
+        extra.add("derived", String.valueOf(derived));
+        extra.add("EA-Package", "");
+        extra.add("EA-Type", "connector");
+        extra.add("EA-Domain", pdomain);
+        extra.add("EA-Domain-Guid", pdomainguid);
+        extra.add("EA-Range", prange);
+        extra.add("RangeData", rangedata);
+        extra.add("sourceRole", String.valueOf(sRole));
+        extra.add("destRole", String.valueOf(dRole));
+        addTagValues(
+                extra,
+                tagHelper.getTagDataFor(source, tagHelper.getContentMappings(Scope.FULL_DEFINITON)));
+        extra.add("RawTags", new RawTags(source.getTags()));
+        extra.add("DestRoleTags", new RawTags(source.getDestRoleTags()));
+        extra.add("Scope", scope.toString());
+        extra.addAll(scopedtags);
 
         propertyDescription.setExtra(extra);
         propertyDescription.setScopetags(scopedtags);
@@ -1016,14 +801,15 @@ public class JSONLDOutputHandler implements OutputHandler {
             LOGGER.debug(
                     "process property-tag \"{}\" having value {}.",
                     t.getOriginTag(),
-                    t.getValue().toString());
+                    t.getValue());
             tv = t.getOriginValue();
             switch (t.getOriginTag()) {
                 case "label":
                     String ltv = StringUtils.uncapitalize(tv); // force first letter lowercase
                     if (ltv != tv) {
-                        LOGGER.warn(
-                                "The label of property \"{}\" does not start with a lowercase \"{}\".",
+                        diagnostics.report(
+                                DiagnosticCode.PROPERTY_LABEL_NOT_LOWERCASE,
+                                source,
                                 property.getURI(),
                                 tv);
                     }
@@ -1055,12 +841,12 @@ public class JSONLDOutputHandler implements OutputHandler {
         // Therefore the label should be part of the domain/range resolvement. => Impact on other
         // processing parts
         if (domain != null) {
-            String propdomain =
-                    "{ \"uri\": \"" + domain.getURI() + "\", \"EA-Name\" : \"" + pdomain + "\" }";
-            propertyDescription.getDomain().add(propdomain);
+            propertyDescription
+                    .getDomain()
+                    .add(new JsonFields(2).add("uri", domain.getURI()).add("EA-Name", pdomain));
         }
         if (range != null) {
-            String proprange = rangedata.toJson();
+            RangeData proprange = rangedata;
             propertyDescription.getRange().add(proprange);
         }
 
@@ -1078,57 +864,43 @@ public class JSONLDOutputHandler implements OutputHandler {
         }
 
         // Quality control
-        String pname = source.getName();
-
         // always add property
         // determin to which categorie the class belongs:
         if (scope != Scope.FULL_DEFINITON) {
             // external for the vocabulary definition
-            qualitycontrol_propertydescription(10, propertyDescription, pname);
-            this.ontologyDescription.getExternalProperties().add(propertyDescription);
+            qualitycontrol_propertydescription(10, propertyDescription, source);
+            addProperty(propertyDescription, true);
         } else {
-            qualitycontrol_propertydescription(-1, propertyDescription, pname);
-            this.ontologyDescription.getProperties().add(propertyDescription);
+            qualitycontrol_propertydescription(-1, propertyDescription, source);
+            addProperty(propertyDescription, false);
         }
     }
 
   private void qualitycontrol_propertydescription(
-          int severity, PropertyDescription propertyDescription, String pname) {
+          int severity, PropertyDescription propertyDescription, EAObject property) {
     if (propertyDescription.getName().size() < 1
             && (propertyDescription.getUri() == null || propertyDescription.getUri().length() < 1)) {
-      if (severity < 0) {
-        LOGGER.error(
-                " Property {} without name or URI found, further processing this property will be incoherent",
-                pname);
-      } else {
-        LOGGER.warn(
-                " Property {} without name or URI found, further processing this property will be incoherent",
-                pname);
-      }
+      diagnostics.report(
+              DiagnosticCode.PROPERTY_WITHOUT_NAME_OR_URI,
+              qualitySeverity(severity),
+              property,
+              property.getName());
     } else if (propertyDescription.getName().size() < 1) {
-      if (severity < 0) {
-        LOGGER.error(
-                " Property {} without name, further processing this property will be incoherent",
-                pname);
-      } else {
-        LOGGER.warn(
-                " Property {} without name, further processing this property will be incoherent",
-                pname);
-      }
+      diagnostics.report(
+              DiagnosticCode.PROPERTY_WITHOUT_NAME,
+              qualitySeverity(severity),
+              property,
+              property.getName());
     } else {
       for (LanguageStringDescription name : propertyDescription.getName()) {
         if (name.getValue() == null
                 || name.getValue().length() < 1
                 || name.getValue().toLowerCase().trim().equals("todo")) {
-          if (severity < 0) {
-            LOGGER.error(
-                    " Property {} without with empty or dummy label, further processing this property will be incoherent",
-                    pname);
-          } else {
-            LOGGER.warn(
-                    " Property {} without with empty or dummy label, further processing this property will be incoherent",
-                    pname);
-          }
+          diagnostics.report(
+                  DiagnosticCode.PROPERTY_WITH_DUMMY_LABEL,
+                  qualitySeverity(severity),
+                  property,
+                  property.getName());
         }
       }
     }
@@ -1154,30 +926,145 @@ public class JSONLDOutputHandler implements OutputHandler {
         return result;
     }
 
-    private void writeOntology() {
-        // TODO instead of writing this through write statements we need the inclusion of a
-        //      json manipulation library such as jackson
+    /* keeps the class until writeOntology, or writes it right away in incremental mode */
+    private void addClass(ClassDescription classDescription, boolean external) {
+        if (segmentDirectory == null) {
+            if (external) this.ontologyDescription.getExternalClasses().add(classDescription);
+            else this.ontologyDescription.getClasses().add(classDescription);
+            return;
+        }
         try {
+            if (external) writeExternalClass(externalClassSegment.nextElement(), classDescription);
+            else writeClass(classSegment.nextElement(), classDescription);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-            List<ClassDescription> sortedc = this.ontologyDescription.getClasses();
-            Collections.sort(sortedc);
-            this.ontologyDescription.setClasses(sortedc);
-            List<PropertyDescription> sortedp = this.ontologyDescription.getProperties();
-            Collections.sort(sortedp);
-            this.ontologyDescription.setProperties(sortedp);
+    /* keeps the property until writeOntology, or writes it right away in incremental mode */
+    private void addProperty(PropertyDescription propertyDescription, boolean external) {
+        if (segmentDirectory == null) {
+            if (external) this.ontologyDescription.getExternalProperties().add(propertyDescription);
+            else this.ontologyDescription.getProperties().add(propertyDescription);
+            return;
+        }
+        try {
+            JsonSegment segment = external ? externalPropertySegment : propertySegment;
+            writeProperty(segment.nextElement(), propertyDescription);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-            sortedc = this.ontologyDescription.getExternalClasses();
-            Collections.sort(sortedc);
-            this.ontologyDescription.setExternalClasses(sortedc);
-            sortedp = this.ontologyDescription.getExternalProperties();
-            Collections.sort(sortedp);
-            this.ontologyDescription.setExternalProperties(sortedp);
+    private void writeOntology() throws IOException {
+        List<ClassDescription> sortedc = this.ontologyDescription.getClasses();
+        Collections.sort(sortedc);
+        this.ontologyDescription.setClasses(sortedc);
+        List<PropertyDescription> sortedp = this.ontologyDescription.getProperties();
+        Collections.sort(sortedp);
+        this.ontologyDescription.setProperties(sortedp);
+
+        sortedc = this.ontologyDescription.getExternalClasses();
+        Collections.sort(sortedc);
+        this.ontologyDescription.setExternalClasses(sortedc);
+        sortedp = this.ontologyDescription.getExternalProperties();
+        Collections.sort(sortedp);
+        this.ontologyDescription.setExternalProperties(sortedp);
+
+        // The writer is not closed, the caller owns the underlying stream.
+        JsonWriter json = new JsonWriter(writer);
+        json.setIndent("  ");
+        writeHeader(json);
+
+        json.name("classes").beginArray();
+        for (ClassDescription classDescription : ontologyDescription.getClasses()) {
+            writeClass(json, classDescription);
+        }
+        json.endArray();
 
-            writer.write("{\n");
-            writer.write(generateContext());
+        json.name("properties");
+        writeProperties(json, ontologyDescription.getProperties());
 
-      /*
-      The things that still need to be added:
+        json.name("externals").beginArray();
+        for (ClassDescription external : ontologyDescription.getExternalClasses()) {
+            writeExternalClass(json, external);
+        }
+        json.endArray();
+
+        json.name("externalproperties");
+        writeProperties(json, ontologyDescription.getExternalProperties());
+
+        json.endObject();
+        json.flush();
+    }
+
+    /*
+     * Incremental mode: the header is written with a JsonWriter, but the arrays are completed
+     * by hand, so that the content of each segment can be transferred without being parsed.
+     */
+    private void spliceOntology(Path outputFile, Compression compression) throws IOException {
+        // Only an uncompressed file channel allows the segments to be copied without reading them.
+        try (WritableByteChannel channel =
+                        compression == Compression.NONE
+                                ? FileChannel.open(
+                                        outputFile,
+                                        StandardOpenOption.CREATE,
+                                        StandardOpenOption.WRITE,
+                                        StandardOpenOption.TRUNCATE_EXISTING)
+                                : Channels.newChannel(compression.newOutputStream(outputFile));
+                Writer out = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1)) {
+            JsonWriter json = new JsonWriter(out);
+            json.setIndent("  ");
+            writeHeader(json);
+            json.flush();
+
+            String[] names = {"classes", "properties", "externals", "externalproperties"};
+            JsonSegment[] segments = {
+                classSegment, propertySegment, externalClassSegment, externalPropertySegment
+            };
+            for (int i = 0; i < segments.length; i++) {
+                out.write(",\n  \"" + names[i] + "\": [");
+                if (segments[i].size() > 0) {
+                    out.write("\n");
+                    out.flush();
+                    segments[i].transferTo(channel);
+                    out.write("\n  ");
+                }
+                out.write("]");
+            }
+            out.write("\n}");
+        } finally {
+            closeSegments();
+        }
+    }
+
+    /** Deletes the segment files of incremental mode, if that was not done yet. */
+    @Override
+    public void close() throws IOException {
+        if (segmentDirectory != null) closeSegments();
+    }
+
+    private void closeSegments() throws IOException {
+        try {
+            for (JsonSegment segment :
+                    Arrays.asList(
+                            classSegment,
+                            propertySegment,
+                            externalClassSegment,
+                            externalPropertySegment)) {
+                if (segment != null) segment.close();
+            }
+        } finally {
+            Files.deleteIfExists(segmentDirectory);
+        }
+    }
+
+    /* everything before the classes, leaves the top level object open */
+    private void writeHeader(JsonWriter json) throws IOException {
+        json.beginObject();
+        json.name("@context").jsonValue(generateContext());
+        /*
+        The things that still need to be added:
         "label": {
           "nl": "Gebouw",
           "en": "Building"
@@ -1188,268 +1075,127 @@ public class JSONLDOutputHandler implements OutputHandler {
           "nl": " Dit is een applicatieprofiel op het OSLO-Gebouw vocabularium. De applicatie waarop dit profiel betrekking heeft is een Gebouwenregister. Gebouwregistratie houdt in dat de beheerders van dit gegeven gebouwen en gebouweenheden officieel vaststellen en vastleggen in een register. Het Gebouwenregister vormt zo de enige en unieke bron voor gebouwinformatie..",
           "en": "This is the description of this ontology..."
         }
-       */
-            writer.write("\"@id\": \"" + ontologyDescription.getUri() + "\",\n");
-            writer.write("\"@type\": \"" + ontologyDescription.getType() + "\",\n");
-            writer.write(
-                    "\"label\": {\n  \"nl\": \""
-                            + ontologyDescription.getLabel()
-                            + "\",\n  \"en\": \""
-                            + ontologyDescription.getLabel()
-                            + "\"\n},\n");
-            writer.write(print_ifpresent(ontologyDescription.getScopetags()));
-            writer.write("\"extra\": " + ontologyDescription.getExtra() + ",\n");
-
-            String authorsJSON = ""; // notice the authors (plural)
-            writer.write("\"authors\": [\n");
-            for (ContributorDescription author : ontologyDescription.getAuthors()) {
-                String authorJSON = "{\n";
-                if (!author.getFirstName().isEmpty()) {
-                    authorJSON += "\"foaf:firstName\": \"" + author.getFirstName() + "\",\n";
-                }
-                if (!author.getLastName().isEmpty()) {
-                    authorJSON += "\"foaf:lastName\": \"" + author.getLastName() + "\",\n";
-                }
-                if (!author.getAffiliation().isEmpty() || !author.getWebsite().isEmpty()) {
-                    authorJSON += "\"affiliation\": {";
-                    if (!author.getAffiliation().isEmpty()) {
-                        authorJSON += "\"foaf:name\": \"" + author.getAffiliation() + "\",\n";
-                    }
-                    if (!author.getWebsite().isEmpty()) {
-                        authorJSON += "\"foaf:homepage\": \"" + author.getWebsite() + "\",\n";
-                    }
-                    authorJSON = authorJSON.substring(0, authorJSON.length() - 2);
-                    authorJSON += "},\n";
-                }
-                if (!(author.getEmail().isEmpty())) {
-                    authorJSON += "\"foaf:mbox\": \"" + author.getEmail() + "\",\n";
-                }
-                if (!authorJSON
-                        .replace("{", "")
-                        .replace("}", "")
-                        .replace("\"", "")
-                        .replace("\n", "")
-                        .replace(" ", "")
-                        .replace(",", "")
-                        .isEmpty()) {
-                    // author has some fields
-                    authorJSON += "\"@type\": \"foaf:Person\"";
-                    authorJSON += "\n},\n";
-                    authorsJSON += authorJSON;
-                }
-            }
-            if (this.ontologyDescription.getAuthors().size() > 0) {
-                authorsJSON = authorsJSON.substring(0, authorsJSON.length() - 2);
-                writer.write(authorsJSON);
-            }
-            writer.write("],\n");
-
-            String editorsJSON = ""; // notice the editors (plural)
-            writer.write("\"editors\": [\n");
-            for (ContributorDescription editor : ontologyDescription.getEditors()) {
-                String editorJSON = "{\n";
-                if (!editor.getFirstName().isEmpty()) {
-                    editorJSON += "\"foaf:firstName\": \"" + editor.getFirstName() + "\",\n";
-                }
-                if (!editor.getLastName().isEmpty()) {
-                    editorJSON += "\"foaf:lastName\": \"" + editor.getLastName() + "\",\n";
-                }
-                if (!editor.getAffiliation().isEmpty() || !editor.getWebsite().isEmpty()) {
-                    editorJSON += "\"affiliation\": {";
-                    if (!editor.getAffiliation().isEmpty()) {
-                        editorJSON += "\"foaf:name\": \"" + editor.getAffiliation() + "\",\n";
-                    }
-                    if (!editor.getWebsite().isEmpty()) {
-                        editorJSON += "\"foaf:homepage\": \"" + editor.getWebsite() + "\",\n";
-                    }
-                    editorJSON = editorJSON.substring(0, editorJSON.length() - 2);
-                    editorJSON += "},\n";
-                }
-                if (!(editor.getEmail().isEmpty())) {
-                    editorJSON += "\"foaf:mbox\": \"" + editor.getEmail() + "\",\n";
-                }
-                if (!editorJSON
-                        .replace("{", "")
-                        .replace("}", "")
-                        .replace("\"", "")
-                        .replace("\n", "")
-                        .replace(" ", "")
-                        .replace(",", "")
-                        .isEmpty()) {
-                    // editor has some fields
-                    editorJSON += "\"@type\": \"foaf:Person\"";
-                    editorJSON += "\n},\n";
-                    editorsJSON += editorJSON;
-                }
-            }
-            if (this.ontologyDescription.getEditors().size() > 0) {
-                editorsJSON = editorsJSON.substring(0, editorsJSON.length() - 2);
-                writer.write(editorsJSON);
-            }
-            writer.write("],\n");
-
-            String contributorsJSON = ""; // notice the contributors (plural)
-            writer.write("\"contributors\": [\n");
-            for (ContributorDescription contributor : ontologyDescription.getContributors()) {
-                String contributorJSON = "{\n";
-                if (!contributor.getFirstName().isEmpty()) {
-                    contributorJSON += "\"foaf:firstName\": \"" + contributor.getFirstName() + "\",\n";
-                }
-                if (!contributor.getLastName().isEmpty()) {
-                    contributorJSON += "\"foaf:lastName\": \"" + contributor.getLastName() + "\",\n";
-                }
-                if (!contributor.getAffiliation().isEmpty() || !contributor.getWebsite().isEmpty()) {
-                    contributorJSON += "\"affiliation\": {";
-                    if (!contributor.getAffiliation().isEmpty()) {
-                        contributorJSON += "\"foaf:name\": \"" + contributor.getAffiliation() + "\",\n";
-                    }
-                    if (!contributor.getWebsite().isEmpty()) {
-                        contributorJSON += "\"foaf:homepage\": \"" + contributor.getWebsite() + "\",\n";
-                    }
-                    contributorJSON = contributorJSON.substring(0, contributorJSON.length() - 2);
-                    contributorJSON += "},\n";
-                }
-                if (!(contributor.getEmail().isEmpty())) {
-                    contributorJSON += "\"foaf:mbox\": \"" + contributor.getEmail() + "\",\n";
-                }
-                if (!contributorJSON
-                        .replace("{", "")
-                        .replace("}", "")
-                        .replace("\"", "")
-                        .replace("\n", "")
-                        .replace(" ", "")
-                        .replace(",", "")
-                        .isEmpty()) {
-                    // contributor has some field
-                    contributorJSON += "\"@type\": \"foaf:Person\"";
-                    contributorJSON += "\n},\n";
-                    contributorsJSON += contributorJSON;
-                }
-            }
-            if (this.ontologyDescription.getContributors().size() > 0) {
-                contributorsJSON = contributorsJSON.substring(0, contributorsJSON.length() - 2);
-                writer.write(contributorsJSON);
-            }
-            writer.write("],\n");
-
-            writer.write("\"classes\": [\n");
-            String outputString = "";
-            for (ClassDescription classDescription : ontologyDescription.getClasses()) {
-                outputString += "{\n";
-                outputString += "\"@id\": \"" + classDescription.getUri() + "\",\n";
-                outputString += "\"@type\": \"" + classDescription.getType() + "\",\n";
-                outputString += print_ifpresent(classDescription.getScopetags());
-                outputString += "\"extra\": " + classDescription.getExtra() + ",\n";
-                outputString += "\"inpackage\": \"" + classDescription.getInPackage().toString() + "\",\n";
-                outputString += "\"name\": \"" + print_name_without_languagetag(classDescription.getName()) + "\",\n";
-                outputString += "\"parents\": [\n";
-                outputString += print_list(classDescription.getParents());
-                outputString += "]\n";
-                outputString += "},\n";
-            }
-            if (ontologyDescription.getClasses().size() > 0) {
-                outputString = outputString.substring(0, outputString.length() - 2);
-            }
-            outputString += "\n],\n";
-            writer.write(outputString);
-
-            writer.write("\"properties\": [\n");
-            outputString = "";
-            outputString += print_propertydescription(ontologyDescription.getProperties());
-            outputString += "],\n";
-
-            outputString += "\"externals\": [\n";
-
-            List<String> excls = new ArrayList<>();
-            String externalS = "";
-            for (ClassDescription external : ontologyDescription.getExternalClasses()) {
-                externalS += "{\n";
-                externalS += "\"@id\": \"" + external.getUri() + "\",\n";
-                externalS += "\"@type\": \"" + external.getType() + "\",\n";
-                externalS += "\"inpackage\": \"" + external.getInPackage().toString() + "\",\n";
-                externalS += print_ifpresent(external.getScopetags());
-                externalS += "\"extra\": " + external.getExtra() + ",\n";
-                externalS += "\"name\": \"" + print_name_without_languagetag(external.getName()) + "\"\n";
-                externalS += "}\n";
-                excls.add(externalS);
-                externalS = "";
-            }
-            outputString += JOINER.join(excls);
-            outputString += "],\n";
-            outputString += "\"externalproperties\": [\n";
-            outputString += print_propertydescription(ontologyDescription.getExternalProperties());
-            outputString += "]\n";
+         */
+        json.name("@id").value(ontologyDescription.getUri());
+        json.name("@type").value(ontologyDescription.getType());
+        json.name("label").beginObject();
+        json.name("nl").value(ontologyDescription.getLabel());
+        json.name("en").value(ontologyDescription.getLabel());
+        json.endObject();
+        writeMembers(json, ontologyDescription.getScopetags());
+        json.name("extra");
+        JsonFields.write(json, ontologyDescription.getExtra());
+
+        writeContributors(json, "authors", ontologyDescription.getAuthors());
+        writeContributors(json, "editors", ontologyDescription.getEditors());
+        writeContributors(json, "contributors", ontologyDescription.getContributors());
+    }
+
+    private void writeClass(JsonWriter json, ClassDescription classDescription)
+            throws IOException {
+        json.beginObject();
+        json.name("@id").value(classDescription.getUri());
+        json.name("@type").value(classDescription.getType());
+        writeMembers(json, classDescription.getScopetags());
+        json.name("extra");
+        JsonFields.write(json, classDescription.getExtra());
+        json.name("inpackage").value(classDescription.getInPackage().toString());
+        json.name("name").value(nameWithoutLanguageTag(classDescription.getName()));
+        writeStrings(json, "parents", classDescription.getParents());
+        json.endObject();
+    }
 
-            writer.write(outputString);
+    private void writeExternalClass(JsonWriter json, ClassDescription external)
+            throws IOException {
+        json.beginObject();
+        json.name("@id").value(external.getUri());
+        json.name("@type").value(external.getType());
+        json.name("inpackage").value(external.getInPackage().toString());
+        writeMembers(json, external.getScopetags());
+        json.name("extra");
+        JsonFields.write(json, external.getExtra());
+        json.name("name").value(nameWithoutLanguageTag(external.getName()));
+        json.endObject();
+    }
 
-            writer.write("}");
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    private void writeMembers(JsonWriter json, JsonFields members) throws IOException {
+        if (members != null) members.writeMembers(json);
     }
 
-    private String print_ifpresent(String v) {
-        if (v != null && !v.isEmpty()) {
-            return v + ",\n";
-        } else {
-            return "";
+    private void writeContributors(
+            JsonWriter json, String name, List<ContributorDescription> contributors)
+            throws IOException {
+        json.name(name).beginArray();
+        for (ContributorDescription contributor : contributors) {
+            boolean hasAffiliation =
+                    !contributor.getAffiliation().isEmpty() || !contributor.getWebsite().isEmpty();
+            if (contributor.getFirstName().isEmpty()
+                    && contributor.getLastName().isEmpty()
+                    && !hasAffiliation
+                    && contributor.getEmail().isEmpty()) continue;
+
+            json.beginObject();
+            if (!contributor.getFirstName().isEmpty())
+                json.name("foaf:firstName").value(contributor.getFirstName());
+            if (!contributor.getLastName().isEmpty())
+                json.name("foaf:lastName").value(contributor.getLastName());
+            if (hasAffiliation) {
+                json.name("affiliation").beginObject();
+                if (!contributor.getAffiliation().isEmpty())
+                    json.name("foaf:name").value(contributor.getAffiliation());
+                if (!contributor.getWebsite().isEmpty())
+                    json.name("foaf:homepage").value(contributor.getWebsite());
+                json.endObject();
+            }
+            if (!contributor.getEmail().isEmpty())
+                json.name("foaf:mbox").value(contributor.getEmail());
+            json.name("@type").value("foaf:Person");
+            json.endObject();
         }
+        json.endArray();
     }
 
-    ;
-
-    private String print_propertydescription(List<PropertyDescription> properties) {
-        List<String> props = new ArrayList<>();
-        String outputString = "";
+    private void writeProperties(JsonWriter json, List<PropertyDescription> properties)
+            throws IOException {
+        json.beginArray();
         for (PropertyDescription propertyDescription : properties) {
-            outputString = "";
-            outputString += "{\n";
-            outputString += "\"@id\": \"" + propertyDescription.getUri() + "\",\n";
-            outputString += "\"@type\": \"" + propertyDescription.getType() + "\",\n";
-            outputString += "\"name\": \"" + print_name_without_languagetag(propertyDescription.getName()) + "\",\n";
-            outputString += "\"inpackage\": \"" + propertyDescription.getInPackage().toString() + "\",\n";
-            outputString += propertyDescription.getScopetags() + ",\n";
-            outputString += "\"extra\": " + propertyDescription.getExtra() + ",\n";
-            outputString += "\"codelist\": [\n";
-            outputString += print_list(propertyDescription.getCodelist());
-            outputString += "],\n";
-            outputString += "\"domain\": [\n";
-            for (String domain : propertyDescription.getDomain()) {
-                outputString += "" + domain + ",\n";
-            }
-            if (propertyDescription.getDomain().size() > 0) {
-                outputString = outputString.substring(0, outputString.length() - 2);
-            }
-            outputString += "\n],\n";
-            outputString += "\"range\": [\n";
-            for (String range : propertyDescription.getRange()) {
-                outputString += "" + range + ",\n";
-            }
-            if (propertyDescription.getRange().size() > 0) {
-                outputString = outputString.substring(0, outputString.length() - 2);
-            }
-            outputString += "\n],\n";
-            outputString += "\"generalization\": [\n";
-            for (String generalization : propertyDescription.getGeneralization()) {
-                outputString += "\"" + generalization + "\",\n";
-            }
-            if (propertyDescription.getGeneralization().size() > 0) {
-                outputString = outputString.substring(0, outputString.length() - 2);
-            }
-            outputString += "\n],\n";
-            if (propertyDescription.getMinCount() != null
-                    && propertyDescription.getMinCount().length() > 0) {
-                outputString += "\"minCardinality\": \"" + propertyDescription.getMinCount() + "\",\n";
-            }
-            if (propertyDescription.getMaxCount() != null
-                    && propertyDescription.getMaxCount().length() > 0) {
-                outputString += "\"maxCardinality\": \"" + propertyDescription.getMaxCount() + "\",\n";
-            }
-            outputString = outputString.substring(0, outputString.length() - 2);
-            outputString += "}\n";
-            props.add(outputString);
+            writeProperty(json, propertyDescription);
+        }
+        json.endArray();
+    }
+
+    private void writeProperty(JsonWriter json, PropertyDescription propertyDescription)
+            throws IOException {
+        json.beginObject();
+        json.name("@id").value(propertyDescription.getUri());
+        json.name("@type").value(propertyDescription.getType());
+        json.name("name").value(nameWithoutLanguageTag(propertyDescription.getName()));
+        json.name("inpackage").value(propertyDescription.getInPackage().toString());
+        writeMembers(json, propertyDescription.getScopetags());
+        json.name("extra");
+        JsonFields.write(json, propertyDescription.getExtra());
+        writeStrings(json, "codelist", propertyDescription.getCodelist());
+        json.name("domain");
+        JsonFields.write(json, propertyDescription.getDomain());
+        json.name("range");
+        JsonFields.write(json, propertyDescription.getRange());
+        writeStrings(json, "generalization", propertyDescription.getGeneralization());
+        if (propertyDescription.getMinCount() != null
+                && propertyDescription.getMinCount().length() > 0) {
+            json.name("minCardinality").value(propertyDescription.getMinCount());
+        }
+        if (propertyDescription.getMaxCount() != null
+                && propertyDescription.getMaxCount().length() > 0) {
+            json.name("maxCardinality").value(propertyDescription.getMaxCount());
         }
-        return JOINER.join(props);
+        json.endObject();
+    }
+
+    private void writeStrings(JsonWriter json, String name, List<String> values)
+            throws IOException {
+        json.name(name).beginArray();
+        for (String value : values) json.value(value);
+        json.endArray();
     }
 
     private String print_languagetagged(List<LanguageStringDescription> lvalues) {
@@ -1467,58 +1213,24 @@ public class JSONLDOutputHandler implements OutputHandler {
         return result;
     }
 
-    private String print_name_without_languagetag(List<LanguageStringDescription> lvalues) {
+    private String nameWithoutLanguageTag(List<LanguageStringDescription> lvalues) {
         String result = "";
         for (LanguageStringDescription lsd : lvalues) {
-            result = StringEscapeUtils.escapeJson(lsd.getValue());
+            result = lsd.getValue();
         }
         return result;
     }
 
-    private String print_list(List<String> lvalues) {
-        List<String> results = new ArrayList<>();
-        for (String lsd : lvalues) {
-            results.add("\"" + lsd + "\"");
-        }
-        String result = JOINER.join(results);
-        return result;
-    }
-
-    ;
-
     @Override
     public void handleInstance(
             EAAttribute source, Resource instance, Scope scope, Resource ontology, Resource clazz) {
-        LOGGER.warn("INSTANCE NOT HANDLED: {} - {}", source.getName(), source.getGuid());
-    }
-
-    private List<EAElement> findParents(DiagramElement child) {
-        return child.getConnectors().stream()
-                .map(
-                        dConn -> {
-                            EAConnector conn = dConn.getReferencedConnector();
-                            if (!EAConnector.TYPE_GENERALIZATION.equals(conn.getType())
-                                    || Boolean.valueOf(tagHelper.getOptionalTag(conn, Tag.IGNORE, "false"))
-                                    || dConn.isHidden()
-                                    || EAConnector.Direction.BIDIRECTIONAL.equals(conn.getDirection())
-                                    || EAConnector.Direction.UNSPECIFIED.equals(conn.getDirection())) return null;
-                            if (EAConnector.Direction.SOURCE_TO_DEST.equals(conn.getDirection())) {
-                                if (child.getReferencedElement().equals(conn.getSource()))
-                                    return conn.getDestination();
-                                else return null;
-                            } else {
-                                if (child.getReferencedElement().equals(conn.getDestination()))
-                                    return conn.getSource();
-                                else return null;
-                            }
-                        })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        diagnostics.report(
+                DiagnosticCode.NOT_HANDLED, source, "INSTANCE", source.getName(), source.getGuid());
     }
 
     // TODO: read this from a file in the configuration
     private String generateContext() {
-        return "  \"@context\": {\n"
+        return "{\n"
                 + "    \"vlaanderen\": \"http://data.vlaanderen.be/ns/\",\n"
                 + "    \"owl\": \"http://www.w3.org/2002/07/owl#\",\n"
                 + "    \"void\": \"http://rdfs.org/ns/void#\",\n"
@@ -1594,11 +1306,7 @@ public class JSONLDOutputHandler implements OutputHandler {
                 + "    \"externals\": {\n"
                 + "      \"@type\": \"http://www.w3.org/2000/01/rdf-schema#Class\",\n"
                 + "      \"@id\": \"rdfs:seeAlso\"\n"
-                + "      },\n"
-                + "    \"label\": {\n"
-                + "      \"@id\": \"rdfs:label\",\n"
-                + "      \"@container\": \"@language\"\n"
-                + "    }\n"
-                + "  },\n";
+                + "      }\n"
+                + "  }";
     }
 }
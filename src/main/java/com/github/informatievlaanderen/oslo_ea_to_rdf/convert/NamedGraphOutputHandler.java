@@ -0,0 +1,140 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
+
+import com.github.informatievlaanderen.oslo_ea_to_rdf.NTriplesStreamGraph;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAAttribute;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAConnector;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAElement;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAPackage;
+import java.util.List;
+import java.util.Map;
+import org.apache.jena.rdf.model.Resource;
+
+/**
+ * Output handler that writes the triples of the conversion as N-Quads, in a named graph that is
+ * the URI of the converted ontology. The quads are streamed to the graph while converting, so they
+ * can be bulk loaded in a dataset without keeping or parsing an intermediate Turtle file.
+ */
+public class NamedGraphOutputHandler implements OutputHandler {
+  private final NTriplesStreamGraph graph;
+  private final RDFOutputHandler handler;
+  private Resource ontology;
+
+  /**
+   * @param graph the graph to write to, its graph name is set when the ontology is handled
+   * @param fullOutput see {@link RDFOutputHandler}
+   */
+  public NamedGraphOutputHandler(
+      Map<String, Resource> prefixes,
+      TagHelper tagHelper,
+      boolean fullOutput,
+      NTriplesStreamGraph graph) {
+    this.graph = graph;
+    this.handler = new RDFOutputHandler(prefixes, tagHelper, fullOutput, graph);
+  }
+
+  /** The converted ontology, which names the graph, or {@code null} if not converted yet. */
+  public Resource getOntology() {
+    return ontology;
+  }
+
+  @Override
+  public void handleURIs(UriAssigner.Result uris) {
+    handler.handleURIs(uris);
+  }
+
+  @Override
+  public void handleOntology(
+      EAPackage sourcePackage, Resource ontology, String prefix, String baseURI) {
+    // The ontology is handled before any term, so all triples end up in its graph.
+    this.ontology = ontology;
+    graph.setGraphName(ontology.getURI());
+    handler.handleOntology(sourcePackage, ontology, prefix, baseURI);
+  }
+
+  @Override
+  public void handleClass(
+      EAElement sourceElement,
+      Resource clazz,
+      Scope scope,
+      Resource ontology,
+      List<Resource> parentClasses,
+      List<EAElement> parentElements,
+      Map<EAElement, String> elementURIs,
+      List<Resource> allowedValues) {
+    handler.handleClass(
+        sourceElement,
+        clazz,
+        scope,
+        ontology,
+        parentClasses,
+        parentElements,
+        elementURIs,
+        allowedValues);
+  }
+
+  @Override
+  public void handleProperty(
+      PropertySource source,
+      Resource property,
+      Scope scope,
+      PackageExported packageExported,
+      Resource ontology,
+      Resource propertyType,
+      Resource domain,
+      Resource range,
+      RangeData rangedata,
+      String lowerbound,
+      String upperbound,
+      List<Resource> superProperties) {
+    handler.handleProperty(
+        source,
+        property,
+        scope,
+        packageExported,
+        ontology,
+        propertyType,
+        domain,
+        range,
+        rangedata,
+        lowerbound,
+        upperbound,
+        superProperties);
+  }
+
+  @Override
+  public void handlePropertyConnector(
+      Boolean derived,
+      EAConnector source,
+      Resource property,
+      Scope scope,
+      PackageExported packageExported,
+      Resource ontology,
+      Resource propertyType,
+      Resource domain,
+      Resource range,
+      RangeData rangedata,
+      String lowerbound,
+      String upperbound,
+      List<Resource> superProperties) {
+    handler.handlePropertyConnector(
+        derived,
+        source,
+        property,
+        scope,
+        packageExported,
+        ontology,
+        propertyType,
+        domain,
+        range,
+        rangedata,
+        lowerbound,
+        upperbound,
+        superProperties);
+  }
+
+  @Override
+  public void handleInstance(
+      EAAttribute source, Resource instance, Scope scope, Resource ontology, Resource clazz) {
+    handler.handleInstance(source, instance, scope, ontology, clazz);
+  }
+}
@@ -14,6 +14,13 @@ import org.apache.jena.rdf.model.Resource;
  * @author Dieter De Paepe
  */
 public interface OutputHandler {
+  /**
+   * Handles the URIs assigned to the EA objects, before any definition is handled.
+   *
+   * @param uris the URIs of all packages and the terms they define
+   */
+  void handleURIs(UriAssigner.Result uris);
+
   /**
    * Handles the definition of an ontology.
    *
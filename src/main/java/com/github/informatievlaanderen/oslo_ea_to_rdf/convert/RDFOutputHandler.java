@@ -1,12 +1,16 @@
 package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
 
+import com.github.informatievlaanderen.oslo_ea_to_rdf.Compression;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.SortedOutputModel;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.SpillingTurtleGraph;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics.DiagnosticCode;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics.Diagnostics;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAAttribute;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAConnector;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAElement;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAPackage;
-import com.google.common.base.Charsets;
 import com.google.common.base.MoreObjects;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
@@ -14,7 +18,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import org.apache.jena.graph.Graph;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.vocabulary.OWL;
 import org.apache.jena.vocabulary.RDF;
@@ -23,22 +29,58 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Class that aggregates the conversion results in a RDF model.
+ * Class that aggregates the conversion results in a RDF model. In streaming mode, closing the
+ * handler removes the triples spilled to disk.
  *
  * @author Dieter De Paepe
  */
-public class RDFOutputHandler implements OutputHandler {
+public class RDFOutputHandler implements OutputHandler, Closeable {
   private final Logger LOGGER = LoggerFactory.getLogger(RDFOutputHandler.class);
 
   private Model model;
+  private SpillingTurtleGraph spillingGraph;
+  private boolean externalGraph;
   private TagHelper tagHelper;
+  private Diagnostics diagnostics;
   private boolean forceFullOutput;
 
   public RDFOutputHandler(Map<String, Resource> prefixes, TagHelper tagHelper, boolean fullOutput) {
+    this(prefixes, tagHelper, fullOutput, false);
+  }
+
+  /**
+   * @param streaming if true, the triples are spilled to disk as they are added instead of being
+   *     kept in memory, the output is the same
+   */
+  public RDFOutputHandler(
+      Map<String, Resource> prefixes, TagHelper tagHelper, boolean fullOutput, boolean streaming) {
+    this.tagHelper = tagHelper;
+    this.diagnostics = tagHelper.getDiagnostics().forSource(RDFOutputHandler.class);
+    this.forceFullOutput = fullOutput;
+
+    if (streaming) {
+      spillingGraph = new SpillingTurtleGraph();
+      model = ModelFactory.createModelForGraph(spillingGraph);
+    } else {
+      model = new SortedOutputModel();
+    }
+    for (Map.Entry<String, Resource> entry : prefixes.entrySet()) {
+      model.setNsPrefix(entry.getKey(), entry.getValue().getURI());
+    }
+  }
+
+  /**
+   * Creates a handler that adds its triples to the given graph as they are produced, for example to
+   * stream them to a file. {@link #writeToFile(Path)} cannot be used with this handler.
+   */
+  public RDFOutputHandler(
+      Map<String, Resource> prefixes, TagHelper tagHelper, boolean fullOutput, Graph graph) {
     this.tagHelper = tagHelper;
+    this.diagnostics = tagHelper.getDiagnostics().forSource(RDFOutputHandler.class);
     this.forceFullOutput = fullOutput;
+    this.externalGraph = true;
 
-    model = new SortedOutputModel();
+    model = ModelFactory.createModelForGraph(graph);
     for (Map.Entry<String, Resource> entry : prefixes.entrySet()) {
       model.setNsPrefix(entry.getKey(), entry.getValue().getURI());
     }
@@ -57,18 +99,56 @@ public class RDFOutputHandler implements OutputHandler {
   }
 
   /**
-   * Writes the internal model to the specified turtle file.
+   * Writes the internal model to the specified turtle file, gzipped if the file name ends in {@code
+   * .gz}.
    *
    * @param outputFile the desired output turtle file
    * @throws IOException if an exception occurred while writing the file
    */
   public void writeToFile(Path outputFile) throws IOException {
+    writeToFile(outputFile, Compression.forFile(outputFile));
+  }
+
+  /**
+   * Writes the internal model to the specified turtle file.
+   *
+   * @param outputFile the desired output turtle file
+   * @param compression the compression to apply to the file
+   * @throws IOException if an exception occurred while writing the file
+   */
+  public void writeToFile(Path outputFile, Compression compression) throws IOException {
+    if (externalGraph)
+      throw new IllegalStateException("The triples were added to an externally provided graph.");
     Files.createDirectories(outputFile.toAbsolutePath().getParent());
-    try (Writer w = Files.newBufferedWriter(outputFile, Charsets.UTF_8)) {
-      model.write(w, "TTL");
+    try (Writer w = compression.newBufferedWriter(outputFile)) {
+      write(w);
     }
   }
 
+  /**
+   * Writes the internal model as turtle. In streaming mode, this can only be done once.
+   *
+   * @param writer the writer to write to, it is not closed
+   * @throws IOException if an exception occurred while writing
+   */
+  public void write(Writer writer) throws IOException {
+    if (externalGraph)
+      throw new IllegalStateException("The triples were added to an externally provided graph.");
+    if (spillingGraph != null) spillingGraph.writeTurtle(writer);
+    else model.write(writer, "TTL");
+  }
+
+  /** Removes the triples spilled to disk in streaming mode, also if they were never written. */
+  @Override
+  public void close() {
+    if (spillingGraph != null) spillingGraph.close();
+  }
+
+  @Override
+  public void handleURIs(UriAssigner.Result uris) {
+    // Terms are handled together with their URI.
+  }
+
   @Override
   public void handleOntology(
       EAPackage sourcePackage, Resource ontology, String prefix, String baseURI) {
@@ -137,9 +217,8 @@ public class RDFOutputHandler implements OutputHandler {
 
     if (packageExported == PackageExported.UNKNOWN) {
       // Can only occur for connectors
-      LOGGER.warn(
-          "Ignoring connector \"{}\" since it lacks a defining package.",
-          source.connector.getPath());
+      diagnostics.report(
+          DiagnosticCode.CONNECTOR_WITHOUT_PACKAGE, source.connector, source.connector);
       return;
     }
 
@@ -181,7 +260,12 @@ public class RDFOutputHandler implements OutputHandler {
       String lowerbound,
       String upperbound,
       List<Resource> superProperties) {
-    LOGGER.warn("HANDLEPROPERTYCONNECTOR NOT HANDLED: {} - {}", source.getName(), source.getGuid());
+    diagnostics.report(
+        DiagnosticCode.NOT_HANDLED,
+        source,
+        "HANDLEPROPERTYCONNECTOR",
+        source.getName(),
+        source.getGuid());
   }
 
   @Override
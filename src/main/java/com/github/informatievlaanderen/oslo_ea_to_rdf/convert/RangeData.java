@@ -1,6 +1,9 @@
 package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
 
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.JSONLDOntology.JsonWritable;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAElement;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 import org.apache.jena.rdf.model.Resource;
 
 /**
@@ -8,7 +11,7 @@ import org.apache.jena.rdf.model.Resource;
  *
  * @author Bert Van Nuffelen
  */
-public class RangeData {
+public class RangeData implements JsonWritable {
   private String eaname;
   private String eapackage;
   private Resource uri;
@@ -48,32 +51,13 @@ public class RangeData {
     return origin;
   }
 
-  public String toJson() {
-    String json = "";
-    if (origin != null) {
-      json =
-          "{"
-              + "\"EA-Name\" : \""
-              + eaname
-              + "\", \"EA-GUID\" : \""
-              + origin.getGuid()
-              + "\", \"EA-Package\" : \""
-              + eapackage
-              + "\", \"uri\" : \""
-              + uri
-              + "\" }";
-    } else {
-      json =
-          "{"
-              + "\"EA-Name\" : \""
-              + eaname
-              + "\", \"EA-Package\" : \""
-              + eapackage
-              + "\", \"uri\" : \""
-              + uri
-              + "\" }";
-    }
-
-    return json;
+  @Override
+  public void writeJson(JsonWriter out) throws IOException {
+    out.beginObject();
+    out.name("EA-Name").value(eaname);
+    if (origin != null) out.name("EA-GUID").value(origin.getGuid());
+    out.name("EA-Package").value(eapackage);
+    out.name("uri").value(String.valueOf(uri));
+    out.endObject();
   }
 }
@@ -0,0 +1,298 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
+
+import com.github.informatievlaanderen.oslo_ea_to_rdf.Compression;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.SortedOutputModel;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAAttribute;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAConnector;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAElement;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAPackage;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+
+/**
+ * Output handler that derives SHACL shapes from the conversion: a node shape for every class
+ * defined by the converted package and for the domain of every property of that package, with a
+ * property shape for each property. The cardinality, the range and the values of an enumeration
+ * range are expressed as constraints.
+ *
+ * <p>The shapes are minted in a namespace of their own, so that they cannot collide with the terms
+ * of the vocabulary: {@code <shapes><Class>Shape} for node shapes and {@code
+ * <shapes><Class>Shape/<property>} for property shapes. Unless given, the namespace is {@code
+ * <ontology>/shapes#}.
+ */
+public class ShaclOutputHandler implements OutputHandler {
+  public static final String SH = "http://www.w3.org/ns/shacl#";
+
+  private static final Resource NODE_SHAPE = ResourceFactory.createResource(SH + "NodeShape");
+  private static final Resource PROPERTY_SHAPE =
+      ResourceFactory.createResource(SH + "PropertyShape");
+  private static final Property TARGET_CLASS = ResourceFactory.createProperty(SH, "targetClass");
+  private static final Property PROPERTY = ResourceFactory.createProperty(SH, "property");
+  private static final Property PATH = ResourceFactory.createProperty(SH, "path");
+  private static final Property MIN_COUNT = ResourceFactory.createProperty(SH, "minCount");
+  private static final Property MAX_COUNT = ResourceFactory.createProperty(SH, "maxCount");
+  private static final Property CLASS = ResourceFactory.createProperty(SH, "class");
+  private static final Property DATATYPE = ResourceFactory.createProperty(SH, "datatype");
+  private static final Property IN = ResourceFactory.createProperty(SH, "in");
+
+  private final Map<String, Resource> prefixes;
+  private final String shapesNamespace;
+  /** The allowed values of the enumerations, by class. */
+  private final Map<Resource, List<Resource>> enumerations = new HashMap<>();
+  /** The shapes by the URI of their target class. */
+  private final Map<String, NodeShape> shapes = new TreeMap<>();
+
+  private Resource ontology;
+  private String prefix;
+  private String baseURI;
+
+  /** @param prefixes the prefixes used in the output, the prefix sh is added */
+  public ShaclOutputHandler(Map<String, Resource> prefixes) {
+    this(prefixes, null);
+  }
+
+  /**
+   * @param prefixes the prefixes used in the output, the prefixes sh and shapes are added
+   * @param shapesNamespace the namespace of the shapes, if {@code null} the namespace {@code
+   *     shapes#} below the ontology URI is used
+   */
+  public ShaclOutputHandler(Map<String, Resource> prefixes, String shapesNamespace) {
+    this.prefixes = prefixes;
+    this.shapesNamespace = shapesNamespace;
+  }
+
+  @Override
+  public void handleURIs(UriAssigner.Result uris) {
+    // Terms are handled together with their URI.
+  }
+
+  @Override
+  public void handleOntology(
+      EAPackage sourcePackage, Resource ontology, String prefix, String baseURI) {
+    this.ontology = ontology;
+    this.prefix = prefix;
+    this.baseURI = baseURI;
+  }
+
+  @Override
+  public void handleClass(
+      EAElement sourceElement,
+      Resource clazz,
+      Scope scope,
+      Resource ontology,
+      List<Resource> parentClasses,
+      List<EAElement> parentElements,
+      Map<EAElement, String> elementURIs,
+      List<Resource> allowedValues) {
+    if (allowedValues != null) enumerations.put(clazz, ImmutableList.copyOf(allowedValues));
+    else if (scope == Scope.FULL_DEFINITON) shapeFor(clazz);
+  }
+
+  @Override
+  public void handleProperty(
+      PropertySource source,
+      Resource property,
+      Scope scope,
+      PackageExported packageExported,
+      Resource ontology,
+      Resource propertyType,
+      Resource domain,
+      Resource range,
+      RangeData rangedata,
+      String lowerbound,
+      String upperbound,
+      List<Resource> superProperties) {
+    addPropertyShape(
+        property, packageExported, propertyType, domain, range, lowerbound, upperbound);
+  }
+
+  @Override
+  public void handlePropertyConnector(
+      Boolean derived,
+      EAConnector source,
+      Resource property,
+      Scope scope,
+      PackageExported packageExported,
+      Resource ontology,
+      Resource propertyType,
+      Resource domain,
+      Resource range,
+      RangeData rangedata,
+      String lowerbound,
+      String upperbound,
+      List<Resource> superProperties) {
+    addPropertyShape(
+        property, packageExported, propertyType, domain, range, lowerbound, upperbound);
+  }
+
+  @Override
+  public void handleInstance(
+      EAAttribute source, Resource instance, Scope scope, Resource ontology, Resource clazz) {}
+
+  /**
+   * Writes the shapes to the specified turtle file.
+   *
+   * @param outputFile the desired output turtle file
+   * @param compression the compression to apply to the file
+   * @throws IOException if an exception occurred while writing the file
+   */
+  public void writeToFile(Path outputFile, Compression compression) throws IOException {
+    Files.createDirectories(outputFile.toAbsolutePath().getParent());
+    try (Writer w = compression.newBufferedWriter(outputFile)) {
+      write(w);
+    }
+  }
+
+  /**
+   * Writes the shapes as turtle.
+   *
+   * @param writer the writer to write to, it is not closed
+   * @throws IOException if an exception occurred while writing
+   */
+  public void write(Writer writer) throws IOException {
+    Model model = new SortedOutputModel();
+    for (Map.Entry<String, Resource> entry : prefixes.entrySet())
+      model.setNsPrefix(entry.getKey(), entry.getValue().getURI());
+    if (prefix != null) model.setNsPrefix(prefix, baseURI);
+    model.setNsPrefix("sh", SH);
+    if (!prefixes.containsKey("shapes")) model.setNsPrefix("shapes", shapeBase());
+
+    Set<String> used = new HashSet<>();
+    for (NodeShape shape : shapes.values()) {
+      Resource nodeShape = model.createResource(uniqueURI(shapeBase() + shape.name, used));
+      model.add(nodeShape, RDF.type, NODE_SHAPE);
+      model.add(nodeShape, TARGET_CLASS, shape.clazz);
+
+      for (PropertyShape property : shape.properties.values()) {
+        Resource propertyShape =
+            model.createResource(
+                uniqueURI(nodeShape.getURI() + "/" + localName(property.path), used));
+        model.add(nodeShape, PROPERTY, propertyShape);
+        model.add(propertyShape, RDF.type, PROPERTY_SHAPE);
+        model.add(propertyShape, PATH, property.path);
+        if (property.minCount > 0)
+          model.add(
+              propertyShape,
+              MIN_COUNT,
+              Integer.toString(property.minCount),
+              XSDDatatype.XSDinteger);
+        if (property.maxCount >= 0)
+          model.add(
+              propertyShape,
+              MAX_COUNT,
+              Integer.toString(property.maxCount),
+              XSDDatatype.XSDinteger);
+
+        List<Resource> allowedValues =
+            property.range == null ? null : enumerations.get(property.range);
+        if (allowedValues != null) {
+          model.add(propertyShape, IN, model.createList(allowedValues.iterator()));
+        } else if (property.range != null && OWL.DatatypeProperty.equals(property.type)) {
+          model.add(propertyShape, DATATYPE, property.range);
+        } else if (property.range != null && OWL.ObjectProperty.equals(property.type)) {
+          model.add(propertyShape, CLASS, property.range);
+        }
+      }
+    }
+    model.write(writer, "TTL");
+  }
+
+  private void addPropertyShape(
+      Resource property,
+      PackageExported packageExported,
+      Resource propertyType,
+      Resource domain,
+      Resource range,
+      String lowerbound,
+      String upperbound) {
+    // Only the properties of the converted package are constrained.
+    if (packageExported != PackageExported.ACTIVE_PACKAGE || domain == null) return;
+    if (!property.isURIResource()) return;
+    shapeFor(domain)
+        .properties
+        .putIfAbsent(
+            property.getURI(),
+            new PropertyShape(
+                property, propertyType, range, parseBound(lowerbound), parseBound(upperbound)));
+  }
+
+  private NodeShape shapeFor(Resource clazz) {
+    return shapes.computeIfAbsent(clazz.toString(), k -> new NodeShape(clazz));
+  }
+
+  private String shapeBase() {
+    if (shapesNamespace != null) return shapesNamespace;
+    String uri = ontology == null ? "" : ontology.getURI();
+    if (uri.endsWith("#")) uri = uri.substring(0, uri.length() - 1);
+    return uri.endsWith("/") ? uri + "shapes#" : uri + "/shapes#";
+  }
+
+  /** The bound as a number, or -1 if it is unbounded or not a number. */
+  private static int parseBound(String bound) {
+    if (bound == null) return -1;
+    try {
+      return Integer.parseInt(bound.trim());
+    } catch (NumberFormatException e) {
+      // Such as "*" or "n".
+      return -1;
+    }
+  }
+
+  private static String localName(Resource resource) {
+    String name = resource.isURIResource() ? resource.getLocalName() : null;
+    return name == null || name.isEmpty() ? "shape" : name;
+  }
+
+  /** The URI, with a number appended if it was used before. */
+  private static String uniqueURI(String uri, Set<String> used) {
+    String unique = uri;
+    for (int i = 2; !used.add(unique); i++) unique = uri + i;
+    return unique;
+  }
+
+  private static class NodeShape {
+    private final Resource clazz;
+    private final String name;
+    /** The property shapes by path, in order of conversion. */
+    private final Map<String, PropertyShape> properties = new LinkedHashMap<>();
+
+    private NodeShape(Resource clazz) {
+      this.clazz = clazz;
+      this.name = localName(clazz) + "Shape";
+    }
+  }
+
+  private static class PropertyShape {
+    private final Resource path;
+    private final Resource type;
+    private final Resource range;
+    private final int minCount;
+    private final int maxCount;
+
+    private PropertyShape(
+        Resource path, Resource type, Resource range, int minCount, int maxCount) {
+      this.path = path;
+      this.type = type;
+      this.range = range;
+      this.minCount = minCount;
+      this.maxCount = maxCount;
+    }
+  }
+}
@@ -0,0 +1,302 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
+
+import com.github.informatievlaanderen.oslo_ea_to_rdf.Compression;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAAttribute;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAConnector;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAElement;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAPackage;
+import com.google.common.base.Charsets;
+import com.google.gson.stream.JsonWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.jena.rdf.model.Resource;
+
+/**
+ * Output handler that splits the Turtle output in one file (shard) per namespace, so that consumers
+ * can load only the vocabularies they need. Every term is sent to a {@link RDFOutputHandler} for
+ * the base URI of the package that defines it, as assigned by {@link UriAssigner}. Terms outside
+ * every package, such as external terms, are sent to the shard for the namespace of their URI. The
+ * ontology itself is described in every shard.
+ *
+ * <p>{@link #writeToDirectory(Path, Compression)} writes the shards in parallel, together with a
+ * manifest listing the shards. Closing the handler closes the handler of every shard.
+ */
+public class ShardedOutputHandler implements OutputHandler, Closeable {
+  /** The file name of the manifest. */
+  public static final String MANIFEST = "index.json";
+
+  private static final String OTHER = "other";
+
+  private final Map<String, Resource> prefixes;
+  private final TagHelper tagHelper;
+  private final boolean fullOutput;
+  private final boolean streaming;
+  /** Shards by namespace, in order of creation. */
+  private final Map<String, Shard> shards = new LinkedHashMap<>();
+  /** The base URIs of the packages, longest first so that nested base URIs match first. */
+  private final List<String> packageURIs = new ArrayList<>();
+
+  private EAPackage ontologyPackage;
+  private Resource ontology;
+  private String ontologyPrefix;
+  private String ontologyBaseURI;
+
+  /**
+   * @param prefixes the prefixes used in all shards
+   * @param fullOutput see {@link RDFOutputHandler}
+   * @param streaming see {@link RDFOutputHandler}
+   */
+  public ShardedOutputHandler(
+      Map<String, Resource> prefixes, TagHelper tagHelper, boolean fullOutput, boolean streaming) {
+    this.prefixes = prefixes;
+    this.tagHelper = tagHelper;
+    this.fullOutput = fullOutput;
+    this.streaming = streaming;
+  }
+
+  @Override
+  public void handleURIs(UriAssigner.Result uris) {
+    packageURIs.clear();
+    uris.packageURIs.values().stream()
+        .distinct()
+        .sorted(Comparator.comparingInt(String::length).reversed())
+        .forEach(packageURIs::add);
+  }
+
+  @Override
+  public void handleOntology(
+      EAPackage sourcePackage, Resource ontology, String prefix, String baseURI) {
+    this.ontologyPackage = sourcePackage;
+    this.ontology = ontology;
+    this.ontologyPrefix = prefix;
+    this.ontologyBaseURI = baseURI;
+    for (Shard shard : shards.values())
+      shard.handler.handleOntology(sourcePackage, ontology, prefix, baseURI);
+  }
+
+  @Override
+  public void handleClass(
+      EAElement sourceElement,
+      Resource clazz,
+      Scope scope,
+      Resource ontology,
+      List<Resource> parentClasses,
+      List<EAElement> parentElements,
+      Map<EAElement, String> elementURIs,
+      List<Resource> allowedValues) {
+    shardFor(clazz, scope == Scope.FULL_DEFINITON)
+        .handler
+        .handleClass(
+            sourceElement,
+            clazz,
+            scope,
+            ontology,
+            parentClasses,
+            parentElements,
+            elementURIs,
+            allowedValues);
+  }
+
+  @Override
+  public void handleProperty(
+      PropertySource source,
+      Resource property,
+      Scope scope,
+      PackageExported packageExported,
+      Resource ontology,
+      Resource propertyType,
+      Resource domain,
+      Resource range,
+      RangeData rangedata,
+      String lowerbound,
+      String upperbound,
+      List<Resource> superProperties) {
+    shardFor(property, packageExported == PackageExported.ACTIVE_PACKAGE)
+        .handler
+        .handleProperty(
+            source,
+            property,
+            scope,
+            packageExported,
+            ontology,
+            propertyType,
+            domain,
+            range,
+            rangedata,
+            lowerbound,
+            upperbound,
+            superProperties);
+  }
+
+  @Override
+  public void handlePropertyConnector(
+      Boolean derived,
+      EAConnector source,
+      Resource property,
+      Scope scope,
+      PackageExported packageExported,
+      Resource ontology,
+      Resource propertyType,
+      Resource domain,
+      Resource range,
+      RangeData rangedata,
+      String lowerbound,
+      String upperbound,
+      List<Resource> superProperties) {
+    shardFor(property, packageExported == PackageExported.ACTIVE_PACKAGE)
+        .handler
+        .handlePropertyConnector(
+            derived,
+            source,
+            property,
+            scope,
+            packageExported,
+            ontology,
+            propertyType,
+            domain,
+            range,
+            rangedata,
+            lowerbound,
+            upperbound,
+            superProperties);
+  }
+
+  @Override
+  public void handleInstance(
+      EAAttribute source, Resource instance, Scope scope, Resource ontology, Resource clazz) {
+    shardFor(instance, scope == Scope.FULL_DEFINITON)
+        .handler
+        .handleInstance(source, instance, scope, ontology, clazz);
+  }
+
+  /**
+   * Writes every shard to its own Turtle file in the directory, in parallel, followed by the
+   * manifest {@value #MANIFEST}.
+   *
+   * @param directory the directory to write to, it is created if needed
+   * @param compression the compression of the shards, the manifest is not compressed
+   * @throws IOException if an exception occurred while writing a file
+   */
+  public void writeToDirectory(Path directory, Compression compression) throws IOException {
+    Files.createDirectories(directory);
+    assignFileNames(compression);
+    try {
+      shards.values().parallelStream()
+          .forEach(
+              shard -> {
+                try {
+                  shard.handler.writeToFile(directory.resolve(shard.fileName), compression);
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    writeManifest(directory.resolve(MANIFEST));
+  }
+
+  @Override
+  public void close() {
+    for (Shard shard : shards.values()) shard.handler.close();
+  }
+
+  private Shard shardFor(Resource term, boolean active) {
+    String namespace = term.isURIResource() ? namespaceOf(term) : null;
+    if (namespace != null && namespace.isEmpty()) namespace = null;
+    // Terms without namespace (relative URIs) share a single shard.
+    String key = namespace == null ? OTHER : namespace;
+    Shard shard = shards.get(key);
+    if (shard == null) {
+      shard = new Shard(namespace);
+      if (ontology != null)
+        shard.handler.handleOntology(ontologyPackage, ontology, ontologyPrefix, ontologyBaseURI);
+      shards.put(key, shard);
+    }
+    shard.terms++;
+    shard.active |= active;
+    return shard;
+  }
+
+  /** The base URI of the package defining the term, or the namespace of an external term. */
+  private String namespaceOf(Resource term) {
+    String uri = term.getURI();
+    for (String packageURI : packageURIs) {
+      // Enumeration values are minted below the base URI without its trailing "#" or "/".
+      String instanceBase = packageURI.replaceFirst("[#/]$", "") + "/";
+      if (uri.startsWith(packageURI) || uri.startsWith(instanceBase)) return packageURI;
+    }
+    return term.getNameSpace();
+  }
+
+  /** Names each shard after the prefix of its namespace, if there is one. */
+  private void assignFileNames(Compression compression) {
+    Set<String> used = new HashSet<>();
+    used.add(MANIFEST);
+    int count = 0;
+    for (Shard shard : shards.values()) {
+      shard.prefix = prefixOf(shard.namespace);
+      String name = shard.prefix != null ? shard.prefix : shard.namespace == null ? OTHER : null;
+      while (name == null || !used.add(name + ".ttl" + compression.getExtension()))
+        name = "shard-" + ++count;
+      shard.fileName = name + ".ttl" + compression.getExtension();
+    }
+  }
+
+  private String prefixOf(String namespace) {
+    if (namespace == null) return null;
+    if (namespace.equals(ontologyBaseURI) && ontologyPrefix != null) return ontologyPrefix;
+    for (Map.Entry<String, Resource> entry : prefixes.entrySet())
+      if (namespace.equals(entry.getValue().getURI())) return entry.getKey();
+    return null;
+  }
+
+  private void writeManifest(Path file) throws IOException {
+    try (Writer writer = Files.newBufferedWriter(file, Charsets.UTF_8)) {
+      JsonWriter json = new JsonWriter(writer);
+      json.setIndent("  ");
+      json.beginObject();
+      json.name("ontology").value(ontology == null ? null : ontology.getURI());
+      json.name("shards").beginArray();
+      for (Shard shard : shards.values()) {
+        json.beginObject();
+        json.name("file").value(shard.fileName);
+        json.name("namespace").value(shard.namespace);
+        json.name("prefix").value(shard.prefix);
+        json.name("terms").value(shard.terms);
+        json.name("active").value(shard.active);
+        json.endObject();
+      }
+      json.endArray();
+      json.endObject();
+      json.flush();
+    }
+  }
+
+  private class Shard {
+    private final String namespace;
+    private final RDFOutputHandler handler;
+    private int terms;
+    /** Whether the shard contains terms defined by the converted package. */
+    private boolean active;
+
+    private String prefix;
+    private String fileName;
+
+    private Shard(String namespace) {
+      this.namespace = namespace;
+      this.handler = new RDFOutputHandler(prefixes, tagHelper, fullOutput, streaming);
+    }
+  }
+}
@@ -1,18 +1,18 @@
 package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
 
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics.DiagnosticCode;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics.Diagnostics;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.*;
 import com.google.common.base.Joiner;
 import com.google.common.base.MoreObjects;
-import com.google.common.base.Strings;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import java.io.BufferedWriter;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.vocabulary.OWL;
 import org.apache.jena.vocabulary.RDFS;
@@ -30,77 +30,60 @@ public class TSVOutputHandler implements OutputHandler {
 
   private BufferedWriter writer;
   private TagHelper tagHelper;
+  private Diagnostics diagnostics;
   private EADiagram diagram;
+  private DiagramIndex diagramIndex;
+  private ClassHierarchy hierarchy;
   private List<String> tagNames;
+  private TSVRowWriter rows;
 
   public TSVOutputHandler(BufferedWriter writer, TagHelper tagHelper, EADiagram diagram)
       throws IOException {
     this.writer = writer;
     this.tagHelper = tagHelper;
+    // Reported under the same logger as LOGGER.
+    this.diagnostics = tagHelper.getDiagnostics().forSource(Converter.class);
     this.diagram = diagram;
+    this.hierarchy = ClassHierarchy.of(diagram, tagHelper);
+    this.diagramIndex = tagHelper.getDiagramIndex(diagram);
     this.tagNames = tagHelper.getTagNames(tagHelper.getContentMappings(Scope.FULL_DEFINITON));
 
-    write("EA-Type");
-    write("EA-Package");
-    write("EA-Name");
-    write("EA-GUID");
-    write("EA-Parent");
-    write("EA-Domain");
-    write("EA-Domain-GUID");
-    write("EA-Range");
-
-    for (String tagName : tagNames) {
-      write(tagName);
-    }
-
-    write("external term");
-    write("namespace");
-    write("localname");
-    write("type");
-    write("domain");
-    write("range");
-    write("parent");
-    write("min card");
-    writeNl("max card");
+    this.rows =
+        new TSVRowWriter(
+            writer,
+            Arrays.asList(
+                "EA-Type",
+                "EA-Package",
+                "EA-Name",
+                "EA-GUID",
+                "EA-Parent",
+                "EA-Domain",
+                "EA-Domain-GUID",
+                "EA-Range"),
+            tagNames,
+            Arrays.asList(
+                "external term",
+                "namespace",
+                "localname",
+                "type",
+                "domain",
+                "range",
+                "parent",
+                "min card",
+                "max card"));
   }
 
   private DiagramElement findInDiagram(EAElement element) {
-    for (DiagramElement diagramElement : diagram.getElements()) {
-      if (diagramElement.getReferencedElement().equals(element)) return diagramElement;
-    }
-    return null;
+    return diagramIndex.getDiagramElement(element);
   }
 
   private DiagramConnector findInDiagram(EAConnector connector) {
-    for (DiagramElement element : diagram.getElements()) {
-      for (DiagramConnector rawConnector : element.getConnectors()) {
-        for (EAConnector conn :
-            Util.extractAssociationElement(
-                rawConnector.getReferencedConnector(), rawConnector.getLabelDirection())) {
-          if (connector.equals(conn)) return rawConnector;
-        }
-      }
-    }
-    return null;
+    return diagramIndex.getDiagramConnector(connector);
   }
 
-  private List<String> extactTagValues(List<TagData> tagData) {
-    List<String> result = new ArrayList<>();
-
-    for (String tagName : tagNames) {
-      String s =
-          tagData.stream()
-              .filter(t -> tagName.equals(t.getOriginTag()))
-              .findFirst()
-              .map(
-                  t ->
-                      t.getValue().isLiteral()
-                          ? t.getValue().asLiteral().getString()
-                          : t.getValue().asResource().getURI())
-              .orElse("");
-      result.add(s);
-    }
-    return result;
+  @Override
+  public void handleURIs(UriAssigner.Result uris) {
+    // Terms are handled together with their URI.
   }
 
   @Override
@@ -115,9 +98,7 @@ public class TSVOutputHandler implements OutputHandler {
     write(""); // Domain GUID
     write(""); // Range
 
-    for (String s : tagNames) {
-      write("");
-    }
+    rows.addTags(Collections.emptyList());
 
     write(""); // external term
     write(ontology.getNameSpace()); // namespace
@@ -145,18 +126,14 @@ public class TSVOutputHandler implements OutputHandler {
     write(sourceElement.getName());
     write(sourceElement.getGuid());
 
-    List<EAElement> parents = findParents(findInDiagram(sourceElement));
+    List<EAElement> parents = hierarchy.getParents(sourceElement);
     write(JOINER.join(Lists.transform(parents, EAElement::getName)));
     write(""); // Domain
     write(""); // Domain GUID
     write(""); // Range
 
-    for (String tag :
-        extactTagValues(
-            tagHelper.getTagDataFor(
-                sourceElement, tagHelper.getContentMappings(Scope.FULL_DEFINITON)))) {
-      write(tag);
-    }
+    rows.addTags(
+        tagHelper.getTagDataFor(sourceElement, tagHelper.getContentMappings(Scope.FULL_DEFINITON)));
 
     write(String.valueOf(scope != Scope.FULL_DEFINITON));
     write(clazz.getNameSpace());
@@ -217,13 +194,10 @@ public class TSVOutputHandler implements OutputHandler {
       }
     }
 
-    for (String tag :
-        extactTagValues(
-            tagHelper.getTagDataFor(
-                MoreObjects.firstNonNull(source.attribute, source.connector),
-                tagHelper.getContentMappings(Scope.FULL_DEFINITON)))) {
-      write(tag);
-    }
+    rows.addTags(
+        tagHelper.getTagDataFor(
+            MoreObjects.firstNonNull(source.attribute, source.connector),
+            tagHelper.getContentMappings(Scope.FULL_DEFINITON)));
 
     write(Boolean.toString(scope != Scope.FULL_DEFINITON));
     write(property.getNameSpace());
@@ -248,11 +222,8 @@ public class TSVOutputHandler implements OutputHandler {
     write(source.getElement().getGuid()); // Domain GUID
     write(""); // Range
 
-    for (String tag :
-        extactTagValues(
-            tagHelper.getTagDataFor(source, tagHelper.getContentMappings(Scope.FULL_DEFINITON)))) {
-      write(tag);
-    }
+    rows.addTags(
+        tagHelper.getTagDataFor(source, tagHelper.getContentMappings(Scope.FULL_DEFINITON)));
 
     write(Boolean.toString(scope != Scope.FULL_DEFINITON));
     write(instance.getNameSpace());
@@ -281,50 +252,22 @@ public class TSVOutputHandler implements OutputHandler {
       String lowerbound,
       String upperbound,
       List<Resource> superProperties) {
-    LOGGER.warn("HANDLEPROPERTYCONNECTOR NOT HANDLED: {} - {}", source.getName(), source.getGuid());
-  }
-
-  private List<EAElement> findParents(DiagramElement child) {
-    return child.getConnectors().stream()
-        .map(
-            dConn -> {
-              EAConnector conn = dConn.getReferencedConnector();
-              if (!EAConnector.TYPE_GENERALIZATION.equals(conn.getType())
-                  || Boolean.valueOf(tagHelper.getOptionalTag(conn, Tag.IGNORE, "false"))
-                  || dConn.isHidden()
-                  || EAConnector.Direction.BIDIRECTIONAL.equals(conn.getDirection())
-                  || EAConnector.Direction.UNSPECIFIED.equals(conn.getDirection())) return null;
-              if (EAConnector.Direction.SOURCE_TO_DEST.equals(conn.getDirection())) {
-                if (child.getReferencedElement().equals(conn.getSource()))
-                  return conn.getDestination();
-                else return null;
-              } else {
-                if (child.getReferencedElement().equals(conn.getDestination()))
-                  return conn.getSource();
-                else return null;
-              }
-            })
-        .filter(Objects::nonNull)
-        .collect(Collectors.toList());
+    diagnostics.report(
+        DiagnosticCode.NOT_HANDLED,
+        source,
+        "HANDLEPROPERTYCONNECTOR",
+        source.getName(),
+        source.getGuid());
   }
 
   private void write(String s) {
-    try {
-      writer.write("\"");
-      writer.write(Strings.nullToEmpty(s).replaceAll("\"", "\"\""));
-      writer.write("\"");
-      writer.write("\t");
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    }
+    rows.add(s);
   }
 
   private void writeNl(String s) {
+    rows.add(s);
     try {
-      writer.write("\"");
-      writer.write(Strings.nullToEmpty(s).replaceAll("\"", "\"\""));
-      writer.write("\"");
-      writer.write("\n");
+      rows.endRow();
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
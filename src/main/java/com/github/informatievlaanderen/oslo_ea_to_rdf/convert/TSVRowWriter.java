@@ -0,0 +1,107 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
+
+import com.google.common.base.Strings;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.QuoteMode;
+import org.apache.jena.rdf.model.RDFNode;
+
+/**
+ * Writes the rows of the TSV table, with every value quoted. A row consists of some leading
+ * columns, a column per configured tag and some trailing columns, and is filled from left to right
+ * into a reused array.
+ *
+ * <p>The tag columns are looked up by tag name in a map that is built once, so that the tag values
+ * of a row are filled in a single pass over its tag data.
+ */
+public class TSVRowWriter {
+  private static final CSVFormat FORMAT =
+      CSVFormat.TDF.withQuoteMode(QuoteMode.ALL).withRecordSeparator('\n');
+
+  private final CSVPrinter printer;
+  private final int tagStart;
+  private final int tagCount;
+  /** Column (relative to the first tag column) of the first occurrence of each tag name. */
+  private final Map<String, Integer> tagColumns = new HashMap<>();
+  /** For each tag column, the column holding the value of the same tag. */
+  private final int[] sameTag;
+
+  private final String[] row;
+  private int position;
+
+  /**
+   * Creates the writer and writes the header row.
+   *
+   * @param out where to write the rows to, it is not closed by this writer
+   * @param leading the names of the columns before the tag columns
+   * @param tagNames the names of the tags, in column order
+   * @param trailing the names of the columns after the tag columns
+   */
+  public TSVRowWriter(
+      Appendable out, List<String> leading, List<String> tagNames, List<String> trailing)
+      throws IOException {
+    this.printer = new CSVPrinter(out, FORMAT);
+    this.tagStart = leading.size();
+    this.tagCount = tagNames.size();
+    this.sameTag = new int[tagCount];
+    for (int i = 0; i < tagCount; i++) {
+      Integer first = tagColumns.putIfAbsent(tagNames.get(i), i);
+      sameTag[i] = first == null ? i : first;
+    }
+    this.row = new String[leading.size() + tagCount + trailing.size()];
+
+    for (String name : leading) add(name);
+    for (String name : tagNames) add(name);
+    for (String name : trailing) add(name);
+    endRow();
+  }
+
+  /** Sets the next column of the current row, {@code null} is written as an empty value. */
+  public void add(String value) {
+    row[position++] = Strings.nullToEmpty(value);
+  }
+
+  /**
+   * Sets all tag columns of the current row. A column gets the value of the first tag data with
+   * that tag name, or an empty value if there is none.
+   *
+   * @param tagData the tag data of the object of the row
+   * @throws IllegalStateException if the leading columns of the row are not set yet
+   */
+  public void addTags(List<TagData> tagData) {
+    if (position != tagStart) throw new IllegalStateException("Not at the first tag column.");
+    Arrays.fill(row, tagStart, tagStart + tagCount, null);
+    for (TagData data : tagData) {
+      Integer column = tagColumns.get(data.getOriginTag());
+      if (column != null && row[tagStart + column] == null)
+        row[tagStart + column] = Strings.nullToEmpty(valueOf(data.getValue()));
+    }
+    for (int i = 0; i < tagCount; i++) {
+      String value = row[tagStart + sameTag[i]];
+      row[tagStart + i] = value == null ? "" : value;
+    }
+    position += tagCount;
+  }
+
+  /**
+   * Writes the current row and starts a new one.
+   *
+   * @throws IllegalStateException if not all columns of the row are set
+   */
+  public void endRow() throws IOException {
+    if (position != row.length)
+      throw new IllegalStateException(
+          "Row has " + position + " values, expected " + row.length + ".");
+    printer.printRecord((Object[]) row);
+    position = 0;
+  }
+
+  private static String valueOf(RDFNode value) {
+    return value.isLiteral() ? value.asLiteral().getString() : value.asResource().getURI();
+  }
+}
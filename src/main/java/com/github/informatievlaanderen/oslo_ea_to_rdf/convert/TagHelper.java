@@ -1,19 +1,23 @@
 package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
 
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.JSONLDOntology.JsonFields;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.JSONLDOntology.LanguageStringDescription;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.config.Configuration;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.config.Mapping;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics.DiagnosticCode;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics.Diagnostics;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EADiagram;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAObject;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EATag;
-import com.google.common.base.Joiner;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.profile.Profiler;
 import com.google.common.base.Strings;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
-import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jena.datatypes.RDFDatatype;
 import org.apache.jena.graph.NodeFactory;
@@ -30,7 +34,6 @@ import org.slf4j.LoggerFactory;
  * @author Dieter De Paepe
  */
 public class TagHelper {
-  private static final Joiner JOINER = Joiner.on(", ");
   private static final Logger LOGGER = LoggerFactory.getLogger(TagHelper.class);
   /**
    * Tag value that indicates the tag note is to be used instead. This allows users to use text
@@ -39,9 +42,47 @@ public class TagHelper {
   public static final String USE_NOTE_VALUE = "NOTE";
 
   private Configuration config;
+  private final Diagnostics diagnostics;
+  private final Profiler profiler;
+  private final UriCache uriCache = new UriCache();
+  private final Map<EADiagram, DiagramIndex> diagramIndices = new HashMap<>();
 
   public TagHelper(Configuration config) {
+    this(config, new Diagnostics());
+  }
+
+  public TagHelper(Configuration config, Diagnostics diagnostics) {
+    this(config, diagnostics, Profiler.DISABLED);
+  }
+
+  public TagHelper(Configuration config, Profiler profiler) {
+    this(config, new Diagnostics(), profiler);
+  }
+
+  public TagHelper(Configuration config, Diagnostics diagnostics, Profiler profiler) {
     this.config = config;
+    this.diagnostics = diagnostics.forSource(TagHelper.class);
+    this.profiler = profiler;
+  }
+
+  /** The cache of Jena resources shared by all components of the conversion. */
+  public UriCache getUriCache() {
+    return uriCache;
+  }
+
+  /** The lookups for the given diagram, built on first use and then shared. */
+  public DiagramIndex getDiagramIndex(EADiagram diagram) {
+    return diagramIndices.computeIfAbsent(diagram, d -> new DiagramIndex(d, this));
+  }
+
+  /** The sink to which all problems found during conversion are reported. */
+  public Diagnostics getDiagnostics() {
+    return diagnostics;
+  }
+
+  /** The profiler that times the phases of the conversion, and counts tag lookups. */
+  public Profiler getProfiler() {
+    return profiler;
   }
 
   /**
@@ -71,7 +112,7 @@ public class TagHelper {
             new TagData(
                 mapping.getTag(),
                 mapping.getProperty(),
-                ResourceFactory.createResource(value),
+                uriCache.resource(value),
                 value));
       } else if (Strings.isNullOrEmpty(mapping.getType())
           || RDF.dtLangString.getURI().equals(mapping.getType())) {
@@ -105,6 +146,7 @@ public class TagHelper {
   public List<TagData> getTagDataFor(EAObject object, Iterable<Mapping> mappings) {
     List<TagData> result = new ArrayList<>();
     for (Mapping mapping : mappings) {
+      profiler.count("tagLookups");
       List<String> tagValues = getTagValues(object.getTags(), mapping.getTag());
       LOGGER.debug("search tag {}", mapping.getTag());
       // fallback tags field should not be empty for this debug line: LOGGER.debug("fallback {}",
@@ -121,25 +163,25 @@ public class TagHelper {
         LOGGER.debug(
             "found tag value {} {} in object {} using {}",
             mapping.getTag(),
-            tagValues.toString(),
-            object.getTags().toString(),
+            tagValues,
+            object.getTags(),
             b);
       }
       ;
 
       if (tagValues.isEmpty() && mapping.isMandatory()) {
-        LOGGER.warn("Missing \"{}\" tag for \"{}\".", mapping.getTag(), object.getPath());
+        diagnostics.report(DiagnosticCode.MISSING_TAG, object, mapping.getTag(), object);
         tagValues = Collections.singletonList("TODO");
       }
 
-      LOGGER.debug("found tagvalues {}", tagValues.toString());
+      LOGGER.debug("found tagvalues {}", tagValues);
       if (RDFS.Resource.getURI().equals(mapping.getType())) {
         for (String tagValue : tagValues)
           result.add(
               new TagData(
                   mapping.getTag(),
                   mapping.getProperty(),
-                  ResourceFactory.createResource(tagValue),
+                  uriCache.resource(tagValue),
                   tagValue));
       } else if (Strings.isNullOrEmpty(mapping.getType())
           || RDF.dtLangString.getURI().equals(mapping.getType())) {
@@ -167,22 +209,23 @@ public class TagHelper {
       }
     }
 
-    LOGGER.debug("tags found {}", result.toString());
+    LOGGER.debug("tags found {}", result);
     return result;
   }
 
   /**
-   * Collects all values and return as a list of stringified JsonObjects for each of the specified
-   * mappings for the given object.
+   * Collects all values as JSON members for each of the specified mappings for the given object.
+   * Values of mappings with a language are grouped per tag in an object keyed on the language.
    *
    * @param object the object from which to extract the tags
    * @param mappings all mappings to include
    * @return never {@code null}
    */
-  public List<String> getTagDataForJson(EAObject object, Iterable<Mapping> mappings) {
-    List<String> result = new ArrayList<>();
+  public JsonFields getTagDataForJson(EAObject object, Iterable<Mapping> mappings) {
+    JsonFields result = new JsonFields();
     HashMap<String, List<LanguageStringDescription>> langresult = new HashMap<>();
     for (Mapping mapping : mappings) {
+      profiler.count("tagLookups");
       List<String> tagValues = getTagValues(object.getTags(), mapping.getTag());
       LOGGER.debug("search tag {}", mapping.getTag());
       // fallback tags field should not be empty for this debug line: LOGGER.debug("fallback {}",
@@ -199,18 +242,18 @@ public class TagHelper {
         LOGGER.debug(
             "found tag value {} {} in object {} using {}",
             mapping.getTag(),
-            tagValues.toString(),
-            object.getTags().toString(),
+            tagValues,
+            object.getTags(),
             b);
       }
       ;
 
       if (tagValues.isEmpty() && mapping.isMandatory()) {
-        LOGGER.warn("Missing \"{}\" tag for \"{}\".", mapping.getTag(), object.getPath());
+        diagnostics.report(DiagnosticCode.MISSING_TAG, object, mapping.getTag(), object);
         tagValues = Collections.singletonList("TODO");
       }
 
-      LOGGER.debug("found tagvalues {}", tagValues.toString());
+      LOGGER.debug("found tagvalues {}", tagValues);
       /* no grouping done per tag */
       List<LanguageStringDescription> initl = new ArrayList<>();
       if (mapping.getLang() != null) {
@@ -231,8 +274,7 @@ public class TagHelper {
         ;
       } else {
         for (String tagValue : tagValues) {
-          result.add(
-              "\"" + mapping.getTag() + "\" : \"" + StringEscapeUtils.escapeJson(tagValue) + "\"");
+          result.add(mapping.getTag(), tagValue);
         }
         ;
       }
@@ -240,21 +282,13 @@ public class TagHelper {
     }
     ;
     for (String i : langresult.keySet()) {
-      List<String> lres = new ArrayList<>();
-      for (LanguageStringDescription lsd : langresult.get(i)) {
-        lres.add(
-            "\""
-                + lsd.getLanguage()
-                + "\": \""
-                + StringEscapeUtils.escapeJson(lsd.getValue())
-                + "\"");
-      }
-      ;
-      String lresl = JOINER.join(lres);
-      result.add("\"" + i + "\" : {" + lresl + "}");
+      JsonFields lres = new JsonFields();
+      for (LanguageStringDescription lsd : langresult.get(i))
+        lres.add(lsd.getLanguage(), lsd.getValue());
+      result.add(i, lres);
     }
 
-    LOGGER.debug("tags found {}", result.toString());
+    LOGGER.debug("tags found {}", result);
     return result;
   }
 
@@ -284,18 +318,16 @@ public class TagHelper {
   }
 
   public String getSingleValue(EAObject object, String tag, String backup, boolean warnIfMissing) {
+    profiler.count("tagLookups");
     List<String> values = getTagValues(object.getTags(), tag);
 
     if (values.isEmpty()) {
       if (warnIfMissing) {
-        LOGGER.warn("Missing \"{}\" tag for \"{}\".", tag, object.getPath());
+        diagnostics.report(DiagnosticCode.MISSING_TAG, object, tag, object);
       }
       return backup;
     } else if (values.size() > 1) {
-      LOGGER.warn(
-          "Multiple occurrences of tag \"{}\" where only one was expected for \"{}\".",
-          tag,
-          object.getPath());
+      diagnostics.report(DiagnosticCode.MULTIPLE_TAG_VALUES, object, tag, object);
       return values.get(0);
     } else {
       return values.get(0);
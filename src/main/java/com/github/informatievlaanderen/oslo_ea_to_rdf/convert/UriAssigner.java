@@ -2,14 +2,13 @@ package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
 
 import static com.github.informatievlaanderen.oslo_ea_to_rdf.convert.Tag.*;
 
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics.DiagnosticCode;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics.Diagnostics;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.*;
-import com.google.common.base.Joiner;
 import com.google.common.collect.*;
 import java.util.*;
 import org.apache.commons.lang.WordUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.jena.rdf.model.ResourceFactory;
-import org.apache.jena.shared.InvalidPropertyURIException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,9 +26,34 @@ public class UriAssigner {
   private final Logger LOGGER = LoggerFactory.getLogger(UriAssigner.class);
 
   private TagHelper tagHelper;
+  private Diagnostics diagnostics;
+  private UriCache uriCache;
+  private UriRegistry registry = new UriRegistry();
 
   public UriAssigner(TagHelper tagHelper) {
     this.tagHelper = tagHelper;
+    this.diagnostics = tagHelper.getDiagnostics().forSource(UriAssigner.class);
+    this.uriCache = tagHelper.getUriCache();
+  }
+
+  /**
+   * The URIs claimed so far by this assigner, including the connector URIs handed out by {@link
+   * #assignConnectorURI}.
+   */
+  public UriRegistry getRegistry() {
+    return registry;
+  }
+
+  /** Reports every URI that is used by more than one object of the same kind. */
+  public void reportConflicts() {
+    for (UriRegistry.Conflict conflict : registry.getConflicts()) {
+      diagnostics.report(
+          DiagnosticCode.DUPLICATE_URI,
+          null,
+          conflict.getKind().getDescription(),
+          conflict.getUri(),
+          conflict.getOwners());
+    }
   }
 
   public Result assignURIs(
@@ -54,99 +78,6 @@ public class UriAssigner {
     // assignConnectorURIs(packages, nameToPackages, packageURIs, connectorURIs, definingPackages,
     // connectorDirections);
 
-    // Build indexes for packages and elements
-    ListMultimap<String, EAPackage> packageIndex =
-        Multimaps.index(packageURIs.keySet(), packageURIs::get);
-    ListMultimap<String, EAElement> elementIndex =
-        Multimaps.index(elementURIs.keySet(), elementURIs::get);
-    ListMultimap<String, EAAttribute> instanceIndex =
-        Multimaps.index(instanceURIs.keySet(), instanceURIs::get);
-
-    // Build indexes for properties
-    ImmutableListMultimap.Builder<String, Object> builder = ImmutableListMultimap.builder();
-    for (Map.Entry<EAAttribute, String> entry : attributeURIs.entrySet())
-      builder.put(entry.getValue(), entry.getKey());
-    for (Map.Entry<EAConnector, String> entry : connectorURIs.entrySet())
-      builder.put(entry.getValue(), entry.getKey());
-    ListMultimap<String, Object> propertyIndex = builder.build();
-
-    // Check things having the same URI
-    Set<String> claimedKeys = new HashSet<>(packageIndex.keys());
-    for (Map.Entry<String, Collection<EAPackage>> entry : packageIndex.asMap().entrySet()) {
-      if (entry.getValue().size() > 1) {
-        Iterable<String> conflictingPackages =
-            Iterables.transform(entry.getValue(), EAObject::getPath);
-        LOGGER.warn(
-            "The following packages map to the same URI ({}): {}",
-            entry.getKey(),
-            Joiner.on(", ").join(conflictingPackages));
-        //                for (EAPackage pack : entry.getValue()) {
-        //                    String newKey = findUniqueKey(entry.getKey(), claimedKeys);
-        //                    claimedKeys.add(newKey);
-        //                    packageURIs.put(pack, newKey);
-        //                }
-      }
-    }
-
-    claimedKeys = new HashSet<>(elementIndex.keys());
-    for (Map.Entry<String, Collection<EAElement>> entry : elementIndex.asMap().entrySet()) {
-      if (entry.getValue().size() > 1) {
-        Iterable<String> conflictingElements =
-            Iterables.transform(entry.getValue(), EAObject::getPath);
-        LOGGER.warn(
-            "The following elements map to the same URI ({}): {}",
-            entry.getKey(),
-            Joiner.on(", ").join(conflictingElements));
-        //                for (EAElement element : entry.getValue()) {
-        //                    String newKey = findUniqueKey(entry.getKey(), claimedKeys);
-        //                    claimedKeys.add(newKey);
-        //                    elementURIs.put(element, newKey);
-        //                }
-      }
-    }
-
-    claimedKeys = new HashSet<>(instanceIndex.keys());
-    for (Map.Entry<String, Collection<EAAttribute>> entry : instanceIndex.asMap().entrySet()) {
-      if (entry.getValue().size() > 1) {
-        Iterable<String> conflictingElements =
-            Iterables.transform(entry.getValue(), EAObject::getPath);
-        LOGGER.warn(
-            "The following instances map to the same URI ({}): {}",
-            entry.getKey(),
-            Joiner.on(", ").join(conflictingElements));
-        //                for (EAAttribute instance : entry.getValue()) {
-        //                    String newKey = findUniqueKey(entry.getKey(), claimedKeys);
-        //                    claimedKeys.add(newKey);
-        //                    instanceURIs.put(instance, newKey);
-        //                }
-      }
-    }
-
-    claimedKeys = new HashSet<>(propertyIndex.keys());
-    for (Map.Entry<String, Collection<Object>> entry : propertyIndex.asMap().entrySet()) {
-      if (entry.getValue().size() > 1) {
-        Iterable<String> conflictingAttributes =
-            Iterables.transform(
-                Iterables.filter(entry.getValue(), EAAttribute.class), EAObject::getPath);
-        Iterable<String> conflictingConnectors =
-            Iterables.transform(
-                Iterables.filter(entry.getValue(), EAConnector.class), EAObject::getPath);
-        LOGGER.warn(
-            "The following properties (attribute or connector) map to the same URI ({}): {}",
-            entry.getKey(),
-            Joiner.on(", ").join(Iterables.concat(conflictingAttributes, conflictingConnectors)));
-        //                for (Object attributeOrConnection : entry.getValue()) {
-        //                    String newKey = findUniqueKey(entry.getKey(), claimedKeys);
-        //                    claimedKeys.add(newKey);
-        //                    if (attributeOrConnection instanceof EAAttribute) {
-        //                        attributeURIs.put((EAAttribute) attributeOrConnection, newKey);
-        //                    } else {
-        //                        connectorURIs.put(((EAConnector) attributeOrConnection), newKey);
-        //                    }
-        //                }
-      }
-    }
-
     return new Result(
         packageURIs,
         ontologyURIs,
@@ -169,6 +100,8 @@ public class UriAssigner {
       String namespace = packageURI.substring(0, packageURI.length() - 1);
       String ontologyURI = tagHelper.getOptionalTag(eaPackage, PACKAGE_ONTOLOGY_URI, namespace);
       packageURIs.put(eaPackage, packageURI);
+      claim(UriRegistry.Kind.PACKAGE, packageURI, eaPackage);
+      if (!ontologyURI.equals(namespace)) checkIRI(ontologyURI, eaPackage);
       ontologyURIs.put(eaPackage, ontologyURI);
     }
   }
@@ -194,22 +127,19 @@ public class UriAssigner {
         if (packageName != null) {
           Collection<EAPackage> referencedPackages = nameToPackages.get(packageName);
           if (referencedPackages.size() == 0) {
-            LOGGER.warn(
-                "Specified package \"{}\" for element \"{}\" was not found.",
-                packageName,
-                element.getPath());
+            diagnostics.report(
+                DiagnosticCode.PACKAGE_NOT_FOUND, element, packageName, "element", element);
           } else if (referencedPackages.size() == 1) {
             elementPackageURI = packageURIs.get(referencedPackages.iterator().next());
           } else {
-            LOGGER.warn(
-                "Ambiguous package name \"{}\" specified for element \"{}\", it matches multiple packages in the project.",
-                packageName,
-                element.getPath());
+            diagnostics.report(
+                DiagnosticCode.AMBIGUOUS_PACKAGE, element, packageName, "element", element);
             elementPackageURI = packageURIs.get(referencedPackages.iterator().next());
           }
         }
         String euri = extractURI(element, elementPackageURI);
         elementURIs.put(element, euri);
+        claim(UriRegistry.Kind.ELEMENT, euri, element);
         element.setURI(euri);
         element.setEffectiveName(extractEffectiveName(element));
 
@@ -222,17 +152,13 @@ public class UriAssigner {
           if (packageName != null) {
             Collection<EAPackage> referencedPackages = nameToPackages.get(packageName);
             if (referencedPackages.size() == 0) {
-              LOGGER.warn(
-                  "Specified package \"{}\" for attribute \"{}\" was not found.",
-                  packageName,
-                  attribute.getPath());
+              diagnostics.report(
+                  DiagnosticCode.PACKAGE_NOT_FOUND, attribute, packageName, "attribute", attribute);
             } else if (referencedPackages.size() == 1) {
               attributePackageURI = packageURIs.get(referencedPackages.iterator().next());
             } else {
-              LOGGER.warn(
-                  "Ambiguous package name \"{}\" specified for attribute \"{}\", it matches multiple packages in the project.",
-                  packageName,
-                  element.getPath());
+              diagnostics.report(
+                  DiagnosticCode.AMBIGUOUS_PACKAGE, attribute, packageName, "attribute", attribute);
               attributePackageURI = packageURIs.get(referencedPackages.iterator().next());
             }
           }
@@ -243,20 +169,20 @@ public class UriAssigner {
               namespace = namespace.substring(0, attributePackageURI.length() - 1);
 
             String localName0 = tagHelper.getOptionalTag(element, Tag.LOCALNAME, element.getName());
-            String localName = caseLocalNameTest(localName0, false, element.getName());
+            String localName = caseLocalNameTest(localName0, false, element);
 
             String instanceNamespace = namespace + "/" + localName + "/";
-            instanceURIs.put(attribute, extractURI(attribute, instanceNamespace));
+            String iuri = extractURI(attribute, instanceNamespace);
+            instanceURIs.put(attribute, iuri);
+            claim(UriRegistry.Kind.INSTANCE, iuri, attribute);
           } else {
             String uri = extractURIAttribute(attribute, attributePackageURI);
-            try {
-              ResourceFactory.createProperty(uri);
+            if (uriCache.isValidPropertyURI(uri)) {
               attributeURIs.put(attribute, uri);
-            } catch (InvalidPropertyURIException e) {
-              LOGGER.error(
-                  "Invalid property URI \"{}\", will ignore attribute {}.",
-                  uri,
-                  attribute.getPath());
+              claim(UriRegistry.Kind.PROPERTY, uri, attribute);
+            } else {
+              diagnostics.report(
+                  DiagnosticCode.INVALID_PROPERTY_URI, attribute, uri, "attribute", attribute);
             }
           }
         }
@@ -307,9 +233,7 @@ public class UriAssigner {
       String packageName = tagHelper.getOptionalTag(connector, Tag.DEFINING_PACKAGE, null);
       Collection<EAPackage> connectionPackage = nameToPackages.get(packageName);
       if (connectionPackage.size() >= 2) {
-        LOGGER.warn(
-            "Ambiguous package name specified for connector \"{}\", it matches multiple packages in the project.",
-            connector.getPath());
+        diagnostics.report(DiagnosticCode.AMBIGUOUS_CONNECTOR_PACKAGE, connector, connector);
         definingPackage = connectionPackage.iterator().next();
       } else if (connectionPackage.size() == 1) {
         definingPackage = connectionPackage.iterator().next();
@@ -318,51 +242,45 @@ public class UriAssigner {
         EAPackage dstPackage = connector.getDestination().getPackage();
         if (srcPackage.equals(dstPackage)) {
           definingPackage = srcPackage;
-          LOGGER.info(
-              "Assuming connector \"{}\" belongs to package \"{}\" based on source and target definition.",
-              connector.getPath(),
+          diagnostics.report(
+              DiagnosticCode.ASSUMED_CONNECTOR_PACKAGE,
+              connector,
+              connector,
               definingPackage.getName());
         }
       }
 
       if (connectorURI == null) {
         if (definingPackage == null) {
-          LOGGER.warn(
-              "Ignoring connector \"{}\" since it lacks a defining package.", connector.getPath());
+          diagnostics.report(DiagnosticCode.CONNECTOR_WITHOUT_PACKAGE, connector, connector);
           continue;
         }
 
         String packageURI = packageURIs.get(definingPackage);
         if (packageURI == null) {
-          LOGGER.warn(
-              "Connector \"{}\" is defined on an non existing package, it will be ignored.",
-              connector.getPath());
+          diagnostics.report(DiagnosticCode.CONNECTOR_ON_MISSING_PACKAGE, connector, connector);
           continue;
         }
 
         String localName0 = tagHelper.getOptionalTag(connector, LOCALNAME, connector.getName());
         if (localName0 == null) {
-          LOGGER.warn(
-              "Connector \"{}\" does not have a name, it will be ignored.", connector.getPath());
+          diagnostics.report(DiagnosticCode.CONNECTOR_WITHOUT_NAME, connector, connector);
           continue;
         }
-        String localName = caseLocalNameTest(localName0, false, connector.getPath());
+        String localName = caseLocalNameTest(localName0, false, connector);
         connectorURI = packageURI + localName;
       }
+      if (LOGGER.isDebugEnabled())
+        if (LOGGER.isDebugEnabled())
       LOGGER.debug("Connector \"{}\" has uri <{}>.", connector.getPath(), connectorURI);
 
-      try {
-        ResourceFactory.createProperty(connectorURI);
+      if (uriCache.isValidPropertyURI(connectorURI)) {
         definingPackages.put(connector, definingPackage);
         connectorURIs.put(connector, connectorURI);
-      } catch (InvalidPropertyURIException e) {
-        LOGGER.error(
-            "Invalid property URI \"{}\", will ignore connector {}.",
-            connectorURI,
-            connector.getPath());
-      } catch (Exception e) {
-        LOGGER.debug("Exception \"{}\" has happend", e);
-        throw e;
+        claim(UriRegistry.Kind.PROPERTY, connectorURI, connector);
+      } else {
+        diagnostics.report(
+            DiagnosticCode.INVALID_PROPERTY_URI, connector, connectorURI, "connector", connector);
       }
     }
   }
@@ -392,9 +310,7 @@ public class UriAssigner {
     String packageName = tagHelper.getOptionalTag(connector, Tag.DEFINING_PACKAGE, null);
     Collection<EAPackage> connectionPackage = nameToPackages.get(packageName);
     if (connectionPackage.size() >= 2) {
-      LOGGER.warn(
-          "Ambiguous package name specified for connector \"{}\", it matches multiple packages in the project.",
-          connector.getPath());
+      diagnostics.report(DiagnosticCode.AMBIGUOUS_CONNECTOR_PACKAGE, connector, connector);
       definingPackage = connectionPackage.iterator().next();
     } else if (connectionPackage.size() == 1) {
       definingPackage = connectionPackage.iterator().next();
@@ -403,25 +319,23 @@ public class UriAssigner {
       EAPackage dstPackage = connector.getDestination().getPackage();
       if (srcPackage.equals(dstPackage)) {
         definingPackage = srcPackage;
-        LOGGER.info(
-            "Assuming connector \"{}\" belongs to package \"{}\" based on source and target definition.",
-            connector.getPath(),
+        diagnostics.report(
+            DiagnosticCode.ASSUMED_CONNECTOR_PACKAGE,
+            connector,
+            connector,
             definingPackage.getName());
       }
     }
 
     if (connectorURI == null) {
       if (definingPackage == null) {
-        LOGGER.warn(
-            "Ignoring connector \"{}\" since it lacks a defining package.", connector.getPath());
+        diagnostics.report(DiagnosticCode.CONNECTOR_WITHOUT_PACKAGE, connector, connector);
         return null;
       }
 
       String packageURI = packageURIs.get(definingPackage);
       if (packageURI == null) {
-        LOGGER.warn(
-            "Connector \"{}\" is defined on an non existing package, it will be ignored.",
-            connector.getPath());
+        diagnostics.report(DiagnosticCode.CONNECTOR_ON_MISSING_PACKAGE, connector, connector);
         return null;
       }
 
@@ -436,11 +350,10 @@ public class UriAssigner {
                       .getName())); // force the fallback name EA Name to have a lowercase first
       // letter
       if (localName0 == null) {
-        LOGGER.warn(
-            "Connector \"{}\" does not have a name, it will be ignored.", connector.getPath());
+        diagnostics.report(DiagnosticCode.CONNECTOR_WITHOUT_NAME, connector, connector);
         return null;
       }
-      String localName = caseLocalName(localName0, forceFirstCharLowerCase, connector.getPath());
+      String localName = caseLocalName(localName0, forceFirstCharLowerCase, connector);
       String prefix = "";
       if (prefixElement != null) {
         LOGGER.debug("Prefix Element \"{}\" provided.", prefixElement.getName());
@@ -454,29 +367,36 @@ public class UriAssigner {
       }
       ;
     }
-    LOGGER.debug("Connector \"{}\" has uri <{}>.", connector.getPath(), connectorURI);
+    if (LOGGER.isDebugEnabled())
+      LOGGER.debug("Connector \"{}\" has uri <{}>.", connector.getPath(), connectorURI);
 
-    try {
-      ResourceFactory.createProperty(connectorURI);
+    if (uriCache.isValidPropertyURI(connectorURI)) {
+      claim(UriRegistry.Kind.PROPERTY, connectorURI, connector);
       return new ConnectorURI(connectorURI, definingPackage);
-    } catch (InvalidPropertyURIException e) {
-      LOGGER.error(
-          "Invalid property URI \"{}\", use empty URI connector {}.",
-          connectorURI,
-          connector.getPath());
+    } else {
+      diagnostics.report(
+          DiagnosticCode.INVALID_PROPERTY_URI, connector, connectorURI, "connector", connector);
       return null;
-    } catch (Exception e) {
-      LOGGER.debug("Exception \"{}\" has happend", e);
-      throw e;
     }
   }
 
+  /** Claims the URI in the registry, and reports it if it is not a valid IRI. */
+  private void claim(UriRegistry.Kind kind, String uri, EAObject owner) {
+    registry.claim(kind, uri, owner);
+    checkIRI(uri, owner);
+  }
+
+  private void checkIRI(String uri, EAObject owner) {
+    if (uri != null && !uriCache.isValidIRI(uri))
+      diagnostics.report(DiagnosticCode.INVALID_IRI, owner, uri, owner);
+  }
+
   private String extractURI(EAObject element, String packageURI) {
     String temp = tagHelper.getOptionalTag(element, Tag.EXTERNAL_URI, null);
     if (temp != null) return temp;
 
     temp = tagHelper.getOptionalTag(element, Tag.LOCALNAME, element.getName());
-    temp = caseLocalNameTest(temp, true, element.getName());
+    temp = caseLocalNameTest(temp, true, element);
 
     if (temp != null && temp != "") return packageURI + temp;
     else return packageURI + element.getName();
@@ -492,7 +412,7 @@ public class UriAssigner {
     */
 
     String temp = tagHelper.getOptionalTag(element, Tag.LOCALNAME, element.getName());
-    temp = caseLocalNameTest(temp, false, element.getName());
+    temp = caseLocalNameTest(temp, false, element);
 
     return temp;
   }
@@ -502,16 +422,16 @@ public class UriAssigner {
     if (temp != null) return temp;
 
     temp = tagHelper.getOptionalTag(element, Tag.LOCALNAME, element.getName());
-    temp = caseLocalNameTest(temp, false, element.getName());
+    temp = caseLocalNameTest(temp, false, element);
 
     if (temp != null && temp != "") return packageURI + temp;
     else return packageURI + element.getName();
   }
 
   private String caseLocalNameTest(
-      String localName, Boolean firstCharUppercase, String elementLogID) {
+      String localName, Boolean firstCharUppercase, EAObject owner) {
     if (localName == null || localName == "") {
-      LOGGER.error("Element \"{}\" does not have a name.", elementLogID);
+      diagnostics.report(DiagnosticCode.MISSING_NAME, owner, owner);
       localName = "";
     }
     ;
@@ -519,9 +439,9 @@ public class UriAssigner {
   }
 
   private String caseLocalName(
-      String localName, Boolean forceFirstCharLowerCase, String elementLogID) {
+      String localName, Boolean forceFirstCharLowerCase, EAObject owner) {
     if (localName == null || localName == "") {
-      LOGGER.error("Element \"{}\" does not have a name.", elementLogID);
+      diagnostics.report(DiagnosticCode.MISSING_NAME, owner, owner);
       localName = "";
     }
     ;
@@ -539,18 +459,12 @@ public class UriAssigner {
     }
     ;
     if (localName0 != localName) {
-      LOGGER.warn("Element \"{}\" has not a name in camelCase: {}.", elementLogID, localName);
+      diagnostics.report(DiagnosticCode.NOT_CAMEL_CASE, owner, owner, localName);
     }
     ;
     return localName0;
   }
 
-  private String findUniqueKey(String startKey, Set<String> claimedKeys) {
-    int counter = 1;
-    while (claimedKeys.contains(startKey + "-" + counter)) counter++;
-    return startKey + "-" + counter;
-  }
-
   private static class ChosenURI {
     public final String uri;
     public final boolean locked;
@@ -0,0 +1,73 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.jena.graph.Node;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.rdf.model.impl.Util;
+
+/**
+ * Interns the Jena resources, properties and nodes created during a conversion, so that each URI is
+ * only turned into an object once. It also validates property URIs without relying on the {@code
+ * InvalidPropertyURIException} thrown by {@link ResourceFactory#createProperty(String)}, and
+ * checks URIs for characters that are not allowed in an IRI.
+ *
+ * <p>This class is thread safe.
+ */
+public class UriCache {
+  private final Map<String, Resource> resources = new ConcurrentHashMap<>();
+  private final Map<String, Property> properties = new ConcurrentHashMap<>();
+  private final Map<String, Boolean> validPropertyURIs = new ConcurrentHashMap<>();
+
+  /**
+   * Gets the resource for the given URI.
+   *
+   * @param uri the URI, if {@code null} a new blank node is returned (as {@link
+   *     ResourceFactory#createResource(String)} does)
+   */
+  public Resource resource(String uri) {
+    if (uri == null) return ResourceFactory.createResource(null);
+    return resources.computeIfAbsent(uri, ResourceFactory::createResource);
+  }
+
+  /**
+   * Gets the property for the given URI.
+   *
+   * @throws org.apache.jena.shared.InvalidPropertyURIException if the URI is not a valid property
+   *     URI, see {@link #isValidPropertyURI(String)}
+   */
+  public Property property(String uri) {
+    return properties.computeIfAbsent(uri, ResourceFactory::createProperty);
+  }
+
+  /** Gets the graph node for the given URI. */
+  public Node node(String uri) {
+    return resource(uri).asNode();
+  }
+
+  /**
+   * Checks whether a property can be created for the given URI, which requires it to end in a
+   * non-empty XML local name.
+   */
+  public boolean isValidPropertyURI(String uri) {
+    if (uri == null) return false;
+    return validPropertyURIs.computeIfAbsent(
+        uri, u -> Util.splitNamespaceXML(u) < u.length());
+  }
+
+  /**
+   * Checks whether the URI can be written as an IRI in Turtle, N-Triples and N-Quads: it may not
+   * contain spaces, control characters or any of {@code <>"{}|^`\}. These cannot be escaped, since
+   * an escaped character must be allowed in an IRI as well.
+   */
+  public boolean isValidIRI(String uri) {
+    if (uri == null) return false;
+    for (int i = 0; i < uri.length(); i++) {
+      char c = uri.charAt(i);
+      if (c <= ' ' || "<>\"{}|^`\\".indexOf(c) >= 0) return false;
+    }
+    return true;
+  }
+}
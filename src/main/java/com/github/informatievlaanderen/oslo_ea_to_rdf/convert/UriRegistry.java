@@ -0,0 +1,139 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert;
+
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps track of which object first claimed a URI, to detect objects of the same kind that map to
+ * the same URI. A single open addressing hash table (linear probing) is used for all kinds, so a
+ * claim costs one hash lookup and nothing is allocated unless a conflict is found.
+ */
+public class UriRegistry {
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private String[] uris = new String[INITIAL_CAPACITY];
+  private Kind[] kinds = new Kind[INITIAL_CAPACITY];
+  private EAObject[] owners = new EAObject[INITIAL_CAPACITY];
+  /** Index + 1 of the conflict for the slot in {@link #conflicts}, 0 if there is none. */
+  private int[] conflictIndices = new int[INITIAL_CAPACITY];
+
+  private int size;
+  private final List<Conflict> conflicts = new ArrayList<>();
+
+  /**
+   * Registers that the given object uses the URI. If a different object of the same kind already
+   * claimed the URI, a conflict is recorded.
+   *
+   * @param kind the kind of the object, only objects of the same kind can conflict
+   * @param uri the URI, {@code null} is ignored
+   * @param owner the object using the URI
+   */
+  public void claim(Kind kind, String uri, EAObject owner) {
+    if (uri == null) return;
+
+    int mask = uris.length - 1;
+    int slot = hash(kind, uri) & mask;
+    while (uris[slot] != null) {
+      if (kinds[slot] == kind && uris[slot].equals(uri)) {
+        if (!owners[slot].equals(owner)) addConflict(slot, owner);
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    uris[slot] = uri;
+    kinds[slot] = kind;
+    owners[slot] = owner;
+    if (++size * 2 > uris.length) resize();
+  }
+
+  /** All conflicts found so far, in the order they were detected. */
+  public List<Conflict> getConflicts() {
+    return Collections.unmodifiableList(conflicts);
+  }
+
+  private void addConflict(int slot, EAObject owner) {
+    if (conflictIndices[slot] == 0) {
+      Conflict conflict = new Conflict(kinds[slot], uris[slot], owners[slot]);
+      conflicts.add(conflict);
+      conflictIndices[slot] = conflicts.size();
+    }
+    List<EAObject> conflictOwners = conflicts.get(conflictIndices[slot] - 1).owners;
+    if (!conflictOwners.contains(owner)) conflictOwners.add(owner);
+  }
+
+  private void resize() {
+    String[] oldUris = uris;
+    Kind[] oldKinds = kinds;
+    EAObject[] oldOwners = owners;
+    int[] oldConflictIndices = conflictIndices;
+
+    int capacity = oldUris.length * 2;
+    uris = new String[capacity];
+    kinds = new Kind[capacity];
+    owners = new EAObject[capacity];
+    conflictIndices = new int[capacity];
+
+    int mask = capacity - 1;
+    for (int i = 0; i < oldUris.length; i++) {
+      if (oldUris[i] == null) continue;
+      int slot = hash(oldKinds[i], oldUris[i]) & mask;
+      while (uris[slot] != null) slot = (slot + 1) & mask;
+      uris[slot] = oldUris[i];
+      kinds[slot] = oldKinds[i];
+      owners[slot] = oldOwners[i];
+      conflictIndices[slot] = oldConflictIndices[i];
+    }
+  }
+
+  private static int hash(Kind kind, String uri) {
+    int h = uri.hashCode() * 31 + kind.ordinal();
+    return h ^ (h >>> 16);
+  }
+
+  public enum Kind {
+    PACKAGE("packages"),
+    ELEMENT("elements"),
+    INSTANCE("instances"),
+    PROPERTY("properties (attribute or connector)");
+
+    private final String description;
+
+    Kind(String description) {
+      this.description = description;
+    }
+
+    /** A plural description of the objects of this kind, for use in messages. */
+    public String getDescription() {
+      return description;
+    }
+  }
+
+  /** A URI that is used by more than one object of the same kind. */
+  public static class Conflict {
+    private final Kind kind;
+    private final String uri;
+    private final List<EAObject> owners = new ArrayList<>(2);
+
+    private Conflict(Kind kind, String uri, EAObject firstOwner) {
+      this.kind = kind;
+      this.uri = uri;
+      this.owners.add(firstOwner);
+    }
+
+    public Kind getKind() {
+      return kind;
+    }
+
+    public String getUri() {
+      return uri;
+    }
+
+    /** The objects using the URI, starting with the one that claimed it first. */
+    public List<EAObject> getOwners() {
+      return Collections.unmodifiableList(owners);
+    }
+  }
+}
@@ -42,33 +42,38 @@ public class Util {
     //        if ( conn.getAssociationClass() != null) {
     if (connectorHasOldAssociationClassTags(conn)) {
       // handling association classes has priority
-      LOGGER.debug("0) add connectors based on deprecated tags for {}", conn.getPath());
+      if (LOGGER.isDebugEnabled())
+        LOGGER.debug("0) add connectors based on deprecated tags for {}", conn.getPath());
       result = extractAssociationElement(conn, direction);
     } else {
       if ((conn.getDestRole() == null || conn.getDestRole() == "")
           && (conn.getSourceRole() == null || conn.getSourceRole() == "")
           && (direction != EAConnector.Direction.UNSPECIFIED)) {
 
-        LOGGER.debug("0) add AssocFree connector {}", conn.getPath());
+        if (LOGGER.isDebugEnabled())
+          LOGGER.debug("0) add AssocFree connector {}", conn.getPath());
         result.add(new AssocFreeEAConnector(conn));
       }
       ;
       if (conn.getSourceRole() != null && conn.getSourceRole() != "") {
         result.add(
             new RoleEAConnector(conn, RoleEAConnector.ConnectionPart.DEST_TO_SOURCE, tagHelper));
-        LOGGER.debug("1) add Role connector {}", conn.getPath());
+        if (LOGGER.isDebugEnabled())
+          LOGGER.debug("1) add Role connector {}", conn.getPath());
       }
       ;
       if (conn.getDestRole() != null && conn.getDestRole() != "") {
         result.add(
             new RoleEAConnector(conn, RoleEAConnector.ConnectionPart.SOURCE_TO_DEST, tagHelper));
-        LOGGER.debug("2) add Role connector {}", conn.getPath());
+        if (LOGGER.isDebugEnabled())
+          LOGGER.debug("2) add Role connector {}", conn.getPath());
       }
       ;
       if ((conn.getDestRole() == null || conn.getDestRole() == "")
           && (conn.getSourceRole() == null || conn.getSourceRole() == "")
           && (direction == EAConnector.Direction.UNSPECIFIED)) {
-        LOGGER.debug("3) add Role connector {}", conn.getPath());
+        if (LOGGER.isDebugEnabled())
+          LOGGER.debug("3) add Role connector {}", conn.getPath());
         result.add(
             new RoleEAConnector(
                 conn, RoleEAConnector.ConnectionPart.UNSPEC_SOURCE_TO_DEST, tagHelper));
@@ -86,7 +91,8 @@ public class Util {
 
   public static Collection<EAConnector> extractAssociationElement3(
       EAConnector conn, EAConnector.Direction direction, TagHelper tagHelper) {
-    LOGGER.debug("add connector {}", conn.getPath());
+    if (LOGGER.isDebugEnabled())
+      LOGGER.debug("add connector {}", conn.getPath());
     Collection<EAConnector> result = new ArrayList<>(3);
     result.add(new RoleEAConnector(conn, RoleEAConnector.ConnectionPart.SOURCE_TO_DEST, tagHelper));
     result.add(conn);
@@ -0,0 +1,110 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics;
+
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAObject;
+import com.google.common.base.Joiner;
+import com.google.common.collect.Iterables;
+import java.util.Arrays;
+import java.util.Objects;
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * A single problem found during conversion. The message is only rendered on request, so reporting
+ * a diagnostic is cheap even when it is never shown.
+ */
+public class Diagnostic {
+  private static final Joiner JOINER = Joiner.on(", ");
+
+  private final DiagnosticCode code;
+  private final DiagnosticCode.Severity severity;
+  private final EAObject subject;
+  private final Object[] args;
+  private final String source;
+  private int count;
+  private String message;
+
+  Diagnostic(
+      DiagnosticCode code,
+      DiagnosticCode.Severity severity,
+      EAObject subject,
+      Object[] args,
+      String source) {
+    this.code = code;
+    this.severity = severity;
+    this.subject = subject;
+    this.args = args;
+    this.source = source;
+    this.count = 1;
+  }
+
+  public DiagnosticCode getCode() {
+    return code;
+  }
+
+  public DiagnosticCode.Severity getSeverity() {
+    return severity;
+  }
+
+  /**
+   * The model object this diagnostic is about.
+   *
+   * @return {@code null} if the diagnostic does not concern a single object
+   */
+  public EAObject getSubject() {
+    return subject;
+  }
+
+  /**
+   * The name of the logger of the component that first reported this diagnostic. It is not part of
+   * the identity of a diagnostic.
+   */
+  public String getSource() {
+    return source;
+  }
+
+  /** The number of times this exact diagnostic was reported. */
+  public int getCount() {
+    return count;
+  }
+
+  void increment() {
+    count++;
+  }
+
+  /** Renders the message, model objects are shown by their path. */
+  public String getMessage() {
+    if (message == null) {
+      Object[] rendered = new Object[args.length];
+      for (int i = 0; i < args.length; i++) rendered[i] = render(args[i]);
+      message = MessageFormatter.arrayFormat(code.getTemplate(), rendered).getMessage();
+    }
+    return message;
+  }
+
+  private static Object render(Object arg) {
+    if (arg instanceof EAObject) return ((EAObject) arg).getPath();
+    if (arg instanceof Iterable)
+      return JOINER.join(Iterables.transform((Iterable<?>) arg, Diagnostic::render));
+    return arg;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    Diagnostic that = (Diagnostic) o;
+    return code == that.code
+        && severity == that.severity
+        && subject == that.subject
+        && Arrays.equals(args, that.args);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(code, severity, System.identityHashCode(subject), Arrays.hashCode(args));
+  }
+
+  @Override
+  public String toString() {
+    return code + ": " + getMessage();
+  }
+}
@@ -0,0 +1,113 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics;
+
+/**
+ * All problems the conversion can report, together with their default severity and message
+ * template. The templates use the SLF4J {@code {}} placeholder syntax and are only rendered when a
+ * diagnostic is logged or written to a report.
+ */
+public enum DiagnosticCode {
+  // Tags
+  MISSING_TAG(Severity.WARN, "Missing \"{}\" tag for \"{}\"."),
+  MULTIPLE_TAG_VALUES(
+      Severity.WARN,
+      "Multiple occurrences of tag \"{}\" where only one was expected for \"{}\"."),
+
+  // URI assignment
+  PACKAGE_NOT_FOUND(Severity.WARN, "Specified package \"{}\" for {} \"{}\" was not found."),
+  AMBIGUOUS_PACKAGE(
+      Severity.WARN,
+      "Ambiguous package name \"{}\" specified for {} \"{}\", it matches multiple packages in the project."),
+  AMBIGUOUS_CONNECTOR_PACKAGE(
+      Severity.WARN,
+      "Ambiguous package name specified for connector \"{}\", it matches multiple packages in the project."),
+  ASSUMED_CONNECTOR_PACKAGE(
+      Severity.INFO,
+      "Assuming connector \"{}\" belongs to package \"{}\" based on source and target definition."),
+  CONNECTOR_WITHOUT_PACKAGE(
+      Severity.WARN, "Ignoring connector \"{}\" since it lacks a defining package."),
+  CONNECTOR_ON_MISSING_PACKAGE(
+      Severity.WARN, "Connector \"{}\" is defined on an non existing package, it will be ignored."),
+  CONNECTOR_WITHOUT_NAME(
+      Severity.WARN, "Connector \"{}\" does not have a name, it will be ignored."),
+  INVALID_PROPERTY_URI(Severity.ERROR, "Invalid property URI \"{}\", will ignore {} {}."),
+  INVALID_IRI(
+      Severity.ERROR,
+      "The URI \"{}\" of \"{}\" contains a character that is not allowed in an IRI, such as a space."),
+  MISSING_NAME(Severity.ERROR, "Element \"{}\" does not have a name."),
+  NOT_CAMEL_CASE(Severity.WARN, "Element \"{}\" has not a name in camelCase: {}."),
+  DUPLICATE_URI(Severity.WARN, "The following {} map to the same URI ({}): {}"),
+
+  // Conversion
+  IGNORED_CLASS(Severity.INFO, "Skipping class \"{}\" since it is marked as ignored."),
+  IGNORED_CONNECTOR(Severity.INFO, "Skipping connector \"{}\" since it is marked as ignored."),
+  IGNORED_ATTRIBUTE(Severity.INFO, "Skipping attribute \"{}\" since it is marked as ignored."),
+  SAME_PREFIX_AS_PACKAGE(
+      Severity.WARN,
+      "Element {} has same prefix as package: simplify by removing the extra tag uri"),
+  DUPLICATE_DIRECTION(
+      Severity.WARN,
+      "Connector {} without explicit direction already added to the set of directions"),
+  NO_ENUMERATION_VALUES(Severity.WARN, "No possible values defined for enumeration \"{}\"."),
+  AMBIGUOUS_DATA_TYPE(
+      Severity.WARN, "Ambiguous data type \"{}\", the first of these elements is used: {}."),
+  MISSING_DATA_TYPE(Severity.WARN, "Missing data type for attribute \"{}\"."),
+  CUSTOM_DOMAIN(Severity.WARN, "Connector {} overwrites domain with custom domain {} "),
+  CUSTOM_RANGE(Severity.WARN, "Connector {} overwrites range with custom range {} "),
+  UNKNOWN_CONNECTOR_PACKAGE(Severity.WARN, "Package for connector {} is unknown"),
+  UNSUPPORTED_CONNECTOR_TYPE(
+      Severity.ERROR, "Unsupported connector type for \"{}\" - skipping."),
+  GENERALIZATION_WITHOUT_DIRECTION(
+      Severity.ERROR, "Generalization connector \"{}\" does not specify a direction - skipping."),
+
+  // Output handlers
+  NOT_HANDLED(Severity.WARN, "{} NOT HANDLED: {} - {}"),
+  CLASS_WITHOUT_NAME_OR_URI(
+      Severity.ERROR,
+      " Class {} without name or URI found, further processing this class will be incoherent"),
+  CLASS_WITHOUT_LABEL(
+      Severity.ERROR,
+      " Class {} without label, further processing this class will be incoherent"),
+  CLASS_WITH_DUMMY_LABEL(
+      Severity.ERROR,
+      " Class {} with empty or dummy label, further processing this class will be incoherent"),
+  PROPERTY_WITHOUT_NAME_OR_URI(
+      Severity.ERROR,
+      " Property {} without name or URI found, further processing this property will be incoherent"),
+  PROPERTY_WITHOUT_NAME(
+      Severity.ERROR,
+      " Property {} without name, further processing this property will be incoherent"),
+  PROPERTY_WITH_DUMMY_LABEL(
+      Severity.ERROR,
+      " Property {} without with empty or dummy label, further processing this property will be incoherent"),
+  PROPERTY_LABEL_NOT_LOWERCASE(
+      Severity.WARN, "The label of property \"{}\" does not start with a lowercase \"{}\"."),
+  CONTRIBUTORS_COLUMN_NOT_FOUND(
+      Severity.ERROR, "The header with name: {} was not found in the contributors.csv file"),
+  UNKNOWN_CONTRIBUTOR_CODE(
+      Severity.WARN,
+      "The contributor with name: {}  {}'s code was not recognized. Code found was: {} ");
+
+  private final Severity severity;
+  private final String template;
+
+  DiagnosticCode(Severity severity, String template) {
+    this.severity = severity;
+    this.template = template;
+  }
+
+  /** The severity used when no explicit severity is given while reporting. */
+  public Severity getSeverity() {
+    return severity;
+  }
+
+  /** The message template, using {@code {}} placeholders. */
+  public String getTemplate() {
+    return template;
+  }
+
+  public enum Severity {
+    INFO,
+    WARN,
+    ERROR
+  }
+}
@@ -0,0 +1,175 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.convert.diagnostics;
+
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAObject;
+import com.google.common.base.Charsets;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the problems found during a conversion. Identical reports (same code, subject and
+ * arguments) are kept only once, but counted. Nothing is rendered or logged until {@link #log()}
+ * or {@link #writeReport(Path)} is called.
+ *
+ * <p>Each component reports through its own view, see {@link #forSource(Class)}, so that its
+ * diagnostics are logged under its own logger, as they were before they were collected.
+ */
+public class Diagnostics {
+  private static final Logger LOGGER = LoggerFactory.getLogger(Diagnostics.class);
+
+  /** The sink holding the diagnostics, itself for the sink and the sink of a view. */
+  private final Diagnostics sink;
+  /** The name of the logger of the component reporting through this view. */
+  private final String source;
+  private final Map<Diagnostic, Diagnostic> diagnostics;
+  private final Map<DiagnosticCode, Integer> counts;
+
+  public Diagnostics() {
+    this.sink = this;
+    this.source = Diagnostics.class.getName();
+    this.diagnostics = new LinkedHashMap<>();
+    this.counts = new EnumMap<>(DiagnosticCode.class);
+  }
+
+  private Diagnostics(Diagnostics sink, String source) {
+    this.sink = sink;
+    this.source = source;
+    this.diagnostics = sink.diagnostics;
+    this.counts = sink.counts;
+  }
+
+  /** A view on this sink, of which the reports are logged under the logger of the component. */
+  public Diagnostics forSource(Class<?> component) {
+    return new Diagnostics(sink, component.getName());
+  }
+
+  /**
+   * Reports a problem using the default severity of the code.
+   *
+   * @param code the kind of problem
+   * @param subject the object concerned, may be {@code null}
+   * @param args the arguments for the message template of the code
+   */
+  public void report(DiagnosticCode code, EAObject subject, Object... args) {
+    report(code, code.getSeverity(), subject, args);
+  }
+
+  /** Reports a problem using the given severity instead of the default of the code. */
+  public void report(
+      DiagnosticCode code, DiagnosticCode.Severity severity, EAObject subject, Object... args) {
+    Diagnostic diagnostic = new Diagnostic(code, severity, subject, args, source);
+    synchronized (sink) {
+      counts.merge(code, 1, Integer::sum);
+      Diagnostic existing = diagnostics.putIfAbsent(diagnostic, diagnostic);
+      if (existing != null) existing.increment();
+    }
+  }
+
+  /** All distinct diagnostics, in the order they were first reported. */
+  public List<Diagnostic> getDiagnostics() {
+    synchronized (sink) {
+      return new ArrayList<>(diagnostics.keySet());
+    }
+  }
+
+  /** The total number of reports (including duplicates) for the given code. */
+  public int getCount(DiagnosticCode code) {
+    synchronized (sink) {
+      return counts.getOrDefault(code, 0);
+    }
+  }
+
+  /** The number of distinct diagnostics with the given severity. */
+  public int getCount(DiagnosticCode.Severity severity) {
+    synchronized (sink) {
+      int result = 0;
+      for (Diagnostic diagnostic : diagnostics.keySet())
+        if (diagnostic.getSeverity() == severity) result++;
+      return result;
+    }
+  }
+
+  /**
+   * Logs every distinct diagnostic once at its severity, under the logger of the component that
+   * reported it, followed by a summary line.
+   */
+  public void log() {
+    synchronized (sink) {
+      for (Diagnostic diagnostic : diagnostics.keySet()) {
+        Logger logger = LoggerFactory.getLogger(diagnostic.getSource());
+        String message = diagnostic.getMessage();
+        if (diagnostic.getCount() > 1)
+          message = message + " (reported " + diagnostic.getCount() + " times)";
+        switch (diagnostic.getSeverity()) {
+          case ERROR:
+            logger.error(message);
+            break;
+          case WARN:
+            logger.warn(message);
+            break;
+          default:
+            logger.info(message);
+        }
+      }
+      if (!diagnostics.isEmpty()) {
+        LOGGER.info(
+            "Conversion finished with {} error(s), {} warning(s) and {} info message(s).",
+            getCount(DiagnosticCode.Severity.ERROR),
+            getCount(DiagnosticCode.Severity.WARN),
+            getCount(DiagnosticCode.Severity.INFO));
+      }
+    }
+  }
+
+  /**
+   * Writes all diagnostics as a JSON document to the given file.
+   *
+   * @param file the file to write, will be overwritten if it exists
+   * @throws IOException if the file could not be written
+   */
+  public void writeReport(Path file) throws IOException {
+    synchronized (sink) {
+      try (Writer writer = Files.newBufferedWriter(file, Charsets.UTF_8);
+          JsonWriter json = new JsonWriter(writer)) {
+        json.setIndent("  ");
+        json.beginObject();
+
+        json.name("summary").beginObject();
+        for (DiagnosticCode.Severity severity : DiagnosticCode.Severity.values())
+          json.name(severity.name()).value(getCount(severity));
+        json.endObject();
+
+        json.name("counts").beginObject();
+        for (Map.Entry<DiagnosticCode, Integer> entry : counts.entrySet())
+          json.name(entry.getKey().name()).value(entry.getValue());
+        json.endObject();
+
+        json.name("diagnostics").beginArray();
+        for (Diagnostic diagnostic : diagnostics.keySet()) {
+          json.beginObject();
+          json.name("code").value(diagnostic.getCode().name());
+          json.name("severity").value(diagnostic.getSeverity().name());
+          if (diagnostic.getSubject() != null) {
+            json.name("guid").value(diagnostic.getSubject().getGuid());
+            json.name("path").value(diagnostic.getSubject().getPath());
+          }
+          json.name("message").value(diagnostic.getMessage());
+          json.name("count").value(diagnostic.getCount());
+          json.endObject();
+        }
+        json.endArray();
+
+        json.endObject();
+      }
+    }
+  }
+}
@@ -4,6 +4,7 @@ import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAConnector;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EADiagram;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EAElement;
 import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EARepository;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.profile.Profiler;
 import com.google.common.base.Optional;
 import com.google.common.base.Strings;
 import com.google.common.collect.HashBasedTable;
@@ -14,6 +15,7 @@ import java.sql.*;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import net.ucanaccess.jdbc.UcanaccessDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,6 +27,17 @@ import org.slf4j.LoggerFactory;
  */
 public class MemoryRepositoryBuilder {
   private final Logger LOGGER = LoggerFactory.getLogger(MemoryRepositoryBuilder.class);
+  private final Profiler profiler;
+
+  public MemoryRepositoryBuilder() {
+    this(Profiler.DISABLED);
+  }
+
+  /** @param profiler times opening the project, and loading each table */
+  public MemoryRepositoryBuilder(Profiler profiler) {
+    this.profiler = profiler;
+  }
+
   /**
    * Creates a new memory-based repository from the given Enterprise Architect project file. After
    * calling this method, the builder should not be reused.
@@ -34,6 +47,10 @@ public class MemoryRepositoryBuilder {
    * @throws SQLException
    */
   public EARepository build(File eaFile) throws SQLException {
+    return profiler.time("repository", () -> load(eaFile));
+  }
+
+  private EARepository load(File eaFile) throws SQLException {
     Properties prop = new Properties();
     prop.setProperty("jackcessopener", EAPJackcessOpener.class.getName());
 
@@ -45,20 +62,24 @@ public class MemoryRepositoryBuilder {
     Map<Integer, MemoryEAConnector> connectors; // Key: connector id
     Map<Integer, MemoryEAAttribute> attributes; // Key: attribute id
 
-    try (Connection conn = DriverManager.getConnection(uri, prop)) {
-      packages = loadPackages(conn);
+    // The driver is used directly, DriverManager would first load every driver on the class path.
+    try (Connection conn =
+        profiler.time("open", () -> new UcanaccessDriver().connect(uri, prop))) {
+      packages = profiler.time("t_package", () -> loadPackages(conn));
       Map<Integer, MemoryEAPackage> objectIndexPackages = getObjectIndexPackages(packages);
-      elements = loadElements(conn, packages);
-      attributes = loadAttributes(conn, elements);
-      connectors = loadElementConnectors(conn, elements);
-
-      loadObjectTags(conn, elements, objectIndexPackages);
-      loadAttributeTags(conn, attributes);
-      loadConnectorTags(conn, connectors);
-      loadConnectorRoleTags(conn, connectors);
-      diagrams = loadDiagrams(conn, packages);
-      loadDiagramObjects(conn, elements, packages, diagrams);
-      loadDiagramConnectors(conn, diagrams, connectors);
+      elements = profiler.time("t_object", () -> loadElements(conn, packages));
+      attributes = profiler.time("t_attribute", () -> loadAttributes(conn, elements));
+      connectors = profiler.time("t_connector", () -> loadElementConnectors(conn, elements));
+
+      profiler.time(
+          "t_objectproperties", () -> loadObjectTags(conn, elements, objectIndexPackages));
+      profiler.time("t_attributetag", () -> loadAttributeTags(conn, attributes));
+      profiler.time("t_connectortag", () -> loadConnectorTags(conn, connectors));
+      profiler.time("t_taggedvalue", () -> loadConnectorRoleTags(conn, connectors));
+      diagrams = profiler.time("t_diagram", () -> loadDiagrams(conn, packages));
+      profiler.time(
+          "t_diagramobjects", () -> loadDiagramObjects(conn, elements, packages, diagrams));
+      profiler.time("t_diagramlinks", () -> loadDiagramConnectors(conn, diagrams, connectors));
     }
 
     Optional<MemoryEAPackage> rootPackage =
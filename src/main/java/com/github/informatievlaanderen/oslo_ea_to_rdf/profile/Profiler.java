@@ -0,0 +1,257 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf.profile;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the wall time, CPU time and allocated bytes of the phases of a run, and counts events.
+ * Phases started while another phase is running on the same thread are nested in it, and the
+ * figures of a phase include those of its nested phases. A phase that runs more than once, such as
+ * when converting several themas, is accumulated.
+ *
+ * <p>Use {@link #DISABLED} when not profiling: it measures and counts nothing.
+ */
+public class Profiler {
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+  /** A profiler that records nothing. */
+  public static final Profiler DISABLED = new Profiler(false);
+
+  private static final Phase NO_PHASE = new Phase(null, null);
+
+  private final boolean enabled;
+  private final boolean cpuTime;
+  private final boolean allocations;
+  private final long start = System.nanoTime();
+  /** The figures of each phase, by path, in the order the phases were first started. */
+  private final Map<String, Stats> phases = new LinkedHashMap<>();
+
+  private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+  private final ThreadLocal<Deque<String>> running = ThreadLocal.withInitial(ArrayDeque::new);
+
+  /** Creates a profiler that records, from now on. */
+  public Profiler() {
+    this(true);
+  }
+
+  private Profiler(boolean enabled) {
+    this.enabled = enabled;
+    this.cpuTime = enabled && THREADS.isCurrentThreadCpuTimeSupported();
+    if (cpuTime) THREADS.setThreadCpuTimeEnabled(true);
+    this.allocations = enabled && allocatedBytes() >= 0;
+  }
+
+  /**
+   * Starts a phase on the current thread, which ends when the returned phase is closed. Prefer
+   * {@link #time}, which also ends the phase when the work fails.
+   *
+   * @param name the name of the phase, without slashes
+   */
+  public Phase start(String name) {
+    if (!enabled) return NO_PHASE;
+    Deque<String> paths = running.get();
+    String path = paths.isEmpty() ? name : paths.peek() + "/" + name;
+    Stats stats;
+    synchronized (phases) {
+      stats = phases.computeIfAbsent(path, p -> new Stats());
+    }
+    paths.push(path);
+    return new Phase(this, stats);
+  }
+
+  /**
+   * Runs an action as a phase on the current thread.
+   *
+   * @param name the name of the phase, without slashes
+   */
+  public <E extends Exception> void time(String name, Action<E> action) throws E {
+    Phase phase = start(name);
+    try {
+      action.run();
+    } finally {
+      phase.close();
+    }
+  }
+
+  /**
+   * Computes a value as a phase on the current thread.
+   *
+   * @param name the name of the phase, without slashes
+   * @return the computed value
+   */
+  public <T, E extends Exception> T time(String name, Computation<T, E> computation) throws E {
+    Phase phase = start(name);
+    try {
+      return computation.compute();
+    } finally {
+      phase.close();
+    }
+  }
+
+  /** Adds one to a counter. */
+  public void count(String counter) {
+    if (enabled) counters.computeIfAbsent(counter, c -> new LongAdder()).increment();
+  }
+
+  /**
+   * Writes all phases and counters as a JSON document to the given file. Times are in
+   * milliseconds.
+   *
+   * @param file the file to write, will be overwritten if it exists
+   * @throws IOException if the file could not be written
+   */
+  public void writeReport(Path file) throws IOException {
+    try (Writer writer = Files.newBufferedWriter(file, Charsets.UTF_8);
+        JsonWriter json = new JsonWriter(writer)) {
+      json.setIndent("  ");
+      json.beginObject();
+      json.name("wallMillis").value(millis(System.nanoTime() - start));
+
+      json.name("phases").beginArray();
+      for (Map.Entry<String, Stats> entry : getPhases().entrySet()) {
+        Stats stats = entry.getValue();
+        json.beginObject();
+        json.name("phase").value(entry.getKey());
+        json.name("calls").value(stats.calls);
+        json.name("wallMillis").value(millis(stats.wallNanos));
+        if (cpuTime) json.name("cpuMillis").value(millis(stats.cpuNanos));
+        if (allocations) json.name("allocatedBytes").value(stats.allocatedBytes);
+        json.endObject();
+      }
+      json.endArray();
+
+      json.name("counters").beginObject();
+      for (Map.Entry<String, Long> entry : getCounters().entrySet())
+        json.name(entry.getKey()).value(entry.getValue());
+      json.endObject();
+
+      json.endObject();
+    }
+  }
+
+  /** Prints the phases as an indented table, followed by the counters. */
+  public void printSummary(PrintStream out) {
+    out.println(
+        String.format(
+            "%-32s %7s %11s %11s %12s", "Phase", "Calls", "Wall (ms)", "CPU (ms)", "Alloc (MB)"));
+    for (Map.Entry<String, Stats> entry : getPhases().entrySet()) {
+      String path = entry.getKey();
+      int depth = path.length() - path.replace("/", "").length();
+      Stats stats = entry.getValue();
+      out.println(
+          String.format(
+              "%-32s %7d %11.1f %11s %12s",
+              Strings.repeat("  ", depth) + path.substring(path.lastIndexOf('/') + 1),
+              stats.calls,
+              millis(stats.wallNanos),
+              cpuTime ? String.format("%.1f", millis(stats.cpuNanos)) : "-",
+              allocations ? String.format("%.1f", stats.allocatedBytes / 1048576.0) : "-"));
+    }
+    for (Map.Entry<String, Long> entry : getCounters().entrySet())
+      out.println(String.format("%-32s %7d", entry.getKey(), entry.getValue()));
+    out.println(String.format("Total: %.1f ms.", millis(System.nanoTime() - start)));
+  }
+
+  private Map<String, Stats> getPhases() {
+    Map<String, Stats> result = new LinkedHashMap<>();
+    synchronized (phases) {
+      for (Map.Entry<String, Stats> entry : phases.entrySet())
+        result.put(entry.getKey(), entry.getValue().copy());
+    }
+    return result;
+  }
+
+  private Map<String, Long> getCounters() {
+    Map<String, Long> result = new TreeMap<>();
+    for (Map.Entry<String, LongAdder> entry : counters.entrySet())
+      result.put(entry.getKey(), entry.getValue().sum());
+    return result;
+  }
+
+  private long cpuNanos() {
+    return cpuTime ? THREADS.getCurrentThreadCpuTime() : 0;
+  }
+
+  /** The bytes allocated by the current thread so far, or -1 if the JVM does not tell. */
+  private static long allocatedBytes() {
+    if (!(THREADS instanceof com.sun.management.ThreadMXBean)) return -1;
+    return ((com.sun.management.ThreadMXBean) THREADS)
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1e6;
+  }
+
+  /** The work of a phase, which may throw a checked exception. */
+  public interface Action<E extends Exception> {
+    void run() throws E;
+  }
+
+  /** The work of a phase that computes a value, which may throw a checked exception. */
+  public interface Computation<T, E extends Exception> {
+    T compute() throws E;
+  }
+
+  /** A running phase. Must be closed on the thread that started it. */
+  public static class Phase implements AutoCloseable {
+    private final Profiler profiler;
+    private final Stats stats;
+    private final long wallStart;
+    private final long cpuStart;
+    private final long allocatedStart;
+
+    private Phase(Profiler profiler, Stats stats) {
+      this.profiler = profiler;
+      this.stats = stats;
+      this.wallStart = profiler == null ? 0 : System.nanoTime();
+      this.cpuStart = profiler == null ? 0 : profiler.cpuNanos();
+      this.allocatedStart = profiler == null || !profiler.allocations ? 0 : allocatedBytes();
+    }
+
+    @Override
+    public void close() {
+      if (profiler == null) return;
+      long wall = System.nanoTime() - wallStart;
+      long cpu = profiler.cpuNanos() - cpuStart;
+      long allocated = profiler.allocations ? allocatedBytes() - allocatedStart : 0;
+      profiler.running.get().pop();
+      synchronized (profiler.phases) {
+        stats.calls++;
+        stats.wallNanos += wall;
+        stats.cpuNanos += cpu;
+        stats.allocatedBytes += allocated;
+      }
+    }
+  }
+
+  private static class Stats {
+    private long calls;
+    private long wallNanos;
+    private long cpuNanos;
+    private long allocatedBytes;
+
+    private Stats copy() {
+      Stats copy = new Stats();
+      copy.calls = calls;
+      copy.wallNanos = wallNanos;
+      copy.cpuNanos = cpuNanos;
+      copy.allocatedBytes = allocatedBytes;
+      return copy;
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package com.github.informatievlaanderen.oslo_ea_to_rdf;
+
+import ch.qos.logback.classic.Level;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.Converter;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.RDFOutputHandler;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.TagHelper;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.convert.config.Configuration;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.EARepository;
+import com.github.informatievlaanderen.oslo_ea_to_rdf.ea.impl.MemoryRepositoryBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures writing a {@link SortedOutputModel} as Turtle, which is dominated by listing the
+ * subjects in order. Run by {@code bin/bench-sorted-output.sh}, see there for the arguments.
+ *
+ * <p>The model is either the output of converting a diagram, or a synthetic vocabulary with five
+ * triples per subject. It is written a number of times to warm up, and then a number of times
+ * more, of which the mean is printed.
+ */
+public class SortedOutputModelBenchmark {
+  public static void main(String[] args) throws Exception {
+    ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME))
+        .setLevel(Level.WARN);
+    if (args.length >= 2 && args[0].equals("--synthetic")) {
+      int subjects = Integer.parseInt(args[1]);
+      int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+      Model model = synthetic(subjects);
+      report(subjects + " synthetic subjects", runs, () -> model.write(new NullWriter(), "TTL"));
+    } else if (args.length >= 3) {
+      File eaFile = new File(args[0]);
+      Configuration config = Main.loadConfig(new File(args[1]));
+      String diagram = args[2];
+      int runs = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+      EARepository repo = new MemoryRepositoryBuilder().build(eaFile);
+      TagHelper tagHelper = new TagHelper(config);
+      RDFOutputHandler handler = new RDFOutputHandler(config.getPrefixes(), tagHelper, false);
+      new Converter(repo, tagHelper, handler).convertDiagram(Main.findByName(repo, diagram));
+      report(eaFile.getName() + " " + diagram, runs, () -> handler.write(new NullWriter()));
+    } else {
+      System.err.println(
+          "Usage: SortedOutputModelBenchmark <eap> <config> <diagram> [runs]\n"
+              + "       SortedOutputModelBenchmark --synthetic <subjects> [runs]");
+      System.exit(1);
+    }
+  }
+
+  /** Runs the write as often to warm up, and then prints the mean of the runs that follow. */
+  private static void report(String name, int runs, Run write) throws IOException {
+    for (int i = 0; i < runs; i++) write.run();
+    long total = 0;
+    for (int i = 0; i < runs; i++) {
+      long start = System.nanoTime();
+      write.run();
+      total += System.nanoTime() - start;
+    }
+    System.out.println(
+        String.format("%s: %.1f ms (mean of %d runs)", name, total / 1e6 / runs, runs));
+  }
+
+  /** A vocabulary of classes and properties in three namespaces, inserted in random order. */
+  private static Model synthetic(int subjects) {
+    Model model = new SortedOutputModel();
+    String[] namespaces = {
+      "http://example.com/ns/a#", "http://example.com/ns/b#", "http://example.com/other/"
+    };
+    for (int i = 0; i < namespaces.length; i++) model.setNsPrefix("ns" + i, namespaces[i]);
+    Random random = new Random(42);
+    for (int i = 0; i < subjects; i++) {
+      String namespace = namespaces[random.nextInt(namespaces.length)];
+      Resource subject = model.createResource(namespace + "Term" + random.nextInt(subjects * 10));
+      Property property = model.createProperty(namespace, "property" + i);
+      model.add(subject, RDF.type, i % 2 == 0 ? OWL.Class : OWL.ObjectProperty);
+      model.add(subject, RDFS.label, "Term " + i, "nl");
+      model.add(subject, RDFS.comment, "The term with number " + i + ".", "nl");
+      model.add(subject, RDFS.isDefinedBy, model.createResource(namespace));
+      model.add(subject, property, subject);
+    }
+    return model;
+  }
+
+  private interface Run {
+    void run() throws IOException;
+  }
+
+  /** Discards what is written, so that only the serializer is measured. */
+  private static class NullWriter extends Writer {
+    @Override
+    public void write(char[] buffer, int offset, int length) {}
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {}
+  }
+}